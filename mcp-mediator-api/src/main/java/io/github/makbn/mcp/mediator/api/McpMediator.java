@@ -3,6 +3,7 @@ package io.github.makbn.mcp.mediator.api;
 
 import jakarta.annotation.Nonnull;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,6 +28,16 @@ public interface McpMediator {
      */
     <T extends McpMediatorRequest<R>, R> void registerHandler(@Nonnull McpMediatorRequestHandler<T, R> handler);
 
+    /**
+     * Registers multiple request handlers with the mediator in one operation. Implementations may register the tools
+     * of all the handlers at once and notify the clients only once.
+     *
+     * @param handlers the handlers to register
+     */
+    default void registerHandlers(@Nonnull Collection<? extends McpMediatorRequestHandler<?, ?>> handlers) {
+        handlers.forEach(this::registerHandler);
+    }
+
     @SuppressWarnings("rawtypes")
     List<McpMediatorRequestHandler> getHandlers();
     /**
@@ -53,5 +53,17 @@ public interface McpMediatorRequestHandler<T extends McpMediatorRequest<R>, R> {
 
     }
 
+    /**
+     * Will be called by the mediator when this handler has not received any request for the configured idle timeout.
+     * Handlers holding expensive resources (connections, clients, processes) can release them here and reopen them
+     * on demand on the next {@link #handle(McpMediatorRequest)} call.
+     *
+     * @return {@code false} if the resources are still used by a request and could not be released yet, the mediator
+     * calls this method again later in that case
+     */
+    default boolean releaseIdleResources() {
+        return true;
+    }
+
 
 } 
\ No newline at end of file
@@ -50,4 +50,50 @@ public @interface McpService {
      * @return optional hints about the tools provided by the service.
      */
     McpTool.McpAnnotation[] annotations() default {};
+
+    /**
+     * The lifecycle of the service instances the tool calls are dispatched to. Services wrapping non-thread-safe
+     * resources, such as JDBC connections or parsers, can be {@link Scope#POOLED pooled} or created
+     * {@link Scope#PER_CALL per call} instead of synchronizing all the calls on a single instance.
+     *
+     * @return the scope of the service instances.
+     */
+    Scope scope() default Scope.SINGLETON;
+
+    /**
+     * The maximum number of instances of a {@link Scope#POOLED pooled} service, i.e. the maximum number of concurrent
+     * calls to the service. Calls exceeding it wait for an instance to be returned to the pool, up to the
+     * {@link #poolTimeout() pool timeout}. Non-positive values default to the number of available processors.
+     *
+     * @return the pool size of the service.
+     */
+    int poolSize() default 0;
+
+    /**
+     * The maximum number of seconds a call waits for an instance of an exhausted {@link Scope#POOLED pooled} service
+     * before failing. The waiting call holds its executor thread, a non-positive value fails the call right away
+     * instead of waiting.
+     *
+     * @return the pool timeout of the service in seconds.
+     */
+    int poolTimeout() default 30;
+
+    /**
+     * Lifecycle of the instances of an {@link McpService}.
+     */
+    enum Scope {
+        /**
+         * A single instance handles all the calls concurrently, the service has to be thread-safe.
+         */
+        SINGLETON,
+        /**
+         * Each call borrows an instance from a bounded pool and returns it once done, an instance only handles one
+         * call at a time. Instances are created on demand up to the {@link McpService#poolSize() pool size}.
+         */
+        POOLED,
+        /**
+         * Each call gets a new instance, closed after the call if it is {@link AutoCloseable}.
+         */
+        PER_CALL
+    }
 }
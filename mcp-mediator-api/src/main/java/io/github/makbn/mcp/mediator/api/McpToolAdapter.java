@@ -40,6 +40,17 @@ public interface McpToolAdapter<T> {
      */
     @Nonnull String getSchema();
 
+    /**
+     * Returns the name, description and input schema of the tool in one immutable value. Implementations compute
+     * the descriptor once and return the same instance afterward.
+     *
+     * @return the descriptor of the tool
+     */
+    @Nonnull
+    default McpToolDescriptor getDescriptor() {
+        return McpToolDescriptor.of(getMethod(), getDescription(), getSchema());
+    }
+
     /**
      *
      * @return the source tool to be extracted information from
@@ -0,0 +1,36 @@
+package io.github.makbn.mcp.mediator.api;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Objects;
+
+/**
+ * Immutable description of a tool as exposed to the MCP clients: its name, description and input schema.
+ * <p>
+ * A descriptor is computed once per {@link McpToolAdapter} and shared by the registration, the tool listing, the
+ * logging and the inspection of the tool.
+ *
+ * @param name        the tool name
+ * @param description the tool description
+ * @param schema      the JSON string of the input schema
+ * @author Matt Akbarian
+ */
+public record McpToolDescriptor(@Nonnull String name, @Nonnull String description, @Nonnull String schema) {
+
+    public McpToolDescriptor {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(description, "description");
+        Objects.requireNonNull(schema, "schema");
+    }
+
+    /**
+     * @param name        the tool name
+     * @param description the tool description
+     * @param schema      the JSON string of the input schema
+     * @return the descriptor
+     */
+    @Nonnull
+    public static McpToolDescriptor of(@Nonnull String name, @Nonnull String description, @Nonnull String schema) {
+        return new McpToolDescriptor(name, description, schema);
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.makbn.mcp.mediator.api;
+
+/**
+ * Invoker of the tools of an {@link McpService}, generated at build time by the {@code mcp-mediator-processor}
+ * annotation processor.
+ * <p>
+ * The generated invoker calls the tool methods directly, without reflection. It is described together with the tool
+ * names, descriptions and input schemas in a descriptor stored under {@link #DESCRIPTOR_LOCATION}. When the
+ * descriptor of a service is not on the classpath, the mediator falls back to discovering the tools at runtime.
+ *
+ * @author Matt Akbarian
+ */
+public interface McpToolInvoker {
+    /**
+     * Classpath location of the generated tool descriptors, the descriptor of a type is named after its binary name.
+     */
+    String DESCRIPTOR_LOCATION = "META-INF/mcp-mediator/tools/";
+    /**
+     * Classpath location of the index listing the binary names of the {@link McpService} classes of a jar, one per
+     * line.
+     */
+    String SERVICE_INDEX_LOCATION = "META-INF/mcp-mediator/services.idx";
+    /**
+     * Suffix of the generated invoker class name, appended to the name of the service class.
+     */
+    String INVOKER_SUFFIX = "_McpToolInvoker";
+
+    /**
+     * Invokes a tool method of the service.
+     *
+     * @param service   the service instance
+     * @param tool      the index of the tool in the generated descriptor
+     * @param arguments the resolved arguments of the tool method
+     * @return the value returned by the tool method, {@code null} for {@code void} methods
+     * @throws Exception if the tool method throws an exception
+     */
+    Object invoke(Object service, int tool, Object[] arguments) throws Exception;
+}
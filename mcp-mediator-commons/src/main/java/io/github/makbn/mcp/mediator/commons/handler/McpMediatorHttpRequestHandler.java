@@ -7,29 +7,51 @@ import io.github.makbn.mcp.mediator.api.McpMediatorException;
 import io.github.makbn.mcp.mediator.api.McpMediatorRequest;
 import io.github.makbn.mcp.mediator.api.McpMediatorRequestHandler;
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import org.apache.hc.client5.http.classic.methods.*;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.*;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.apache.hc.core5.io.CloseMode;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 
-@AllArgsConstructor
 @FieldDefaults(makeFinal = true, level = AccessLevel.PROTECTED)
 public abstract class McpMediatorHttpRequestHandler<T extends McpMediatorRequest<R>, R> implements McpMediatorRequestHandler<T, R> {
-    CloseableHttpClient httpClient;
+    /**
+     * Creates the http client on demand, {@code null} if the http client is provided and owned by the caller and
+     * should never be released by this handler.
+     */
+    Supplier<CloseableHttpClient> httpClientFactory;
     ObjectMapper objectMapper;
+    AtomicInteger activeRequests = new AtomicInteger();
+
+    @NonFinal
+    volatile CloseableHttpClient httpClient;
 
     protected McpMediatorHttpRequestHandler() {
-        this(HttpClients.createDefault(), JsonMapper.builder().build());
+        this(HttpClients::createDefault, JsonMapper.builder().build());
+    }
+
+    protected McpMediatorHttpRequestHandler(@NonNull CloseableHttpClient httpClient, @NonNull ObjectMapper objectMapper) {
+        this.httpClientFactory = null;
+        this.objectMapper = objectMapper;
+        this.httpClient = httpClient;
+    }
+
+    protected McpMediatorHttpRequestHandler(@NonNull Supplier<CloseableHttpClient> httpClientFactory,
+                                            @NonNull ObjectMapper objectMapper) {
+        this.httpClientFactory = httpClientFactory;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -37,10 +59,53 @@ public abstract class McpMediatorHttpRequestHandler<T extends McpMediatorRequest
         return executeHttp(request);
     }
 
+    /**
+     * Closes the http client, including its pooled connections, if it has been created by this handler.
+     * It will be recreated on the next request. Nothing is released while a request is executing.
+     */
+    @Override
+    public synchronized boolean releaseIdleResources() {
+        if (activeRequests.get() > 0) {
+            return false;
+        }
+        if (httpClientFactory != null && httpClient != null) {
+            CloseableHttpClient client = httpClient;
+            httpClient = null;
+            client.close(CloseMode.GRACEFUL);
+        }
+        return true;
+    }
+
+    @NonNull
+    protected CloseableHttpClient getHttpClient() {
+        CloseableHttpClient client = httpClient;
+        if (client != null) {
+            return client;
+        }
+        synchronized (this) {
+            if (httpClient == null) {
+                httpClient = httpClientFactory.get();
+            }
+            return httpClient;
+        }
+    }
+
+    /**
+     * Takes the http client for a request, under the same lock as {@link #releaseIdleResources()}, so the client is
+     * never released while a request is about to use it.
+     */
+    @NonNull
+    private synchronized CloseableHttpClient acquireHttpClient() {
+        CloseableHttpClient client = getHttpClient();
+        activeRequests.incrementAndGet();
+        return client;
+    }
+
     protected R executeHttp(T request) {
+        CloseableHttpClient client = acquireHttpClient();
         try {
             ClassicHttpRequest httpRequest = createHttpRequest(request);
-            return httpClient.execute(httpRequest, classicHttpResponse -> {
+            return client.execute(httpRequest, classicHttpResponse -> {
                 if (classicHttpResponse.getCode() == HttpStatus.SC_OK) {
                     return convertResponseToResult(classicHttpResponse);
                 } else {
@@ -49,6 +114,8 @@ public abstract class McpMediatorHttpRequestHandler<T extends McpMediatorRequest
             });
         } catch (Exception e) {
             throw new McpMediatorException("Failed to execute HTTP request", e);
+        } finally {
+            activeRequests.decrementAndGet();
         }
     }
 
@@ -1,29 +1,58 @@
 package io.github.makbn.mcp.mediator.core;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.makbn.mcp.mediator.api.*;
 import io.github.makbn.mcp.mediator.core.adaper.McpAdapterFactory;
 import io.github.makbn.mcp.mediator.core.configuration.McpMediatorConfigurationBuilder;
 import io.github.makbn.mcp.mediator.core.configuration.McpMediatorDefaultConfiguration;
+import io.github.makbn.mcp.mediator.core.configuration.McpToolListingProfile;
+import io.github.makbn.mcp.mediator.core.configuration.McpToolProfile;
+import io.github.makbn.mcp.mediator.core.internal.McpArgumentValidator;
+import io.github.makbn.mcp.mediator.core.internal.McpAsyncResults;
+import io.github.makbn.mcp.mediator.core.internal.McpBinaryResultEncoder;
+import io.github.makbn.mcp.mediator.core.internal.McpIdleResourceReaper;
+import io.github.makbn.mcp.mediator.core.internal.McpJsonPatch;
+import io.github.makbn.mcp.mediator.core.internal.McpMemoryGuard;
+import io.github.makbn.mcp.mediator.core.internal.McpRequestBinder;
 import io.github.makbn.mcp.mediator.core.internal.McpRequestExecutor;
+import io.github.makbn.mcp.mediator.core.internal.McpResultCache;
+import io.github.makbn.mcp.mediator.core.internal.McpResultPageStore;
+import io.github.makbn.mcp.mediator.core.internal.McpResultProjection;
+import io.github.makbn.mcp.mediator.core.internal.McpResultWriter;
+import io.github.makbn.mcp.mediator.core.internal.McpSessionToolRouter;
+import io.github.makbn.mcp.mediator.core.internal.McpStreamingResults;
+import io.github.makbn.mcp.mediator.core.internal.McpToolCallArguments;
+import io.github.makbn.mcp.mediator.core.internal.McpToolCatalog;
+import io.github.makbn.mcp.mediator.core.internal.McpToolListing;
+import io.github.makbn.mcp.mediator.core.internal.McpToolRegistrySnapshot;
+import io.github.makbn.mcp.mediator.core.internal.McpToolSearchIndex;
+import io.github.makbn.mcp.mediator.core.internal.McpWireEncoding;
 import io.github.makbn.mcp.mediator.core.internal.MinimalMcpMediator;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
 import io.modelcontextprotocol.server.McpServer;
 import io.modelcontextprotocol.server.McpServerFeatures;
 import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
 import io.modelcontextprotocol.server.transport.HttpServletSseServerTransportProvider;
 import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
 import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpServerTransportProvider;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
@@ -35,17 +64,114 @@ import java.util.function.Function;
 @Slf4j
 @FieldDefaults(level = AccessLevel.PROTECTED, makeFinal = true)
 public class DefaultMcpMediator implements McpMediator {
+    public static final String FETCH_MORE_TOOL = "fetch_more";
+    public static final String CONTINUATION_TOKEN_ARGUMENT = "continuation_token";
+    public static final String FIND_TOOLS_TOOL = "find_tools";
+    public static final String DEFAULT_TOOL_CATALOG = "default";
+    public static final String QUERY_ARGUMENT = "query";
+    public static final String LIMIT_ARGUMENT = "limit";
+    private static final int DEFAULT_FIND_TOOLS_LIMIT = 10;
+    private static final int MAX_FIND_TOOLS_LIMIT = 50;
+    private static final Set<String> META_TOOLS = Set.of(FETCH_MORE_TOOL, FIND_TOOLS_TOOL);
+    private static final Duration DEFAULT_THREAD_KEEP_ALIVE = Duration.ofSeconds(60);
+    private static final String CONTINUATION_MESSAGE = "The result is split into %d pages of %d characters in total "
+            + "and this is page %d. Call the %s tool with {\"%s\": \"%s\"} to get the next page.";
+    private static final String RESULT_STATUS = "status";
+    private static final String NOT_MODIFIED_MESSAGE = "Not modified, the result is the same as the previous one";
+    private static final String INVALID_ARGUMENTS_MESSAGE = "Invalid arguments for the %s tool: %s";
+    private static final String STREAMED_MESSAGE = "The result is streamed: its %d elements were sent in %d chunks as "
+            + "the data of the logging notifications of the %s logger.";
+    private static final String FETCH_MORE_SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "continuation_token": {
+                  "type": "string",
+                  "description": "The continuation token returned with the previous page of the result"
+                }
+              },
+              "required": ["continuation_token"]
+            }
+            """;
+    private static final String FIND_TOOLS_SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "query": {
+                  "type": "string",
+                  "description": "Keywords of the task, matched against the tool names, descriptions and parameters"
+                },
+                "limit": {
+                  "type": "integer",
+                  "minimum": 1,
+                  "maximum": 50,
+                  "description": "Maximum number of tools to return, 10 by default"
+                }
+              },
+              "required": ["query"]
+            }
+            """;
+
     @SuppressWarnings("rawtypes")
     Map<Class<? extends McpMediatorRequest<?>>, McpMediatorRequestHandler> handlersMap = new ConcurrentHashMap<>();
     @SuppressWarnings("rawtypes")
     List<McpMediatorRequestHandler> handlersList = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Service handlers keyed by the names of their tools, see {@link McpServiceFactory.McpServiceRequest}.
+     */
+    Map<String, McpServiceFactory.McpServiceRequestHandler> serviceToolHandlers = new ConcurrentHashMap<>();
+    Map<Class<?>, McpRequestBinder<?>> requestBinders = new ConcurrentHashMap<>();
     McpMediatorDefaultConfiguration configuration;
     AtomicBoolean initialized = new AtomicBoolean(false);
+    /**
+     * Serializes the handler registrations with the warm-up, so a handler registered while the warm-up runs in the
+     * background is either registered by the warm-up or after it, never by both or neither.
+     */
+    Object registrationLock = new Object();
+    McpIdleResourceReaper idleResourceReaper;
+    @Getter
+    McpMemoryGuard memoryGuard;
+    McpResultWriter resultWriter;
+    McpResultPageStore resultPageStore;
+    McpResultCache resultCache;
+    McpWireEncoding wireEncoding;
+    /**
+     * Registered tools in registration order, written to the tool registry snapshot.
+     */
+    Map<String, McpToolRegistrySnapshot.Entry> registeredTools = Collections.synchronizedMap(new LinkedHashMap<>());
+    /**
+     * Tools served from the tool registry snapshot and not registered yet by the warm-up.
+     */
+    Map<String, McpSchema.Tool> snapshotTools = new ConcurrentHashMap<>();
+    /**
+     * Calls of the tools served from the snapshot, bound once their handler is registered.
+     */
+    Map<String, BiFunction<McpAsyncServerExchange, Map<String, Object>, Mono<McpSchema.CallToolResult>>> snapshotToolCalls =
+            new ConcurrentHashMap<>();
+    /**
+     * All the tools served by the server, listed by {@code tools/list} and routed per session when the sessions are
+     * routed by the mediator. In the tool search mode, only the meta tools and the pinned tools are listed.
+     */
+    McpToolCatalog toolCatalog = McpToolCatalog.of(DEFAULT_TOOL_CATALOG);
+    /**
+     * Tools of the {@link McpToolProfile tool profiles}, keyed by profile name.
+     */
+    Map<String, McpToolCatalog> profileCatalogs = new LinkedHashMap<>();
+    /**
+     * Index of the tools searched by {@link #FIND_TOOLS_TOOL}, the meta tools are not indexed.
+     */
+    McpToolSearchIndex toolSearchIndex = McpToolSearchIndex.create();
+    /**
+     * Descriptors of the registered tools keyed by tool name, the listing sizes are computed from them on demand.
+     */
+    Map<String, McpToolDescriptor> listedTools = new ConcurrentHashMap<>();
 
     @NonFinal
     ExecutorService executorService;
     @NonFinal
     McpSyncServer mcpSyncServer;
+    @NonFinal
+    volatile CompletableFuture<Void> warmUpCompletion = CompletableFuture.completedFuture(null);
 
     public DefaultMcpMediator() {
         this(McpMediatorConfigurationBuilder.builder().createDefault().build());
@@ -53,6 +179,16 @@ public class DefaultMcpMediator implements McpMediator {
 
     public DefaultMcpMediator(@NonNull McpMediatorDefaultConfiguration configuration) {
         this.configuration = configuration;
+        this.idleResourceReaper = McpIdleResourceReaper.of(configuration.getIdleTimeout());
+        this.memoryGuard = McpMemoryGuard.of(configuration.getMemoryThreshold(),
+                configuration.getMemoryPressureResultLimit());
+        this.resultWriter = McpResultWriter.of(configuration.getSerializer());
+        this.resultPageStore = McpResultPageStore.of(configuration.getResultPageSize(),
+                configuration.getResultPageStoreCapacity(), configuration.getIdleTimeout());
+        this.resultCache = McpResultCache.of(configuration.getResultCacheCapacity());
+        this.wireEncoding = McpWireEncoding.of(configuration.getSerializer());
+        configuration.getToolProfiles().forEach(profile ->
+                profileCatalogs.put(profile.getName(), McpToolCatalog.of(profile.getName())));
     }
 
     /**
@@ -64,12 +200,34 @@ public class DefaultMcpMediator implements McpMediator {
      */
     @Override
     public <T extends McpMediatorRequest<R>, R> void registerHandler(@NonNull McpMediatorRequestHandler<T, R> handler) {
-        handlersList.add(handler);
-        // if server already initialized, add the handler to the map and register it to the server
-        if (initialized.get()) {
-            addToHandlersMap(handler);
-            handler.getAllSupportedRequestClass().forEach(requestType ->
-                    startHandlerToMcpToolConnection(requestType, handler, true));
+        synchronized (registrationLock) {
+            handlersList.add(handler);
+            // if server already initialized, add the handler to the map and register it to the server
+            if (initialized.get()) {
+                addToHandlersMap(handler);
+                handler.getAllSupportedRequestClass().forEach(requestType ->
+                        startHandlerToMcpToolConnection(requestType, handler, true));
+            }
+        }
+    }
+
+    /**
+     * Registers all the given handlers at once. If the server is already initialized, the tools of all the handlers
+     * are added to the server and the clients are notified only once.
+     *
+     * @param handlers the handlers to register
+     */
+    @Override
+    public void registerHandlers(@NonNull Collection<? extends McpMediatorRequestHandler<?, ?>> handlers) {
+        synchronized (registrationLock) {
+            handlersList.addAll(handlers);
+            if (initialized.get() && !handlers.isEmpty()) {
+                handlers.forEach(this::addToHandlersMap);
+                handlers.forEach(handler -> handler.getAllSupportedRequestClass().forEach(requestType ->
+                        startHandlerToMcpToolConnection(requestType, handler, false)));
+                mcpSyncServer.notifyToolsListChanged();
+                log.debug("{} handlers registered successfully", handlers.size());
+            }
         }
     }
 
@@ -82,18 +240,46 @@ public class DefaultMcpMediator implements McpMediator {
     public void initialize() throws McpMediatorException {
         log.info("Initializing MCP Mediator");
         try {
-            executorService = Executors.newCachedThreadPool();
+            executorService = createExecutorService();
+            memoryGuard.start();
             McpServerTransportProvider stdioServerTransportProvider = getMcpServerTransportProvider();
+            if (configuration.getToolListPageSize() > 0 || configuration.isToolSearchEnabled()
+                    || !profileCatalogs.isEmpty()) {
+                stdioServerTransportProvider = McpSessionToolRouter.of(stdioServerTransportProvider, toolCatalog,
+                        this::selectToolCatalog, configuration.getToolListPageSize());
+            }
             mcpSyncServer = McpServer.sync(stdioServerTransportProvider)
                     .serverInfo(configuration.getServerName(), configuration.getServerVersion())
                     .capabilities(McpSchema.ServerCapabilities.builder()
                             .tools(true)
+                            .experimental(McpWireEncoding.capabilities())
                             .build())
                     .build();
 
-            delegate();
-            initialized.set(true);
-            log.debug("MCP Mediator initialized successfully");
+            String registryKey = getToolRegistryKey();
+            Optional<McpToolRegistrySnapshot> snapshot = Optional.ofNullable(configuration.getToolRegistrySnapshot())
+                    .flatMap(file -> McpToolRegistrySnapshot.read(file, registryKey));
+            if (snapshot.isPresent()) {
+                // tools/list is answered from the snapshot, the calls wait for the warm-up registering the handlers;
+                // the completion exists before the first snapshot tool can be called
+                CompletableFuture<Void> completion = new CompletableFuture<>();
+                warmUpCompletion = completion;
+                snapshot.get().getEntries().forEach(this::serveSnapshotTool);
+                CompletableFuture.runAsync(() -> warmUp(registryKey, snapshot.get()), executorService)
+                        .whenComplete((ignored, e) -> {
+                            if (e != null) {
+                                log.error("Failed to register the tools of the MCP Mediator", e);
+                                completion.completeExceptionally(e);
+                            } else {
+                                completion.complete(null);
+                            }
+                        });
+                log.debug("MCP Mediator initialized from the tool registry snapshot, {} tools served",
+                        snapshot.get().getEntries().size());
+            } else {
+                warmUp(registryKey, null);
+                log.debug("MCP Mediator initialized successfully");
+            }
         } catch (Exception e) {
             log.info("stopping the MCP Mediator server");
             closeServer();
@@ -102,13 +288,221 @@ public class DefaultMcpMediator implements McpMediator {
         }
     }
 
+    /**
+     * Registers the handlers and the tools, then reconciles the tools served from the snapshot with the registered
+     * ones and writes the new snapshot if the registry changed.
+     *
+     * @param registryKey the key of the tool registry
+     * @param snapshot    the served snapshot, {@code null} if none
+     */
+    private void warmUp(String registryKey, McpToolRegistrySnapshot snapshot) {
+        synchronized (registrationLock) {
+            delegate();
+            initialized.set(true);
+        }
+        log.info("tools/list serves {} tools with the {} profile", listedTools.size(),
+                configuration.getToolListingProfile());
+        if (log.isDebugEnabled()) {
+            log.debug("tools/list size in bytes per profile: {}", getToolListingSizes());
+        }
+        profileCatalogs.values().forEach(catalog ->
+                log.debug("tools/list serves {} tools to the clients of the {} profile", catalog.size(),
+                        catalog.getName()));
+        // served from the snapshot but not provided anymore
+        snapshotTools.keySet().forEach(this::removeTool);
+        snapshotTools.clear();
+        Path snapshotFile = configuration.getToolRegistrySnapshot();
+        List<McpToolRegistrySnapshot.Entry> entries;
+        synchronized (registeredTools) {
+            entries = List.copyOf(registeredTools.values());
+        }
+        if (snapshotFile != null && (snapshot == null || !snapshot.getEntries().equals(entries))) {
+            McpToolRegistrySnapshot.write(snapshotFile, registryKey, entries);
+        }
+    }
+
+    /**
+     * Returns the size of the tool definitions served by {@code tools/list}, for every listing profile. The sizes are
+     * the number of bytes of the serialized definitions of the handler and remote tools, the served profile is
+     * {@link McpMediatorDefaultConfiguration#getToolListingProfile()}. The definitions of every profile are built and
+     * serialized on each call.
+     *
+     * @return the number of bytes of the listing per profile
+     */
+    @NonNull
+    public Map<McpToolListingProfile, Long> getToolListingSizes() {
+        ObjectMapper serializer = configuration.getSerializer();
+        Map<McpToolListingProfile, Long> sizes = new EnumMap<>(McpToolListingProfile.class);
+        for (McpToolListingProfile profile : McpToolListingProfile.values()) {
+            sizes.put(profile, listedTools.values().stream()
+                    .mapToLong(descriptor -> McpToolListing.sizeOf(
+                            toMcpTool(McpToolListing.describe(descriptor, profile, serializer)), serializer))
+                    .sum());
+        }
+        return sizes;
+    }
+
+    /**
+     * Returns the key of the tool registry, a snapshot is only served if it was taken with the same key. The key
+     * covers the server identity, the listing profile and the registered handlers.
+     *
+     * @return the key identifying the tool registry of this mediator
+     */
+    @NonNull
+    protected String getToolRegistryKey() {
+        StringJoiner key = new StringJoiner("\n")
+                .add(String.valueOf(configuration.getServerName()))
+                .add(String.valueOf(configuration.getServerVersion()))
+                .add(configuration.getToolListingProfile().name());
+        synchronized (handlersList) {
+            handlersList.forEach(handler -> key.add(handler.getClass().getName() + "#" + handler.getName()));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Adds a tool to the server and to the tool registry. A tool already served from the tool registry snapshot with
+     * the same definition is only bound to its call, a tool whose definition changed replaces the served one.
+     *
+     * @param specification the tool specification
+     * @param route         the routing key of the tool, e.g. the handler or the remote server providing it
+     */
+    protected void addTool(@NonNull McpServerFeatures.AsyncToolSpecification specification, @NonNull String route) {
+        McpSchema.Tool tool = specification.tool();
+        registeredTools.put(tool.name(), toSnapshotEntry(tool, route));
+        McpSchema.Tool servedTool = snapshotTools.remove(tool.name());
+        if (tool.equals(servedTool)) {
+            snapshotToolCalls.put(tool.name(), specification.call());
+            // the served tool may belong to another namespace now
+            serveTool(specification, route);
+            return;
+        } else if (servedTool != null) {
+            removeTool(tool.name());
+        }
+        mcpSyncServer.getAsyncServer().addTool(specification).block();
+        serveTool(specification, route);
+    }
+
+    /**
+     * Adds a tool added to the server to the search index, the default catalog and the catalogs of the profiles
+     * including it. The route of the tool is its namespace. The {@link #FIND_TOOLS_TOOL} of a profile only finds the
+     * tools of the profile.
+     */
+    private void serveTool(@NonNull McpServerFeatures.AsyncToolSpecification specification, @NonNull String route) {
+        McpSchema.Tool tool = specification.tool();
+        boolean metaTool = META_TOOLS.contains(tool.name());
+        if (!metaTool) {
+            toolSearchIndex.add(tool);
+        }
+        boolean listed = !configuration.isToolSearchEnabled() || metaTool
+                || configuration.getPinnedTools().contains(tool.name());
+        toolCatalog.put(tool, specification.call(), listed);
+        configuration.getToolProfiles().forEach(profile -> {
+            McpToolCatalog catalog = profileCatalogs.get(profile.getName());
+            if (FIND_TOOLS_TOOL.equals(tool.name())) {
+                catalog.put(tool, (exchange, arguments) -> Mono.fromCallable(() -> findTools(arguments, catalog))
+                        .subscribeOn(Schedulers.boundedElastic()), listed);
+            } else if (metaTool || profile.includes(route, tool.name())) {
+                catalog.put(tool, specification.call(), listed);
+            } else {
+                catalog.remove(tool.name());
+            }
+        });
+    }
+
+    private void removeTool(@NonNull String name) {
+        mcpSyncServer.removeTool(name);
+        toolCatalog.remove(name);
+        profileCatalogs.values().forEach(catalog -> catalog.remove(name));
+        toolSearchIndex.remove(name);
+        listedTools.remove(name);
+    }
+
+    /**
+     * Chooses the tool catalog of a client session: the profile requested in the mediator experimental client
+     * capability, or else the profile listing the client name, or else all the tools.
+     */
+    @NonNull
+    private McpToolCatalog selectToolCatalog(@NonNull McpSchema.InitializeRequest request) {
+        Object requestedProfile = request.capabilities() != null && request.capabilities().experimental() != null
+                && request.capabilities().experimental().get(McpWireEncoding.CAPABILITY) instanceof Map<?, ?> capability
+                ? capability.get(McpSessionToolRouter.TOOL_PROFILE)
+                : null;
+        String clientName = request.clientInfo() == null ? null : request.clientInfo().name();
+        return configuration.getToolProfiles().stream()
+                .filter(profile -> profile.getName().equals(requestedProfile)
+                        || (requestedProfile == null && profile.getClientNames().contains(clientName)))
+                .findFirst()
+                .map(profile -> profileCatalogs.get(profile.getName()))
+                .orElse(toolCatalog);
+    }
+
+    /**
+     * Adds a synchronous tool, its calls are run on the bounded elastic scheduler like the server does.
+     *
+     * @see #addTool(McpServerFeatures.AsyncToolSpecification, String)
+     */
+    protected void addTool(@NonNull McpServerFeatures.SyncToolSpecification specification, @NonNull String route) {
+        addTool(new McpServerFeatures.AsyncToolSpecification(specification.tool(), (exchange, arguments) ->
+                Mono.fromCallable(() -> specification.call().apply(new McpSyncServerExchange(exchange), arguments))
+                        .subscribeOn(Schedulers.boundedElastic())), route);
+    }
+
+    private void serveSnapshotTool(@NonNull McpToolRegistrySnapshot.Entry entry) {
+        McpSchema.Tool tool = new McpSchema.Tool(entry.name(), entry.description(), entry.schema());
+        snapshotTools.put(tool.name(), tool);
+        McpServerFeatures.AsyncToolSpecification specification = new McpServerFeatures.AsyncToolSpecification(tool,
+                (exchange, arguments) -> Mono.fromCompletionStage(warmUpCompletion)
+                        .then(Mono.defer(() -> {
+                            BiFunction<McpAsyncServerExchange, Map<String, Object>, Mono<McpSchema.CallToolResult>> call =
+                                    snapshotToolCalls.get(tool.name());
+                            return call != null
+                                    ? call.apply(exchange, arguments)
+                                    : Mono.just(new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(
+                                    String.format("Tool %s is not available anymore", tool.name()))), true));
+                        }))
+                        .onErrorResume(e -> Mono.just(new McpSchema.CallToolResult(List.of(
+                                new McpSchema.TextContent(e.getMessage())), true))));
+        mcpSyncServer.getAsyncServer().addTool(specification).block();
+        serveTool(specification, entry.route());
+    }
+
+    @NonNull
+    private McpToolRegistrySnapshot.Entry toSnapshotEntry(@NonNull McpSchema.Tool tool, @NonNull String route) {
+        try {
+            String schema = tool.inputSchema() == null
+                    ? null
+                    : configuration.getSerializer().writeValueAsString(tool.inputSchema());
+            return new McpToolRegistrySnapshot.Entry(tool.name(), tool.description(), schema, route);
+        } catch (IOException e) {
+            throw new McpMediatorException("Failed to serialize the schema of the tool " + tool.name(), e);
+        }
+    }
+
     private synchronized void closeServer() {
+        idleResourceReaper.close();
+        memoryGuard.stop();
+        resultPageStore.clear();
+        resultCache.clear();
         if (mcpSyncServer != null) {
             mcpSyncServer.closeGracefully();
             mcpSyncServer = null;
         }
     }
 
+    /**
+     * Creates an unbounded executor that, similar to {@link Executors#newCachedThreadPool()}, keeps no core threads
+     * and terminates worker threads once they have been idle for the configured idle timeout.
+     *
+     * @return the executor used to execute the requests
+     */
+    @NonNull
+    private ExecutorService createExecutorService() {
+        Duration keepAlive = idleResourceReaper.isEnabled() ? configuration.getIdleTimeout() : DEFAULT_THREAD_KEEP_ALIVE;
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, keepAlive.toMillis(), TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>());
+    }
+
     @NonNull
     @Override
     @SuppressWarnings("rawtypes")
@@ -125,6 +519,7 @@ public class DefaultMcpMediator implements McpMediator {
      *   <li>Finding and validating the appropriate handler</li>
      *   <li>Wrapping the execution inside a {@link McpRequestExecutor} to maintain execution context isolation</li>
      *   <li>Submitting the execution to an {@link java.util.concurrent.ExecutorService}</li>
+     *   <li>Awaiting the asynchronous results, see {@link #executeAsync(McpMediatorRequest)}</li>
      *   <li>Handling and propagating execution errors, wrapping them into a {@link McpMediatorException}</li>
      * </ul>
      *
@@ -141,10 +536,41 @@ public class DefaultMcpMediator implements McpMediator {
      * @throws McpMediatorException if any error occurs during handler validation, execution, or interruption.
      */
     @Override
-    @SuppressWarnings("unchecked")
     public <T extends McpMediatorRequest<R>, R> R execute(T request) throws McpMediatorException {
+        try {
+            return executeAsync(request).get();
+        } catch (ExecutionException e) {
+            throw new McpMediatorException(String.format("Failed to execute request [%s]: %s", request, e.getMessage()), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String message = String.format("Internal handler execution interrupted! interrupting mediator! request: %s", request);
+            log.error(message, e);
+            throw new McpMediatorException(message, e);
+        }
+    }
+
+    /**
+     * Executes a given {@link McpMediatorRequest} like {@link #execute(McpMediatorRequest)} without waiting for the
+     * result.
+     * <p>
+     * The handler is invoked on the executor service. If it returns an asynchronous result, a
+     * {@link java.util.concurrent.CompletionStage} or a Reactor {@link Mono}, the executor thread is released as soon
+     * as the handler returns and the returned future is completed with the value of the result once it completes.
+     *
+     * @param request the request to be executed
+     * @param <T>     the type of the mediator request
+     * @param <R>     the type of the response expected from the handler
+     * @return the future of the result produced by the handler, failed with a {@link McpMediatorException} if the
+     * execution fails
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public <T extends McpMediatorRequest<R>, R> CompletableFuture<R> executeAsync(@NonNull T request) {
         final McpExecutionContext parentContext = McpExecutionContext.get();
         final McpMediatorRequestHandler<T, R> handler = (McpMediatorRequestHandler<T, R>) findHandler(request);
+        if (handler != null) {
+            idleResourceReaper.touch(handler);
+        }
 
         McpRequestExecutor<R> executor = new McpRequestExecutor<>() {
             @Override
@@ -164,17 +590,8 @@ public class DefaultMcpMediator implements McpMediator {
             }
         };
 
-        Future<R> executionSyncedResult = executorService.submit(executor);
-        try {
-            return executionSyncedResult.get();
-        } catch (ExecutionException e) {
-            throw new McpMediatorException(String.format("Failed to execute request [%s]: %s", request, e.getMessage()), e);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            String message = String.format("Internal handler execution interrupted! interrupting mediator! request: %s", request);
-            log.error(message, e);
-            throw new McpMediatorException(message, e);
-        }
+        return CompletableFuture.supplyAsync(executor, executorService)
+                .thenCompose(result -> (CompletionStage<R>) McpAsyncResults.toCompletionStage(result));
     }
 
     private static <T extends McpMediatorRequest<R>, R> void validateHandler(McpMediatorRequestHandler<T, R> handler, T request) {
@@ -184,19 +601,35 @@ public class DefaultMcpMediator implements McpMediator {
     }
 
     protected void delegate() {
+        if (resultPageStore.isEnabled()) {
+            addTool(createFetchMoreToolSpecification(), getClass().getName());
+        }
+        if (configuration.isToolSearchEnabled()) {
+            addTool(createFindToolsToolSpecification(), getClass().getName());
+        }
         handlersList.forEach(this::addToHandlersMap);
         handlersMap.forEach((requestType, handler) ->
                 startHandlerToMcpToolConnection(requestType, handler, false));
+        handlersList.stream()
+                .filter(McpServiceFactory.McpServiceRequestHandler.class::isInstance)
+                .forEach(handler -> startHandlerToMcpToolConnection(McpServiceFactory.McpServiceRequest.class,
+                        handler, false));
     }
 
     private void startHandlerToMcpToolConnection(Class<? extends McpMediatorRequest<?>> requestType,
                                                  McpMediatorRequestHandler<?, ?> handler, boolean notifyClients) {
         Collection<? extends McpToolAdapter<?>> adapters = McpAdapterFactory.createAdapter(requestType, handler);
+        McpRequestBinder<? extends McpMediatorRequest<?>> binder = getRequestBinder(requestType);
         adapters.forEach(adapter -> {
-            McpServerFeatures.SyncToolSpecification tool =
-                    createMcpToolSpecification(adapter, clientPassedArgs ->
-                            executeClientCall(clientPassedArgs, requestType));
-            mcpSyncServer.addTool(tool);
+            Function<Map<String, Object>, McpMediatorRequest<?>> requestFactory =
+                    handler instanceof McpServiceFactory.McpServiceRequestHandler serviceHandler
+                            ? arguments -> serviceHandler.createRequest(adapter.getMethod(), arguments)
+                            : binder::bind;
+            McpServerFeatures.AsyncToolSpecification tool =
+                    createAsyncMcpToolSpecification(adapter, (exchange, clientPassedArgs) ->
+                            executeClientCall(exchange, adapter.getDescriptor().name(), clientPassedArgs,
+                                    requestFactory));
+            addTool(tool, Objects.requireNonNullElse(handler.getName(), handler.getClass().getName()));
         });
 
         if (notifyClients) {
@@ -207,9 +640,23 @@ public class DefaultMcpMediator implements McpMediator {
 
     private <T extends McpMediatorRequest<R>, R> void addToHandlersMap(@NonNull McpMediatorRequestHandler<T, R> handler) {
         handler.initialize(configuration.getSerializer());
-        handler.getAllSupportedRequestClass().forEach(reqClass -> handlersMap.put(reqClass, handler));
+        if (handler instanceof McpServiceFactory.McpServiceRequestHandler serviceHandler) {
+            serviceHandler.getAdapterMap().keySet().forEach(toolName -> {
+                if (serviceToolHandlers.put(toolName, serviceHandler) != null) {
+                    log.warn("Tool {} is provided by more than one service, {} takes precedence", toolName,
+                            serviceHandler.getName());
+                }
+            });
+        } else {
+            handler.getAllSupportedRequestClass().forEach(reqClass -> handlersMap.put(reqClass, handler));
+        }
+        idleResourceReaper.register(handler, String.valueOf(handler.getName()), handler::releaseIdleResources);
     }
 
+    /**
+     * Creates the specification of a tool executed on the transport thread, used for the tools of the remote servers.
+     * The arguments are forwarded without being validated, the remote server applies its own rules to them.
+     */
     @NonNull
     protected McpServerFeatures.SyncToolSpecification createMcpToolSpecification(
             @NonNull McpToolAdapter<?> adapter,
@@ -218,15 +665,154 @@ public class DefaultMcpMediator implements McpMediator {
         return new McpServerFeatures.SyncToolSpecification(defineMcpTool(adapter),
                 (mcpSyncServerExchange, stringObjectMap) -> {
                     try {
-                        return functionToCall.apply(stringObjectMap);
+                        return paginate(functionToCall.apply(stringObjectMap));
                     } catch (Exception e) {
                         log.error("Failed to execute the request, sending error to client", e);
-                        mcpSyncServerExchange.loggingNotification(new McpSchema.LoggingMessageNotification(McpSchema.LoggingLevel.DEBUG, e.getMessage(), e.getStackTrace().toString()));
+                        mcpSyncServerExchange.loggingNotification(new McpSchema.LoggingMessageNotification(
+                                McpSchema.LoggingLevel.DEBUG, e.getMessage(), e.toString()));
                         return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(e.getMessage())), true);
                     }
                 });
     }
 
+    /**
+     * Creates the specification of a tool executed asynchronously, the transport thread isn't blocked while the tool
+     * is running and no thread is held while the handler awaits an asynchronous result. The arguments are validated
+     * on the transport thread, an invalid call doesn't take an executor slot.
+     */
+    @NonNull
+    private McpServerFeatures.AsyncToolSpecification createAsyncMcpToolSpecification(
+            @NonNull McpToolAdapter<?> adapter,
+            @NonNull BiFunction<McpAsyncServerExchange, Map<String, Object>,
+                    CompletionStage<McpSchema.CallToolResult>> functionToCall) {
+
+        McpArgumentValidator validator = createArgumentValidator(adapter);
+        return new McpServerFeatures.AsyncToolSpecification(defineMcpTool(adapter),
+                (mcpAsyncServerExchange, stringObjectMap) -> {
+                    Optional<String> violations = validator.validate(stringObjectMap);
+                    if (violations.isPresent()) {
+                        return Mono.just(createInvalidArgumentsResult(adapter, violations.get()));
+                    }
+                    return Mono.fromCompletionStage(() -> functionToCall.apply(mcpAsyncServerExchange,
+                                    stringObjectMap))
+                            .map(this::paginate)
+                            .onErrorResume(e -> {
+                                log.error("Failed to execute the request, sending error to client", e);
+                                return mcpAsyncServerExchange.loggingNotification(
+                                                new McpSchema.LoggingMessageNotification(McpSchema.LoggingLevel.DEBUG,
+                                                        e.getMessage(), e.toString()))
+                                        .onErrorResume(notificationError -> Mono.empty())
+                                        .thenReturn(new McpSchema.CallToolResult(
+                                                List.of(new McpSchema.TextContent(e.getMessage())), true));
+                            });
+                });
+    }
+
+    /**
+     * Compiles the constraints of the full input schema of the tool, whatever the listing profile.
+     */
+    @NonNull
+    private McpArgumentValidator createArgumentValidator(@NonNull McpToolAdapter<?> adapter) {
+        return McpArgumentValidator.compile(adapter.getDescriptor().schema(), configuration.getSerializer());
+    }
+
+    @NonNull
+    private static McpSchema.CallToolResult createInvalidArgumentsResult(@NonNull McpToolAdapter<?> adapter,
+                                                                         @NonNull String violations) {
+        log.debug("Rejected the call of {}, invalid arguments: {}", adapter.getDescriptor().name(), violations);
+        return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(
+                String.format(INVALID_ARGUMENTS_MESSAGE, adapter.getDescriptor().name(), violations))), true);
+    }
+
+    /**
+     * Keeps the oversized leading text results in the {@link McpResultPageStore} and replaces them with their first
+     * page. The following pages are fetched by the client through the {@link #FETCH_MORE_TOOL} tool.
+     */
+    @NonNull
+    private McpSchema.CallToolResult paginate(@NonNull McpSchema.CallToolResult result) {
+        if (Boolean.TRUE.equals(result.isError()) || result.content() == null || result.content().isEmpty()
+                || !(result.content().get(0) instanceof McpSchema.TextContent textContent)
+                || textContent.text() == null || !resultPageStore.requiresPagination(textContent.text())) {
+            return result;
+        }
+        // trailing contents, e.g. the result _meta, are delivered with the first page
+        List<McpSchema.Content> trailingContents = result.content().subList(1, result.content().size());
+        return toCallToolResult(resultPageStore.paginate(textContent.text()), trailingContents);
+    }
+
+    @NonNull
+    private McpSchema.CallToolResult toCallToolResult(@NonNull McpResultPageStore.Page page) {
+        return toCallToolResult(page, List.of());
+    }
+
+    @NonNull
+    private McpSchema.CallToolResult toCallToolResult(@NonNull McpResultPageStore.Page page,
+                                                      @NonNull List<McpSchema.Content> trailingContents) {
+        List<McpSchema.Content> contents = new ArrayList<>(2 + trailingContents.size());
+        contents.add(new McpSchema.TextContent(page.content()));
+        if (page.hasMore()) {
+            contents.add(new McpSchema.TextContent(String.format(CONTINUATION_MESSAGE, page.pages(),
+                    page.totalSize(), page.page(), FETCH_MORE_TOOL, CONTINUATION_TOKEN_ARGUMENT,
+                    page.continuationToken())));
+        }
+        contents.addAll(trailingContents);
+        return new McpSchema.CallToolResult(contents, false);
+    }
+
+    @NonNull
+    private McpServerFeatures.SyncToolSpecification createFetchMoreToolSpecification() {
+        McpSchema.Tool tool = new McpSchema.Tool(FETCH_MORE_TOOL,
+                "Returns the next page of a tool result that was too large to be returned at once", FETCH_MORE_SCHEMA);
+        return new McpServerFeatures.SyncToolSpecification(tool, (mcpSyncServerExchange, arguments) -> {
+            Object continuationToken = arguments == null ? null : arguments.get(CONTINUATION_TOKEN_ARGUMENT);
+            if (!(continuationToken instanceof String token)) {
+                return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(
+                        String.format("%s is required", CONTINUATION_TOKEN_ARGUMENT))), true);
+            }
+            return resultPageStore.fetch(token)
+                    .map(this::toCallToolResult)
+                    .orElseGet(() -> new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(
+                            "Continuation token is unknown or expired, call the original tool again")), true));
+        });
+    }
+
+    /**
+     * Creates the {@link #FIND_TOOLS_TOOL} meta tool, returning the definitions of the tools best matching a query so
+     * the client loads them on demand.
+     */
+    @NonNull
+    private McpServerFeatures.SyncToolSpecification createFindToolsToolSpecification() {
+        McpSchema.Tool tool = new McpSchema.Tool(FIND_TOOLS_TOOL,
+                "Searches the available tools and returns the definitions of the ones matching the query, the "
+                        + "returned tools can be called directly", FIND_TOOLS_SCHEMA);
+        return new McpServerFeatures.SyncToolSpecification(tool, (mcpSyncServerExchange, arguments) ->
+                findTools(arguments, toolCatalog));
+    }
+
+    /**
+     * Answers a {@link #FIND_TOOLS_TOOL} call with the tools of the catalog of the session best matching the query.
+     */
+    @NonNull
+    private McpSchema.CallToolResult findTools(Map<String, Object> arguments, @NonNull McpToolCatalog catalog) {
+        Object query = arguments == null ? null : arguments.get(QUERY_ARGUMENT);
+        if (!(query instanceof String text) || text.isBlank()) {
+            return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(
+                    String.format("%s is required", QUERY_ARGUMENT))), true);
+        }
+        int limit = arguments.get(LIMIT_ARGUMENT) instanceof Number number
+                ? Math.min(MAX_FIND_TOOLS_LIMIT, Math.max(1, number.intValue()))
+                : DEFAULT_FIND_TOOLS_LIMIT;
+        List<McpSchema.Tool> tools = toolSearchIndex.search(text, limit, catalog::contains).stream()
+                .map(McpToolSearchIndex.Match::tool)
+                .toList();
+        try {
+            return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(
+                    configuration.getSerializer().writeValueAsString(Map.of("tools", tools)))), false);
+        } catch (IOException e) {
+            throw new McpMediatorException("Failed to serialize the tools matching " + text, e);
+        }
+    }
+
     private McpServerTransportProvider getMcpServerTransportProvider() {
         return switch (configuration.getTransportType()) {
             case STDIO -> new StdioServerTransportProvider(configuration.getSerializer(),
@@ -246,32 +832,250 @@ public class DefaultMcpMediator implements McpMediator {
      */
     @SuppressWarnings("unchecked")
     private McpMediatorRequestHandler<?, ?> findHandler(@NonNull McpMediatorRequest<?> request) {
-        return handlersMap.values().stream().filter(handler
-                -> handler.canHandle(request)).findFirst().orElse(null);
+        if (request instanceof McpServiceFactory.McpServiceRequest serviceRequest && serviceRequest.getName() != null) {
+            McpMediatorRequestHandler<?, ?> serviceHandler = serviceToolHandlers.get(serviceRequest.getName());
+            if (serviceHandler != null) {
+                return serviceHandler;
+            }
+        }
+        McpMediatorRequestHandler<?, ?> handler = handlersMap.get(request.getClass());
+        if (handler != null && handler.canHandle(request)) {
+            return handler;
+        }
+        return handlersMap.values().stream().filter(candidate
+                -> candidate.canHandle(request)).findFirst().orElse(null);
     }
 
+    /**
+     * Defines the tool as served with the configured listing profile, only the served form is built. The descriptor is
+     * kept for {@link #getToolListingSizes()}.
+     */
     @NonNull
     private McpSchema.Tool defineMcpTool(@NonNull McpToolAdapter<?> adapter) {
-        return new McpSchema.Tool(adapter.getMethod(), adapter.getDescription(), adapter.getSchema());
+        McpToolDescriptor descriptor = adapter.getDescriptor();
+        listedTools.put(descriptor.name(), descriptor);
+        return toMcpTool(McpToolListing.describe(descriptor, configuration.getToolListingProfile(),
+                configuration.getSerializer()));
     }
 
-    private McpSchema.CallToolResult executeClientCall(
+    @NonNull
+    private static McpSchema.Tool toMcpTool(@NonNull McpToolDescriptor descriptor) {
+        return new McpSchema.Tool(descriptor.name(), descriptor.description(), descriptor.schema());
+    }
+
+    private CompletionStage<McpSchema.CallToolResult> executeClientCall(
+            McpAsyncServerExchange exchange, String toolName,
             Map<String, Object> mcpClientRequestParameters,
-            Class<? extends McpMediatorRequest<?>> mcpMediatorRequestType) {
+            Function<Map<String, Object>, McpMediatorRequest<?>> mcpMediatorRequestFactory) {
+        McpToolCallArguments callArguments = McpToolCallArguments.of(mcpClientRequestParameters);
+        McpResultProjection projection = callArguments.getHint(McpToolCallArguments.FIELDS_HINT)
+                .flatMap(McpResultProjection::parse)
+                .orElse(null);
+        McpMediatorRequest<?> mcpMediatorRequest = mcpMediatorRequestFactory.apply(callArguments.getArguments());
+        return executeAsync(mcpMediatorRequest)
+                .thenCompose(mcpMediatorResult -> {
+                    if (!McpStreamingResults.isStreaming(mcpMediatorResult)) {
+                        return createAdmittedResult(mcpMediatorResult, callArguments, projection).toFuture();
+                    } else if (McpStreamingResults.requestsStreaming(callArguments)) {
+                        return streamResult(exchange, toolName, mcpMediatorResult, callArguments, projection);
+                    }
+                    // collected, so the whole result reaches the client, paginated like any other large result
+                    return McpStreamingResults.toFlux(mcpMediatorResult)
+                            .collectList()
+                            .flatMap(elements -> createAdmittedResult(elements, callArguments, projection))
+                            .toFuture();
+                });
+    }
+
+    /**
+     * Creates the call result once admitted by the memory guard, see {@link McpMemoryGuard#admit()}.
+     */
+    @NonNull
+    private Mono<McpSchema.CallToolResult> createAdmittedResult(Object mcpMediatorResult,
+                                                                McpToolCallArguments callArguments,
+                                                                McpResultProjection projection) {
+        return memoryGuard.admit()
+                .flatMap(permit -> Mono.fromCallable(() ->
+                                createCallToolResult(mcpMediatorResult, callArguments, projection))
+                        .doFinally(signal -> permit.close()));
+    }
+
+    /**
+     * Forwards the elements of a streamed result to the client chunk by chunk, as the data of the logging
+     * notifications of the tool logger, for the clients requesting it with the
+     * {@link McpToolCallArguments#STREAM_HINT} hint. The call result only reports the number of forwarded elements,
+     * unless the whole result fits in a single chunk. The chunks are serialized like regular results, with the
+     * requested projection and the memory pressure limit.
+     */
+    private CompletionStage<McpSchema.CallToolResult> streamResult(McpAsyncServerExchange exchange, String toolName,
+                                                                   Object streamedResult,
+                                                                   McpToolCallArguments callArguments,
+                                                                   McpResultProjection projection) {
+        return McpStreamingResults.forward(streamedResult, configuration.getStreamChunkSize(), chunk ->
+                        Mono.fromCallable(() -> serialize(chunk, projection))
+                                .flatMap(data -> exchange.loggingNotification(new McpSchema.LoggingMessageNotification(
+                                        McpSchema.LoggingLevel.INFO, toolName, data))))
+                .flatMap(outcome -> outcome.isForwarded()
+                        ? Mono.just(createStreamedResult(toolName, outcome))
+                        : createAdmittedResult(outcome.elements(), callArguments, projection))
+                .toFuture();
+    }
+
+    @NonNull
+    private McpSchema.CallToolResult createStreamedResult(@NonNull String toolName,
+                                                          @NonNull McpStreamingResults.Outcome outcome) {
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put(RESULT_STATUS, "streamed");
+        meta.put("logger", toolName);
+        meta.put("chunks", outcome.forwardedChunks());
+        meta.put("count", outcome.forwardedCount());
         try {
-            McpMediatorRequest<?> mcpMediatorRequest = configuration.getSerializer()
-                    .convertValue(mcpClientRequestParameters, mcpMediatorRequestType);
-            Object mcpMediatorResult = execute(mcpMediatorRequest);
+            String serializedMeta = resultWriter.writeAsString(Map.of(McpToolCallArguments.META_ARGUMENT, meta));
+            return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(String.format(STREAMED_MESSAGE,
+                    outcome.forwardedCount(), outcome.forwardedChunks(), toolName)),
+                    new McpSchema.TextContent(serializedMeta)), false);
+        } catch (IOException e) {
+            throw new McpMediatorException(e.getMessage(), e);
+        }
+    }
 
-            return new McpSchema.CallToolResult(
-                    List.of(new McpSchema.TextContent(serialize(mcpMediatorResult))), false);
+    private McpSchema.CallToolResult createCallToolResult(Object mcpMediatorResult, McpToolCallArguments callArguments,
+                                                          McpResultProjection projection) {
+        try {
+            if (McpBinaryResultEncoder.isBinary(mcpMediatorResult)) {
+                return new McpSchema.CallToolResult(List.of(encodeBinary(mcpMediatorResult, null)), false);
+            }
+
+            boolean smile = McpWireEncoding.requestsSmile(callArguments);
+            String ifNoneMatch = callArguments.getHint(McpToolCallArguments.IF_NONE_MATCH_HINT)
+                    .map(String::valueOf)
+                    .orElse(null);
+            boolean conditional = ifNoneMatch != null
+                    || callArguments.getHint(McpToolCallArguments.FINGERPRINT_HINT).isPresent();
+            if (conditional && resultCache.isEnabled()) {
+                // the fingerprints and patches are computed on the JSON text, the content is encoded afterward
+                return conditionalResult(serialize(mcpMediatorResult, projection), ifNoneMatch, smile);
+            } else if (smile) {
+                return new McpSchema.CallToolResult(List.of(encodeSmile(mcpMediatorResult, projection)), false);
+            }
+
+            String serializedResult = serialize(mcpMediatorResult, projection);
+            return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(serializedResult)), false);
         } catch (IOException e) {
             throw new McpMediatorException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Builds the result of a conditional call. The fingerprint of the current result is sent back in a trailing
+     * {@code _meta} content. If the client already has the current result, a "not modified" result is returned, if
+     * the previous result of the client is still cached, a JSON Patch against it is returned when it is smaller than
+     * the full result.
+     *
+     * @param serializedResult the current result
+     * @param ifNoneMatch      fingerprint of the previous result delivered to the client, if any
+     * @param smile            whether the full result or the patch is Smile encoded for another mediator
+     */
+    @NonNull
+    private McpSchema.CallToolResult conditionalResult(@NonNull String serializedResult, String ifNoneMatch,
+                                                       boolean smile) throws IOException {
+        McpResultCache.Resolution resolution = resultCache.resolve(serializedResult, ifNoneMatch, this::diff);
+
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put(McpToolCallArguments.FINGERPRINT_HINT, resolution.fingerprint());
+        meta.put(RESULT_STATUS, resolution.status().getValue());
+        if (resolution.status() == McpResultCache.Status.PATCH) {
+            meta.put("base", ifNoneMatch);
+            meta.put("format", McpJsonPatch.MEDIA_TYPE);
+        }
+        String serializedMeta = resultWriter.writeAsString(Map.of(McpToolCallArguments.META_ARGUMENT, meta));
+        McpSchema.Content encodedContent;
+        if (resolution.status() == McpResultCache.Status.NOT_MODIFIED) {
+            encodedContent = new McpSchema.TextContent(NOT_MODIFIED_MESSAGE);
+        } else {
+            encodedContent = smile
+                    ? encodeSmile(resolution.content())
+                    : new McpSchema.TextContent(resolution.content());
+        }
+        return new McpSchema.CallToolResult(List.of(encodedContent, new McpSchema.TextContent(serializedMeta)),
+                false);
+    }
+
+    private String diff(@NonNull String previousResult, @NonNull String currentResult) throws IOException {
+        ObjectMapper serializer = configuration.getSerializer();
+        return resultWriter.writeAsString(McpJsonPatch.diff(serializer.readTree(previousResult),
+                serializer.readTree(currentResult)));
+    }
+
     @NonNull
-    private String serialize(@NonNull Object object) throws JsonProcessingException {
-        return configuration.getSerializer().writeValueAsString(object);
+    @SuppressWarnings("unchecked")
+    private <T> McpRequestBinder<T> getRequestBinder(@NonNull Class<T> requestType) {
+        return (McpRequestBinder<T>) requestBinders.computeIfAbsent(requestType,
+                type -> McpRequestBinder.of(type, configuration.getSerializer()));
+    }
+
+    /**
+     * Encodes the binary result as an image or embedded blob resource, bounded by the same limit as the serialized
+     * results while under memory pressure.
+     */
+    @NonNull
+    private McpSchema.Content encodeBinary(@NonNull Object binary, String mimeType) {
+        long resultLimit = memoryGuard.getResultLimit();
+        try {
+            return McpBinaryResultEncoder.toContent(binary, mimeType, resultLimit);
+        } catch (McpResultWriter.ResultLimitExceededException e) {
+            throw onResultCapped(resultLimit, e);
+        }
+    }
+
+    /**
+     * Encodes the result as Smile for another mediator, bounded by the same limit as the serialized results while
+     * under memory pressure.
+     */
+    @NonNull
+    private McpSchema.Content encodeSmile(@NonNull Object result, McpResultProjection projection)
+            throws IOException {
+        long resultLimit = memoryGuard.getResultLimit();
+        try {
+            return encodeBinary(wireEncoding.encode(result, projection, resultLimit),
+                    McpWireEncoding.SMILE_MEDIA_TYPE);
+        } catch (McpResultWriter.ResultLimitExceededException e) {
+            throw onResultCapped(resultLimit, e);
+        }
+    }
+
+    /**
+     * Encodes an already serialized JSON result as Smile for another mediator.
+     */
+    @NonNull
+    private McpSchema.Content encodeSmile(@NonNull String json) throws IOException {
+        long resultLimit = memoryGuard.getResultLimit();
+        try {
+            return encodeBinary(wireEncoding.transcode(json, resultLimit), McpWireEncoding.SMILE_MEDIA_TYPE);
+        } catch (McpResultWriter.ResultLimitExceededException e) {
+            throw onResultCapped(resultLimit, e);
+        }
+    }
+
+    @NonNull
+    private McpMediatorException onResultCapped(long resultLimit,
+                                                @NonNull McpResultWriter.ResultLimitExceededException e) {
+        memoryGuard.onResultCapped();
+        return new McpMediatorException(String.format(
+                "Result is larger than %d characters and the server is under memory pressure", resultLimit), e);
+    }
+
+    /**
+     * Serializes the result into a pooled buffer, applying the client requested projection if any. While under memory
+     * pressure, the serialization is aborted as soon as the result exceeds the {@link McpMemoryGuard#getResultLimit()}.
+     */
+    @NonNull
+    private String serialize(@NonNull Object object, McpResultProjection projection) throws IOException {
+        long resultLimit = memoryGuard.getResultLimit();
+        try {
+            return resultWriter.writeAsString(object, resultLimit, projection);
+        } catch (McpResultWriter.ResultLimitExceededException e) {
+            throw onResultCapped(resultLimit, e);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,246 @@
+package io.github.makbn.mcp.mediator.core;
+
+import io.github.makbn.mcp.mediator.api.McpMediator;
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import io.github.makbn.mcp.mediator.api.McpMediatorRequestHandler;
+import io.github.makbn.mcp.mediator.api.McpService;
+import io.github.makbn.mcp.mediator.api.McpToolInvoker;
+import io.github.makbn.mcp.mediator.core.internal.McpClasspathScanner;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Discovers the {@link McpService} classes on the classpath and creates their request handlers, so the services
+ * don't have to be wired one by one through {@link McpServiceFactory}.
+ * <p>
+ * The services are looked up in the {@link McpToolInvoker#SERVICE_INDEX_LOCATION} index files written at build time
+ * by the {@code mcp-mediator-processor}, reading them takes the same time regardless of the size of the classpath.
+ * The directories and jars of the classpath without an index, e.g. the ones compiled without the processor, are
+ * scanned in parallel instead, see {@link McpClasspathScanner}; {@link #includePackage(String) including} the
+ * packages of the services narrows down the scan. Only the
+ * services of the {@link #includePackage(String) included} packages and not in the
+ * {@link #excludePackage(String) excluded} packages are exposed.
+ * <pre>{@code
+ * McpServiceDiscovery.create()
+ *         .includePackage("com.example.tools")
+ *         .excludePackage("com.example.tools.internal")
+ *         .registerTo(mediator);
+ * }</pre>
+ * Services are instantiated through their no-args constructor unless an {@link #instanceFactory(Function)} is
+ * provided, e.g. to get them from a dependency injection container. The factory also creates the additional instances
+ * of the pooled and per-call services, see {@link McpService#scope()}.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class McpServiceDiscovery {
+    ClassLoader classLoader;
+    Set<String> includedPackages = new LinkedHashSet<>();
+    Set<String> excludedPackages = new LinkedHashSet<>();
+
+    @NonFinal
+    Function<Class<?>, Object> instanceFactory = McpServiceDiscovery::instantiate;
+    @NonFinal
+    boolean createForNonAnnotatedMethods = false;
+    @NonFinal
+    boolean classpathScan = true;
+
+    private McpServiceDiscovery(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @return the discovery of the services visible to the context class loader
+     */
+    public static McpServiceDiscovery create() {
+        return create(Objects.requireNonNullElseGet(Thread.currentThread().getContextClassLoader(),
+                McpServiceDiscovery.class::getClassLoader));
+    }
+
+    /**
+     * @param classLoader the class loader to discover the services from
+     * @return the discovery of the services visible to the class loader
+     */
+    public static McpServiceDiscovery create(@NonNull ClassLoader classLoader) {
+        return new McpServiceDiscovery(classLoader);
+    }
+
+    public McpServiceDiscovery includePackage(@NonNull String packageName) {
+        this.includedPackages.add(packageName);
+        return this;
+    }
+
+    public McpServiceDiscovery includePackages(@NonNull Collection<String> packageNames) {
+        this.includedPackages.addAll(packageNames);
+        return this;
+    }
+
+    public McpServiceDiscovery excludePackage(@NonNull String packageName) {
+        this.excludedPackages.add(packageName);
+        return this;
+    }
+
+    public McpServiceDiscovery excludePackages(@NonNull Collection<String> packageNames) {
+        this.excludedPackages.addAll(packageNames);
+        return this;
+    }
+
+    public McpServiceDiscovery instanceFactory(@NonNull Function<Class<?>, Object> instanceFactory) {
+        this.instanceFactory = instanceFactory;
+        return this;
+    }
+
+    public McpServiceDiscovery createForNonAnnotatedMethods(boolean createForNonAnnotatedMethods) {
+        this.createForNonAnnotatedMethods = createForNonAnnotatedMethods;
+        return this;
+    }
+
+    /**
+     * @param classpathScan {@code false} to only rely on the build time index, the classpath locations without an
+     *                      index are not scanned
+     * @return this discovery
+     */
+    public McpServiceDiscovery classpathScan(boolean classpathScan) {
+        this.classpathScan = classpathScan;
+        return this;
+    }
+
+    /**
+     * @return the concrete service classes matching the package filters, sorted by name
+     * @throws McpMediatorException if the index or the classpath can't be read
+     */
+    @NonNull
+    public List<Class<?>> discover() {
+        Set<String> classNames = new TreeSet<>();
+        Set<Path> indexedLocations = readIndexes(classNames);
+        if (classpathScan) {
+            log.debug("Scanning the classpath except the {} indexed locations", indexedLocations.size());
+            classNames.addAll(McpClasspathScanner.scan(classLoader, includedPackages, McpService.class,
+                    indexedLocations));
+        }
+        return classNames.stream()
+                .filter(this::isExposed)
+                .map(this::loadService)
+                .flatMap(Optional::stream)
+                .sorted(Comparator.comparing(Class::getName))
+                .toList();
+    }
+
+    /**
+     * Discovers the services and creates their request handlers.
+     *
+     * @return the handlers of the discovered services
+     * @throws McpMediatorException if a service can't be instantiated
+     */
+    @NonNull
+    public List<McpMediatorRequestHandler<?, ?>> build() {
+        return discover().stream()
+                .<McpMediatorRequestHandler<?, ?>>map(serviceClass ->
+                        McpServiceFactory.create(instanceFactory.apply(serviceClass))
+                                .instanceSupplier(() -> instanceFactory.apply(serviceClass))
+                                .createForNonAnnotatedMethods(createForNonAnnotatedMethods)
+                                .build())
+                .toList();
+    }
+
+    /**
+     * Discovers the services and registers all their handlers to the mediator in one operation.
+     *
+     * @param mediator the mediator
+     * @return the registered handlers
+     */
+    @NonNull
+    public List<McpMediatorRequestHandler<?, ?>> registerTo(@NonNull McpMediator mediator) {
+        List<McpMediatorRequestHandler<?, ?>> handlers = build();
+        mediator.registerHandlers(handlers);
+        log.info("Registered {} discovered services", handlers.size());
+        return handlers;
+    }
+
+    /**
+     * Reads the service indexes of the classpath.
+     *
+     * @param classNames the set the indexed service classes are added to
+     * @return the classpath locations having an index
+     */
+    private Set<Path> readIndexes(Set<String> classNames) {
+        Set<Path> locations = new HashSet<>();
+        try {
+            Enumeration<URL> indexes = classLoader.getResources(McpToolInvoker.SERVICE_INDEX_LOCATION);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                McpClasspathScanner.locationOf(index, McpToolInvoker.SERVICE_INDEX_LOCATION)
+                        .ifPresent(locations::add);
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                    reader.lines()
+                            .map(String::trim)
+                            .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                            .forEach(classNames::add);
+                }
+            }
+        } catch (IOException e) {
+            throw new McpMediatorException("Failed to read the service index", e);
+        }
+        return locations;
+    }
+
+    private boolean isExposed(String className) {
+        return (includedPackages.isEmpty() || includedPackages.stream().anyMatch(name -> isInPackage(className, name)))
+                && excludedPackages.stream().noneMatch(name -> isInPackage(className, name));
+    }
+
+    private static boolean isInPackage(String className, String packageName) {
+        return packageName.isEmpty() || className.startsWith(packageName + ".");
+    }
+
+    private Optional<Class<?>> loadService(String className) {
+        try {
+            Class<?> serviceClass = Class.forName(className, false, classLoader);
+            if (!serviceClass.isAnnotationPresent(McpService.class) || serviceClass.isInterface()
+                    || Modifier.isAbstract(serviceClass.getModifiers())) {
+                return Optional.empty();
+            }
+            return Optional.of(serviceClass);
+        } catch (ClassNotFoundException | LinkageError e) {
+            // stale index entry or a class depending on a missing optional dependency
+            log.debug("Skipping the service {}", className, e);
+            return Optional.empty();
+        }
+    }
+
+    private static Object instantiate(Class<?> serviceClass) {
+        try {
+            Constructor<?> constructor = serviceClass.getDeclaredConstructor();
+            constructor.trySetAccessible();
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new McpMediatorException(String.format("Can't instantiate the service %s, provide an instance " +
+                    "factory for services without a no-args constructor", serviceClass.getName()), e);
+        }
+    }
+}
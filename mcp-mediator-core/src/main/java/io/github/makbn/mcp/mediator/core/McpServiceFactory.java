@@ -3,20 +3,25 @@ package io.github.makbn.mcp.mediator.core;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.makbn.mcp.mediator.api.*;
 import io.github.makbn.mcp.mediator.core.adaper.McpMethodAdapter;
-import io.github.makbn.mcp.mediator.core.internal.McpMethodArgumentResolver;
+import io.github.makbn.mcp.mediator.core.internal.McpAsyncResults;
+import io.github.makbn.mcp.mediator.core.internal.McpGeneratedTools;
+import io.github.makbn.mcp.mediator.core.internal.McpMethodArgumentBinder;
+import io.github.makbn.mcp.mediator.core.internal.McpMethodInvoker;
+import io.github.makbn.mcp.mediator.core.internal.McpServiceInstances;
+import io.github.makbn.mcp.mediator.core.internal.McpStreamingResults;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
-import net.bytebuddy.ByteBuddy;
-import net.bytebuddy.ClassFileVersion;
-import net.bytebuddy.dynamic.DynamicType;
-import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @SuppressWarnings({"rawtypes", "java:S1452"})
@@ -32,10 +37,31 @@ public class McpServiceFactory {
             super();
         }
 
-        public abstract Map<? extends McpServiceRequest, McpMethodAdapter> getAdapterMap();
+        /**
+         * @return the adapters of the service tools keyed by the tool name
+         */
+        public abstract Map<String, McpMethodAdapter> getAdapterMap();
+
+        /**
+         * Creates the request of the given service tool.
+         *
+         * @param toolName  the tool name
+         * @param arguments the tool call arguments
+         * @return the request routed to the tool by its name
+         */
+        public McpServiceRequest createRequest(@NonNull String toolName, @NonNull Map<String, Object> arguments) {
+            McpServiceRequest request = new McpServiceRequest();
+            request.putAll(arguments);
+            request.setName(toolName);
+            return request;
+        }
     }
 
 
+    /**
+     * Request of a service tool. All the service tools share this request type, the request is routed to the tool
+     * method by its {@link #getName() name}.
+     */
     @Data
     @EqualsAndHashCode(callSuper = true)
     public static class McpServiceRequest extends HashMap<String, Object> implements McpMediatorRequest<Object> {
@@ -53,7 +79,14 @@ public class McpServiceFactory {
 
     @NonFinal
     boolean createForNonAnnotatedMethods = false;
-
+    @NonFinal
+    McpService.Scope scope;
+    @NonFinal
+    int poolSize;
+    @NonFinal
+    Duration poolTimeout;
+    @NonFinal
+    Supplier<?> instanceSupplier;
 
     public McpServiceFactory createForNonAnnotatedMethods(boolean createForNonAnnotatedMethods) {
         this.createForNonAnnotatedMethods = createForNonAnnotatedMethods;
@@ -70,34 +103,126 @@ public class McpServiceFactory {
         return this;
     }
 
+    /**
+     * Overrides the {@link McpService#scope() scope} of the service.
+     *
+     * @param scope the lifecycle of the service instances
+     * @return this factory
+     */
+    public McpServiceFactory scope(@NonNull McpService.Scope scope) {
+        this.scope = scope;
+        return this;
+    }
+
+    /**
+     * Overrides the {@link McpService#poolSize() pool size} of a pooled service.
+     *
+     * @param poolSize the maximum number of service instances
+     * @return this factory
+     */
+    public McpServiceFactory poolSize(int poolSize) {
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    /**
+     * Overrides the {@link McpService#poolTimeout() pool timeout} of a pooled service.
+     *
+     * @param poolTimeout the maximum time a call waits for a service instance, zero to fail right away
+     * @return this factory
+     */
+    public McpServiceFactory poolTimeout(@NonNull Duration poolTimeout) {
+        this.poolTimeout = poolTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the factory of the instances of a pooled or per-call service, the no-args constructor of the service class
+     * is used by default.
+     *
+     * @param instanceSupplier the supplier of new service instances
+     * @return this factory
+     */
+    public McpServiceFactory instanceSupplier(@NonNull Supplier<?> instanceSupplier) {
+        this.instanceSupplier = instanceSupplier;
+        return this;
+    }
+
     public McpMediatorRequestHandler<?, ?> build() {
         if (!service.getClass().isAnnotationPresent(McpService.class)) {
             throw new McpMediatorException("Service class should be annotated with @McpService");
         }
         McpService serviceAnnotation = Objects.requireNonNull(service.getClass().getAnnotation(McpService.class));
 
-        return createServiceHandler(excludedMethods, createForNonAnnotatedMethods, service, serviceAnnotation);
+        McpService.Scope serviceScope = Objects.requireNonNullElse(scope, serviceAnnotation.scope());
+        Supplier<?> supplier = instanceSupplier;
+        if (supplier == null) {
+            supplier = serviceScope == McpService.Scope.SINGLETON
+                    ? () -> service
+                    : createInstanceSupplier(service.getClass(), serviceScope);
+        }
+        McpServiceInstances instances = McpServiceInstances.of(serviceScope,
+                poolSize > 0 ? poolSize : serviceAnnotation.poolSize(),
+                Objects.requireNonNullElse(poolTimeout, Duration.ofSeconds(serviceAnnotation.poolTimeout())),
+                service, supplier);
+
+        return createServiceHandler(excludedMethods, createForNonAnnotatedMethods, service, serviceAnnotation,
+                instances);
+    }
+
+    private static Supplier<?> createInstanceSupplier(Class<?> serviceClass, McpService.Scope scope) {
+        try {
+            Constructor<?> constructor = serviceClass.getDeclaredConstructor();
+            constructor.trySetAccessible();
+            return () -> {
+                try {
+                    return constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new McpMediatorException("Can't create an instance of the service " + serviceClass.getName(),
+                            e);
+                }
+            };
+        } catch (NoSuchMethodException e) {
+            throw new McpMediatorException(String.format("An instance supplier is required for the %s service %s " +
+                    "without a no-args constructor", scope, serviceClass.getName()), e);
+        }
     }
 
 
     private static McpServiceRequestHandler createServiceHandler(Set<String> excludedMethods,
-            boolean createForNonAnnotated, Object service, McpService serviceAnnotation) {
+            boolean createForNonAnnotated, Object service, McpService serviceAnnotation,
+            McpServiceInstances instances) {
         return new McpServiceRequestHandler() {
             private static final Logger log = LoggerFactory.getLogger("McpServiceRequestHandler");
-            private Map<? extends McpServiceRequest, McpMethodAdapter> adapterMap;
-            private Object internalService;
+            private Map<String, McpMethodAdapter> adapterMap;
+            private final Map<McpMethodAdapter, McpMethodInvoker> invokers = new IdentityHashMap<>();
+            private final Map<McpMethodAdapter, McpMethodArgumentBinder> binders = new IdentityHashMap<>();
 
             @Override
             @SuppressWarnings("java:S3864")
             public void initialize(Object[] args) {
                 ObjectMapper mapper = getObjectMapper(args);
-                this.internalService = service;
+                // descriptors and invoker generated at build time, if the service was compiled with the processor
+                Optional<McpGeneratedTools.Descriptor> descriptor = McpGeneratedTools.find(service.getClass());
+                Map<String, McpGeneratedTools.Tool> generatedTools = descriptor
+                        .map(McpGeneratedTools.Descriptor::toolsBySignature)
+                        .orElse(Map.of());
+                McpToolInvoker generatedInvoker = descriptor
+                        .flatMap(generated -> generated.createInvoker(service.getClass().getClassLoader()))
+                        .orElse(null);
                 this.adapterMap = Arrays.stream(service.getClass().getDeclaredMethods())
                         .filter(method -> createForNonAnnotated || method.isAnnotationPresent(McpTool.class))
                         .filter(method -> !excludedMethods.contains(method.getName()))
-                        .map(method -> new McpMethodAdapter(method, mapper))
+                        .map(method -> createAdapter(method, mapper, generatedTools))
                         .peek(adapter -> log.debug("Mapped method: {} to: {}", adapter.getMethod(), adapter.getSourceTool()))
-                        .collect(Collectors.toMap(this::convertToRequest, Function.identity()));
+                        .collect(Collectors.toUnmodifiableMap(McpMethodAdapter::getMethod, Function.identity(),
+                                (first, second) -> {
+                                    throw new McpMediatorException("Duplicate tool name: " + first.getMethod());
+                                }));
+                adapterMap.values().forEach(adapter -> {
+                    invokers.put(adapter, createInvoker(adapter.getSourceTool(), generatedTools, generatedInvoker));
+                    binders.put(adapter, McpMethodArgumentBinder.of(adapter.getSourceTool(), mapper));
+                });
             }
 
             @Override
@@ -110,65 +235,69 @@ public class McpServiceFactory {
                 McpServiceRequest mcpServiceRequest = (McpServiceRequest) request;
                 McpMethodAdapter adapter = findAdapter(request);
 
-                Object[] parameters = McpMethodArgumentResolver.resolveArguments(
-                        adapter.getSourceTool(), mcpServiceRequest);
+                Object instance = null;
                 try {
-                    return adapter.getSourceTool().invoke(internalService, parameters);
-                } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                    Object[] parameters = binders.get(adapter).bind(mcpServiceRequest);
+                    // borrowed after binding, so the instance is only held for the duration of the call
+                    instance = instances.borrow();
+                    Object result = invokers.get(adapter).invoke(instance, parameters);
+                    if (McpAsyncResults.isAsync(result)) {
+                        // the instance is still in use until the asynchronous result completes
+                        Object borrowed = instance;
+                        instance = null;
+                        return McpAsyncResults.toCompletionStage(result)
+                                .whenComplete((value, error) -> instances.release(borrowed));
+                    } else if (McpStreamingResults.isStreaming(result)) {
+                        // the elements may be produced by the instance, it is released once the source is exhausted
+                        // or closed; the source keeps its type for the callers of the mediator
+                        Object borrowed = instance;
+                        instance = null;
+                        return McpStreamingResults.doOnTermination(result, () -> instances.release(borrowed));
+                    }
+                    return result;
+                } catch (IllegalArgumentException | InvocationTargetException e) {
                     throw new McpMediatorException(generateMessage(e, adapter), e);
+                } finally {
+                    if (instance != null) {
+                        instances.release(instance);
+                    }
                 }
 
             }
 
+            @Override
+            public boolean releaseIdleResources() {
+                return instances.releaseIdle();
+            }
+
             private McpMethodAdapter findAdapter(McpMediatorRequest request) {
-                return adapterMap.entrySet().stream()
-                        .filter(entry ->
-                                entry.getKey().getClass().equals(request.getClass()) || entry.getKey().getClass().isAssignableFrom(request.getClass()))
-                        .map(Map.Entry::getValue)
-                        .findFirst()
-                        .orElseThrow(() -> new McpMediatorException(ERROR_PREFIX + request.getClass()));
+                McpMethodAdapter adapter = request instanceof McpServiceRequest serviceRequest
+                        && serviceRequest.getName() != null
+                        ? adapterMap.get(serviceRequest.getName())
+                        : null;
+                if (adapter == null) {
+                    throw new McpMediatorException(ERROR_PREFIX + request);
+                }
+                return adapter;
             }
 
             @Override
-            @SuppressWarnings("java:S6204")
             public Collection<Class<? extends McpMediatorRequest>> getAllSupportedRequestClass() {
-                return adapterMap.keySet().stream().map(McpServiceRequest::getClass).collect(Collectors.toList());
+                return List.of(McpServiceRequest.class);
             }
 
             @Override
             public boolean canHandle(McpMediatorRequest request) {
-                return adapterMap.keySet().stream()
-                        .anyMatch(requestClass ->
-                                requestClass.getClass().equals(request.getClass()) || requestClass.getClass().isAssignableFrom(request.getClass()));
+                return request instanceof McpServiceRequest serviceRequest
+                        && serviceRequest.getName() != null
+                        && adapterMap.containsKey(serviceRequest.getName());
             }
 
             @Override
-            public Map<? extends McpServiceRequest, McpMethodAdapter> getAdapterMap() {
+            public Map<String, McpMethodAdapter> getAdapterMap() {
                 return adapterMap;
             }
 
-            private McpServiceRequest convertToRequest(McpMethodAdapter adapter) {
-                McpServiceRequest request;
-                try (DynamicType.Unloaded<McpServiceRequest> unloaded = new ByteBuddy(ClassFileVersion.JAVA_V17)
-                        .subclass(McpServiceRequest.class)
-                        .name("generated." + adapter.getMethod() + "_Request")
-                        .make()) {
-                    Class<? extends McpServiceRequest> requestClass = unloaded.load(getClass().getClassLoader(),
-                                    ClassLoadingStrategy.Default.INJECTION)
-                            .getLoaded();
-
-                    request = requestClass.getDeclaredConstructor().newInstance();
-                } catch (NoSuchMethodException | InvocationTargetException | InstantiationException |
-                         IllegalAccessException e) {
-                    throw new McpMediatorException("Failed to create request class for: " + adapter.getMethod(), e);
-                }
-
-                request.setName(adapter.getMethod());
-                request.setDescription(adapter.getDescription());
-
-                return request;
-            }
-
             private ObjectMapper getObjectMapper(Object[] args) {
                 ObjectMapper mapper;
                 if (args[0] instanceof ObjectMapper objectMapper) {
@@ -181,6 +310,29 @@ public class McpServiceFactory {
         };
     }
 
+    private static McpMethodAdapter createAdapter(Method method, ObjectMapper mapper,
+            Map<String, McpGeneratedTools.Tool> generatedTools) {
+        McpGeneratedTools.Tool tool = generatedTools.get(McpGeneratedTools.signature(method));
+        if (tool == null) {
+            return new McpMethodAdapter(method, mapper);
+        }
+        return McpMethodAdapter.builder()
+                .executableMethod(method)
+                .objectMapper(mapper)
+                .description(tool.description())
+                .schema(tool.schemaOf(method).orElse(null))
+                .build();
+    }
+
+    private static McpMethodInvoker createInvoker(Method method, Map<String, McpGeneratedTools.Tool> generatedTools,
+            McpToolInvoker generatedInvoker) {
+        McpGeneratedTools.Tool tool = generatedTools.get(McpGeneratedTools.signature(method));
+        if (generatedInvoker != null && tool != null && tool.isInvokable()) {
+            return McpMethodInvoker.of(method, generatedInvoker, tool.index());
+        }
+        return McpMethodInvoker.of(method);
+    }
+
     private static String generateMessage(Exception e, McpMethodAdapter adapter) {
         StringBuilder cause = new StringBuilder();
         Throwable causeException = e;
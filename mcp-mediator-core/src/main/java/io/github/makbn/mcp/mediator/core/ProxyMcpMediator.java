@@ -11,6 +11,7 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.StringJoiner;
 
 /**
  * A specialized MCP Mediator that acts as a proxy for delegating tool requests
@@ -57,15 +58,34 @@ public class ProxyMcpMediator extends DefaultMcpMediator {
             log.debug("Gathering information for {}", server);
             McpMediatorRemoteMcpServer remoteMcpServer = getProvidedToolsByMcpServer(server);
             log.debug("Remote Server responded properly {}", remoteMcpServer);
+            idleResourceReaper.register(remoteMcpServer, server.getRemoteServerAddress(),
+                    remoteMcpServer::releaseConnection);
             remoteMcpServer.getToolAdapters().forEach(providedTool ->
-                    mcpSyncServer.addTool(createMcpToolSpecification(providedTool,
-                            invocationParameters -> remoteMcpServer.handleRemoteRequest(providedTool, invocationParameters))
-                    ));
+                    addTool(createMcpToolSpecification(providedTool,
+                            invocationParameters -> {
+                                idleResourceReaper.touch(remoteMcpServer);
+                                return remoteMcpServer.handleRemoteRequest(providedTool, invocationParameters);
+                            }),
+                            server.getNamespace()));
         });
         mcpSyncServer.notifyToolsListChanged();
         log.debug("all remote MCP servers started successfully {}", mcpSyncServer);
     }
 
+    /**
+     * The tool registry of the proxy also depends on the remote servers it delegates to. Their environment isn't part
+     * of the key as it may hold credentials.
+     */
+    @NonNull
+    @Override
+    protected String getToolRegistryKey() {
+        StringJoiner key = new StringJoiner("\n").add(super.getToolRegistryKey());
+        getProxyConfiguration().getRemoteMcpServerConfigurations().forEach(server ->
+                key.add(server.getRemoteTransportType() + " " + server.getRemoteServerAddress() + " "
+                        + server.getRemoteServerArgs()));
+        return key.toString();
+    }
+
     /**
      * Initializes a connection to the given remote server and retrieves the remote tool metadata.
      *
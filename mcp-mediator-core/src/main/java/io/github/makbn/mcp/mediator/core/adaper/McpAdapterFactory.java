@@ -10,7 +10,6 @@ import reactor.util.annotation.NonNull;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Map;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class McpAdapterFactory {
@@ -20,11 +19,7 @@ public final class McpAdapterFactory {
     public static Collection<? extends McpToolAdapter<?>> createAdapter(
             @NonNull Class<? extends McpMediatorRequest<?>> request, @NonNull McpMediatorRequestHandler<?, ?> handler) {
         if (handler instanceof McpServiceFactory.McpServiceRequestHandler serviceRequestHandler) {
-            return serviceRequestHandler.getAdapterMap()
-                    .entrySet()
-                    .stream()
-                    .filter(entry -> request.isAssignableFrom(entry.getKey().getClass()))
-                    .map(Map.Entry::getValue).toList();
+            return serviceRequestHandler.getAdapterMap().values();
         } else {
             return Collections.singleton(McpRequestAdapter.builder().request(request).build());
         }
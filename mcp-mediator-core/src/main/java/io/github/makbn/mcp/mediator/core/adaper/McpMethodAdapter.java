@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.makbn.mcp.mediator.api.McpMediatorException;
 import io.github.makbn.mcp.mediator.api.McpTool;
 import io.github.makbn.mcp.mediator.api.McpToolAdapter;
+import io.github.makbn.mcp.mediator.api.McpToolDescriptor;
 import io.github.makbn.mcp.mediator.core.internal.McpMethodArgumentDescriber;
 import io.github.makbn.mcp.mediator.core.internal.McpMethodSchemaGenerator;
 import io.github.makbn.mcp.mediator.core.util.McpUtils;
@@ -28,6 +29,11 @@ import java.util.Objects;
  * generation are used.
  * </p>
  *
+ * <p>
+ * The name, description and schema are computed once, on first access, into an immutable {@link McpToolDescriptor}
+ * shared by all the accessors and {@link #toString()}.
+ * </p>
+ *
  * @author Matt Akbarian
  */
 @Builder
@@ -51,6 +57,20 @@ public class McpMethodAdapter implements McpToolAdapter<Method> {
     @Builder.Default
     String description = null;
 
+    /**
+     * Optional pre-set input schema for the method, typically generated at build time. If null, will be generated
+     * from the method parameters.
+     */
+    @NonFinal
+    @Builder.Default
+    String schema = null;
+
+    /**
+     * Name, description and schema of the tool, computed on first access.
+     */
+    @Getter(lazy = true)
+    private final McpToolDescriptor descriptor = McpToolDescriptor.of(extractMethodName(),
+            extractMethodDescription(), generateSchema());
 
     /**
      * Extracts the method name used in MCP operations.
@@ -64,7 +84,7 @@ public class McpMethodAdapter implements McpToolAdapter<Method> {
     @NonNull
     @Override
     public String getMethod() {
-        return extractMethodName();
+        return getDescriptor().name();
     }
 
     @NonNull
@@ -85,11 +105,11 @@ public class McpMethodAdapter implements McpToolAdapter<Method> {
     @NonNull
     @Override
     public String getDescription() {
-        return Objects.requireNonNullElse(description, extractMethodDescription());
+        return getDescriptor().description();
     }
 
     /**
-     * Generates the input parameter schema for the method.
+     * Returns the pre-set input parameter schema or the one generated for the method.
      *
      * @return the JSON string representing the method's input schema
      * @throws McpMediatorException if schema generation fails
@@ -97,12 +117,7 @@ public class McpMethodAdapter implements McpToolAdapter<Method> {
     @NonNull
     @Override
     public String getSchema() {
-        try {
-            return McpMethodSchemaGenerator.of(objectMapper)
-                    .generateSchemaForMethod(getSourceTool());
-        } catch (JsonProcessingException e) {
-            throw new McpMediatorException(String.format("Failed to extract schema for: %s", getSourceTool()), e);
-        }
+        return getDescriptor().schema();
     }
 
     @NonNull
@@ -122,13 +137,28 @@ public class McpMethodAdapter implements McpToolAdapter<Method> {
 
     @NonNull
     private String extractMethodDescription() {
-        if (getSourceTool().isAnnotationPresent(McpTool.class)) {
+        if (description != null) {
+            return description;
+        } else if (getSourceTool().isAnnotationPresent(McpTool.class)) {
             return Objects.requireNonNull(getSourceTool().getAnnotation(McpTool.class)).description();
         } else {
             return McpMethodArgumentDescriber.describeMethod(getSourceTool());
         }
     }
 
+    @NonNull
+    private String generateSchema() {
+        if (schema != null) {
+            return schema;
+        }
+        try {
+            return McpMethodSchemaGenerator.of(objectMapper)
+                    .generateSchemaForMethod(getSourceTool());
+        } catch (JsonProcessingException e) {
+            throw new McpMediatorException(String.format("Failed to extract schema for: %s", getSourceTool()), e);
+        }
+    }
+
     @Override
     public String toString() {
         return "McpMethodAdapter{" +
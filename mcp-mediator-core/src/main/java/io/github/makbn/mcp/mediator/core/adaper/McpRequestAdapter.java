@@ -1,16 +1,16 @@
 package io.github.makbn.mcp.mediator.core.adaper;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.module.jsonSchema.JsonSchema;
-import com.fasterxml.jackson.module.jsonSchema.JsonSchemaGenerator;
 import io.github.makbn.mcp.mediator.api.McpMediatorException;
 import io.github.makbn.mcp.mediator.api.McpMediatorRequest;
 import io.github.makbn.mcp.mediator.api.McpTool;
 import io.github.makbn.mcp.mediator.api.McpToolAdapter;
-import io.github.makbn.mcp.mediator.core.util.McpUtils;
-import io.github.makbn.mcp.mediator.core.util.SneakyFunction;
+import io.github.makbn.mcp.mediator.api.McpToolDescriptor;
+import io.github.makbn.mcp.mediator.core.internal.McpGeneratedTools;
+import io.github.makbn.mcp.mediator.core.internal.McpSchemaCache;
 import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -35,9 +35,23 @@ import java.util.Optional;
 public class McpRequestAdapter implements McpToolAdapter<McpTool> {
     private static final String ERROR = "McpRequest should be annotated with '@%s'";
 
+    /**
+     * Schemas are generated from the plain request classes, a single mapper and schema cache are shared by all the
+     * adapters.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final McpSchemaCache SCHEMA_CACHE = McpSchemaCache.of(OBJECT_MAPPER);
+
     Class<? extends McpMediatorRequest<?>> request;
-    ObjectMapper objectMapper = new ObjectMapper();
-    JsonSchemaGenerator schemaGenerator = new JsonSchemaGenerator(objectMapper);
+
+    /**
+     * Name, description and schema of the tool, computed on first access.
+     */
+    @Getter(lazy = true)
+    private final McpToolDescriptor descriptor = McpToolDescriptor.of(getSourceTool().name(),
+            getSourceTool().description(), McpGeneratedTools.find(request)
+                    .map(McpGeneratedTools.Descriptor::schema)
+                    .orElseGet(this::generateSchema));
 
     @NonNull
     @Override
@@ -56,7 +70,7 @@ public class McpRequestAdapter implements McpToolAdapter<McpTool> {
     @NonNull
     @Override
     public String getMethod() {
-        return getSourceTool().name();
+        return getDescriptor().name();
     }
 
     /**
@@ -82,11 +96,12 @@ public class McpRequestAdapter implements McpToolAdapter<McpTool> {
     @NonNull
     @Override
     public String getDescription() {
-        return getSourceTool().description();
+        return getDescriptor().description();
     }
 
     /**
-     * Converts the tool input parameter type as the MCP Server schema. See {@link McpTool#schema()}.
+     * Converts the tool input parameter type as the MCP Server schema. See {@link McpTool#schema()}. The schema
+     * generated at build time by the {@code mcp-mediator-processor} is used when it is available.
      *
      * @return the JSON string of the input schema.
      * @throws McpMediatorException if the {@code McpTool} annotation is not present.
@@ -94,12 +109,14 @@ public class McpRequestAdapter implements McpToolAdapter<McpTool> {
     @NonNull
     @Override
     public String getSchema() {
+        return getDescriptor().schema();
+    }
+
+    @NonNull
+    private String generateSchema() {
         return Optional.of(getSourceTool())
                 .map(McpTool::schema)
-                .map(schema -> McpUtils.sneakyOperation(
-                        (SneakyFunction<Class<?>, JsonSchema>) schemaGenerator::generateSchema, schema))
-                .map(schema -> McpUtils.sneakyOperation(
-                        (SneakyFunction<JsonSchema, String>) objectMapper::writeValueAsString, schema))
+                .map(SCHEMA_CACHE::toSchema)
                 .orElseThrow(() -> new McpMediatorException(String.format(ERROR, McpTool.class.getSimpleName())));
     }
 }
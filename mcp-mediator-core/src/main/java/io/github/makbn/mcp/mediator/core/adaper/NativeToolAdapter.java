@@ -3,14 +3,17 @@ package io.github.makbn.mcp.mediator.core.adaper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.makbn.mcp.mediator.api.McpMediatorException;
 import io.github.makbn.mcp.mediator.api.McpToolAdapter;
+import io.github.makbn.mcp.mediator.api.McpToolDescriptor;
 import io.modelcontextprotocol.spec.McpSchema;
 import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
 import java.io.IOException;
+import java.util.Objects;
 
 /**
  * Adapter class for processing {@link McpSchema.Tool} and extracting metadata and schema information.
@@ -30,6 +33,13 @@ public class NativeToolAdapter implements McpToolAdapter<McpSchema.Tool> {
     @NonNull
     ObjectMapper objectMapper;
 
+    /**
+     * Name, description and schema of the tool, computed on first access.
+     */
+    @Getter(lazy = true)
+    private final McpToolDescriptor descriptor = McpToolDescriptor.of(nativeTool.name(),
+            Objects.requireNonNullElse(nativeTool.description(), ""), writeSchema());
+
     @NonNull
     @Override
     public McpSchema.Tool getSourceTool() {
@@ -66,7 +76,7 @@ public class NativeToolAdapter implements McpToolAdapter<McpSchema.Tool> {
      */
     @NonNull
     public String getDescription() {
-        return getSourceTool().description();
+        return getDescriptor().description();
     }
 
     /**
@@ -76,6 +86,10 @@ public class NativeToolAdapter implements McpToolAdapter<McpSchema.Tool> {
      */
     @NonNull
     public String getSchema() {
+        return getDescriptor().schema();
+    }
+
+    private String writeSchema() {
         try {
             return objectMapper.writeValueAsString(getSourceTool().inputSchema());
         } catch (IOException e) {
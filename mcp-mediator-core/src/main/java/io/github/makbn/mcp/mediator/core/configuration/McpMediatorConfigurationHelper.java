@@ -7,6 +7,12 @@ import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Basic common utility methods for Mcp Mediator configuration and configuration builder.
  *
@@ -25,11 +31,62 @@ public final class McpMediatorConfigurationHelper {
             throw new McpMediatorException("serializer is required");
         }
 
+        if (configuration instanceof McpMediatorDefaultConfiguration defaultConfiguration) {
+            verifyResourceManagementProperties(defaultConfiguration);
+        }
+
         if (!configuration.isToolsEnabled()) {
             log.warn("MCP Server Tools capability is disabled!");
         }
     }
 
+    private static void verifyResourceManagementProperties(@NonNull McpMediatorDefaultConfiguration configuration) {
+        if (configuration.getIdleTimeout() == null || configuration.getIdleTimeout().isNegative()) {
+            throw new McpMediatorException("idleTimeout can't be null or negative");
+        } else if (configuration.getMemoryThreshold() < 0 || configuration.getMemoryThreshold() >= 1) {
+            throw new McpMediatorException("memoryThreshold should be in [0, 1) range");
+        } else if (configuration.getMemoryPressureResultLimit() <= 0) {
+            throw new McpMediatorException("memoryPressureResultLimit should be positive");
+        } else if (configuration.getResultPageSize() < 0) {
+            throw new McpMediatorException("resultPageSize can't be negative");
+        } else if (configuration.getResultPageStoreCapacity() <= 0) {
+            throw new McpMediatorException("resultPageStoreCapacity should be positive");
+        } else if (configuration.getResultCacheCapacity() < 0) {
+            throw new McpMediatorException("resultCacheCapacity can't be negative");
+        } else if (configuration.getStreamChunkSize() <= 0) {
+            throw new McpMediatorException("streamChunkSize should be positive");
+        } else if (configuration.getToolListingProfile() == null) {
+            throw new McpMediatorException("toolListingProfile is required");
+        } else if (configuration.getToolListPageSize() < 0) {
+            throw new McpMediatorException("toolListPageSize can't be negative");
+        } else if (configuration.getPinnedTools() == null) {
+            throw new McpMediatorException("pinnedTools is required");
+        } else if (configuration.getToolProfiles() == null) {
+            throw new McpMediatorException("toolProfiles is required");
+        }
+        verifyToolProfiles(configuration.getToolProfiles());
+    }
+
+    /**
+     * A session is routed by the profile name or by its client name, both have to designate a single profile.
+     */
+    private static void verifyToolProfiles(@NonNull Collection<McpToolProfile> profiles) {
+        Set<String> names = new HashSet<>();
+        Map<String, String> clientProfiles = new HashMap<>();
+        for (McpToolProfile profile : profiles) {
+            if (!names.add(profile.getName())) {
+                throw new McpMediatorException("Duplicate tool profile name: " + profile.getName());
+            }
+            for (String clientName : profile.getClientNames()) {
+                String otherProfile = clientProfiles.putIfAbsent(clientName, profile.getName());
+                if (otherProfile != null) {
+                    throw new McpMediatorException(String.format("Client %s is listed by the tool profiles %s and %s",
+                            clientName, otherProfile, profile.getName()));
+                }
+            }
+        }
+    }
+
     static void verifyMcpMediatorRemoteMcpServerConfiguration(
             @NonNull McpMediatorProxyConfiguration.McpMediatorRemoteMcpServerConfiguration configuration) {
         if (configuration.getRemoteTransportType() == null) {
@@ -61,6 +118,19 @@ public final class McpMediatorConfigurationHelper {
         to.setStdioOutputStream(from.getStdioOutputStream());
         to.setSerializer(from.getSerializer());
         to.setServerAddress(from.getServerAddress());
+        to.setIdleTimeout(from.getIdleTimeout());
+        to.setMemoryThreshold(from.getMemoryThreshold());
+        to.setMemoryPressureResultLimit(from.getMemoryPressureResultLimit());
+        to.setResultPageSize(from.getResultPageSize());
+        to.setResultPageStoreCapacity(from.getResultPageStoreCapacity());
+        to.setResultCacheCapacity(from.getResultCacheCapacity());
+        to.setStreamChunkSize(from.getStreamChunkSize());
+        to.setToolRegistrySnapshot(from.getToolRegistrySnapshot());
+        to.setToolListingProfile(from.getToolListingProfile());
+        to.setToolListPageSize(from.getToolListPageSize());
+        to.setToolSearchEnabled(from.isToolSearchEnabled());
+        to.setPinnedTools(from.getPinnedTools());
+        to.setToolProfiles(from.getToolProfiles());
     }
 
 }
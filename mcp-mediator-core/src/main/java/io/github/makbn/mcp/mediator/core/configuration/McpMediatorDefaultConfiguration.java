@@ -10,6 +10,10 @@ import lombok.experimental.SuperBuilder;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Default base implementation of {@link McpMediatorConfigurationSpec} that provides common configuration
@@ -36,6 +40,20 @@ import java.io.OutputStream;
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 @FieldDefaults(level = AccessLevel.PROTECTED)
 public sealed class McpMediatorDefaultConfiguration implements McpMediatorConfigurationSpec permits McpMediatorProxyConfiguration {
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    public static final double DEFAULT_MEMORY_THRESHOLD = 0.85;
+    public static final long DEFAULT_MEMORY_PRESSURE_RESULT_LIMIT = 1024L * 1024L;
+    public static final int DEFAULT_RESULT_PAGE_SIZE = 0;
+    public static final int DEFAULT_RESULT_PAGE_STORE_CAPACITY = 64;
+    public static final int DEFAULT_RESULT_CACHE_CAPACITY = 256;
+    public static final int DEFAULT_STREAM_CHUNK_SIZE = 64;
+    public static final Path DEFAULT_TOOL_REGISTRY_SNAPSHOT = null;
+    public static final McpToolListingProfile DEFAULT_TOOL_LISTING_PROFILE = McpToolListingProfile.FULL;
+    public static final int DEFAULT_TOOL_LIST_PAGE_SIZE = 0;
+    public static final boolean DEFAULT_TOOL_SEARCH_ENABLED = false;
+    public static final Set<String> DEFAULT_PINNED_TOOLS = Set.of();
+    public static final List<McpToolProfile> DEFAULT_TOOL_PROFILES = List.of();
+
     @Builder.Default
     String serverName = "";
     @Builder.Default
@@ -66,4 +84,99 @@ public sealed class McpMediatorDefaultConfiguration implements McpMediatorConfig
      */
     @Builder.Default
     OutputStream stdioOutputStream = System.out;
+
+    /**
+     * Time after which idle resources (executor threads, remote MCP server connections and handler resources) are
+     * released. Released resources are reopened on demand. {@link Duration#ZERO} disables the idle reclamation.
+     */
+    @Builder.Default
+    Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    /**
+     * Ratio of the max heap memory pool size that, once crossed, puts the mediator in memory pressure mode and sheds
+     * load. {@code 0} disables the memory guard.
+     */
+    @Builder.Default
+    double memoryThreshold = DEFAULT_MEMORY_THRESHOLD;
+
+    /**
+     * Maximum number of characters of a serialized tool result while the mediator is under memory pressure.
+     */
+    @Builder.Default
+    long memoryPressureResultLimit = DEFAULT_MEMORY_PRESSURE_RESULT_LIMIT;
+
+    /**
+     * Maximum number of characters of a tool result delivered in a single response. Larger results are kept in a
+     * bounded page store and delivered page by page through the {@code fetch_more} tool, which is only registered
+     * when the pagination is enabled. {@code 0}, the default, disables the pagination.
+     */
+    @Builder.Default
+    int resultPageSize = DEFAULT_RESULT_PAGE_SIZE;
+
+    /**
+     * Maximum number of paginated tool results kept at the same time, the least recently used result is evicted once
+     * the store is full. Results that are not fetched within the {@link #idleTimeout} are evicted as well.
+     */
+    @Builder.Default
+    int resultPageStoreCapacity = DEFAULT_RESULT_PAGE_STORE_CAPACITY;
+
+    /**
+     * Maximum number of recently delivered tool results kept to answer the conditional calls of the clients with a
+     * "not modified" result or a JSON Patch against the previous result. {@code 0} disables the conditional results.
+     */
+    @Builder.Default
+    int resultCacheCapacity = DEFAULT_RESULT_CACHE_CAPACITY;
+
+    /**
+     * Number of elements of a streamed tool result ({@link java.util.stream.Stream}, {@link java.util.Iterator},
+     * {@link java.util.concurrent.Flow.Publisher}) sent to the client per notification, and the maximum number of
+     * elements buffered at a time. Only applies to the calls requesting the streaming with the {@code _stream} hint,
+     * the other streamed results are collected. Results fitting in a single chunk are returned as a regular result.
+     */
+    @Builder.Default
+    int streamChunkSize = DEFAULT_STREAM_CHUNK_SIZE;
+
+    /**
+     * File of the tool registry snapshot, {@code null} disables the snapshot. The resolved tools are written to the
+     * snapshot once registered, on the next start the server serves {@code tools/list} from the snapshot right away
+     * while the handlers and remote servers are initialized in the background.
+     */
+    @Builder.Default
+    Path toolRegistrySnapshot = DEFAULT_TOOL_REGISTRY_SNAPSHOT;
+
+    /**
+     * Profile of the tool definitions served by {@code tools/list}, {@link McpToolListingProfile#COMPACT} reduces the
+     * listing payload of large tool catalogs. The mediator logs the listing size of every profile once the tools are
+     * registered.
+     */
+    @Builder.Default
+    McpToolListingProfile toolListingProfile = DEFAULT_TOOL_LISTING_PROFILE;
+
+    /**
+     * Maximum number of tools per {@code tools/list} page, the clients get the next pages with the returned cursor.
+     * The tools are listed sorted by name. {@code 0} disables the pagination, all the tools are listed at once.
+     */
+    @Builder.Default
+    int toolListPageSize = DEFAULT_TOOL_LIST_PAGE_SIZE;
+
+    /**
+     * Lists only the {@code find_tools} meta-tool and the {@link #pinnedTools} instead of all the tools. The clients
+     * search the tools by name, description and parameter names with {@code find_tools} and call the matching tools
+     * as usual, every tool stays callable.
+     */
+    @Builder.Default
+    boolean toolSearchEnabled = DEFAULT_TOOL_SEARCH_ENABLED;
+
+    /**
+     * Names of the tools still listed by {@code tools/list} when the {@link #toolSearchEnabled tool search} is enabled.
+     */
+    @Builder.Default
+    Set<String> pinnedTools = DEFAULT_PINNED_TOOLS;
+
+    /**
+     * Profiles exposing a subset of the tools to some clients, chosen by client name or requested by the client.
+     * Every profile has its own precomputed listing and routes only its own tools, the other clients see all the tools.
+     */
+    @Builder.Default
+    List<McpToolProfile> toolProfiles = DEFAULT_TOOL_PROFILES;
 }
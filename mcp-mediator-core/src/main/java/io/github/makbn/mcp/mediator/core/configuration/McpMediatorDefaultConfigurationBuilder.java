@@ -12,6 +12,10 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 
 /**
@@ -125,6 +129,123 @@ public final class McpMediatorDefaultConfigurationBuilder {
         return this;
     }
 
+    /**
+     * Sets the idle timeout after which unused resources are released. {@link Duration#ZERO} disables it.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder idleTimeout(@NonNull Duration idleTimeout) {
+        this.configuration.setIdleTimeout(idleTimeout);
+        return this;
+    }
+
+    /**
+     * Sets the ratio of the max heap size that puts the mediator in memory pressure mode. {@code 0} disables it.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder memoryThreshold(double memoryThreshold) {
+        this.configuration.setMemoryThreshold(memoryThreshold);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of characters of a serialized tool result while under memory pressure.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder memoryPressureResultLimit(long memoryPressureResultLimit) {
+        this.configuration.setMemoryPressureResultLimit(memoryPressureResultLimit);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of characters of a tool result page. {@code 0} disables the pagination.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder resultPageSize(int resultPageSize) {
+        this.configuration.setResultPageSize(resultPageSize);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of paginated tool results kept at the same time.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder resultPageStoreCapacity(int resultPageStoreCapacity) {
+        this.configuration.setResultPageStoreCapacity(resultPageStoreCapacity);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of results kept for conditional calls. {@code 0} disables the conditional results.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder resultCacheCapacity(int resultCacheCapacity) {
+        this.configuration.setResultCacheCapacity(resultCacheCapacity);
+        return this;
+    }
+
+    /**
+     * Sets the number of elements of a streamed tool result sent to the client per notification.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder streamChunkSize(int streamChunkSize) {
+        this.configuration.setStreamChunkSize(streamChunkSize);
+        return this;
+    }
+
+    /**
+     * Sets the file of the tool registry snapshot used to serve the tools right away on the next start.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder toolRegistrySnapshot(Path toolRegistrySnapshot) {
+        this.configuration.setToolRegistrySnapshot(toolRegistrySnapshot);
+        return this;
+    }
+
+    /**
+     * Sets the profile of the tool definitions served by {@code tools/list}.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder toolListingProfile(@NonNull McpToolListingProfile toolListingProfile) {
+        this.configuration.setToolListingProfile(toolListingProfile);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of tools per {@code tools/list} page. {@code 0} disables the pagination.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder toolListPageSize(int toolListPageSize) {
+        this.configuration.setToolListPageSize(toolListPageSize);
+        return this;
+    }
+
+    /**
+     * Enables the tool search mode, {@code tools/list} only lists {@code find_tools} and the pinned tools.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder toolSearchEnabled(boolean toolSearchEnabled) {
+        this.configuration.setToolSearchEnabled(toolSearchEnabled);
+        return this;
+    }
+
+    /**
+     * Sets the names of the tools listed along with {@code find_tools} when the tool search is enabled.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder pinnedTools(@NonNull Set<String> pinnedTools) {
+        this.configuration.setPinnedTools(pinnedTools);
+        return this;
+    }
+
+    /**
+     * Sets the tool profiles exposing a subset of the tools to some clients.
+     */
+    @NonNull
+    public McpMediatorDefaultConfigurationBuilder toolProfiles(@NonNull List<McpToolProfile> toolProfiles) {
+        this.configuration.setToolProfiles(toolProfiles);
+        return this;
+    }
+
     @NonNull
     public McpMediatorDefaultConfigurationBuilder serializer(@NonNull ObjectMapper serializer) {
         this.configuration.setSerializer(serializer);
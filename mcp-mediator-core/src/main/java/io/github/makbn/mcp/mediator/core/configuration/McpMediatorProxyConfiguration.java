@@ -48,6 +48,19 @@ public final class McpMediatorProxyConfiguration extends McpMediatorDefaultConfi
         Map<String, String> remoteServerEnvs;
         @Builder.Default
         Duration remoteServerTimeout = Duration.ofSeconds(TIMEOUT);
+        /**
+         * Namespace of the tools of the remote server, used by the {@link McpToolProfile tool profiles}. By default,
+         * the remote server address.
+         */
+        String namespace;
+        /**
+         * Asks a remote mediator advertising the Smile encoding for Smile encoded results, see
+         * {@link io.github.makbn.mcp.mediator.core.internal.McpWireEncoding}. Off by default: the encoded result still
+         * travels Base64 encoded inside the JSON-RPC message and is transcoded back to JSON by the proxy, which only
+         * pays off when the Smile form of the results is much smaller than their JSON form.
+         */
+        @Builder.Default
+        boolean smileEncoding = false;
         @NonFinal
         ObjectMapper serializer;
 
@@ -62,10 +75,20 @@ public final class McpMediatorProxyConfiguration extends McpMediatorDefaultConfi
                             ? Map.copyOf(this.getRemoteServerEnvs())
                             : null,
                     this.getRemoteServerTimeout(),
+                    this.namespace,
+                    this.smileEncoding,
                     this.getSerializer()
             );
         }
 
+        /**
+         * @return the namespace of the tools of the remote server, the remote server address if not set
+         */
+        @NonNull
+        public String getNamespace() {
+            return namespace != null ? namespace : remoteServerAddress;
+        }
+
         @NonNull
         public String getCommand() {
             if (remoteTransportType == McpTransportType.STDIO) {
@@ -82,6 +105,11 @@ public final class McpMediatorProxyConfiguration extends McpMediatorDefaultConfi
     public McpMediatorProxyConfiguration(String serverName, String serverVersion, ObjectMapper serializer,
                                          McpTransportType transportType, boolean toolsEnabled, String serverAddress,
                                          InputStream stdioInputStream, OutputStream stdioOutputStream) {
-        super(serverName, serverVersion, serializer, transportType, toolsEnabled, serverAddress, stdioInputStream, stdioOutputStream);
+        super(serverName, serverVersion, serializer, transportType, toolsEnabled, serverAddress, stdioInputStream,
+                stdioOutputStream, DEFAULT_IDLE_TIMEOUT, DEFAULT_MEMORY_THRESHOLD,
+                DEFAULT_MEMORY_PRESSURE_RESULT_LIMIT, DEFAULT_RESULT_PAGE_SIZE, DEFAULT_RESULT_PAGE_STORE_CAPACITY,
+                DEFAULT_RESULT_CACHE_CAPACITY, DEFAULT_STREAM_CHUNK_SIZE, DEFAULT_TOOL_REGISTRY_SNAPSHOT,
+                DEFAULT_TOOL_LISTING_PROFILE, DEFAULT_TOOL_LIST_PAGE_SIZE, DEFAULT_TOOL_SEARCH_ENABLED,
+                DEFAULT_PINNED_TOOLS, DEFAULT_TOOL_PROFILES);
     }
 }
@@ -8,9 +8,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 
 /**
@@ -87,6 +91,123 @@ public final class McpMediatorProxyConfigurationBuilder {
         return this;
     }
 
+    /**
+     * Sets the idle timeout after which unused resources are released. {@link Duration#ZERO} disables it.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder idleTimeout(@NonNull Duration idleTimeout) {
+        this.configuration.setIdleTimeout(idleTimeout);
+        return this;
+    }
+
+    /**
+     * Sets the ratio of the max heap size that puts the mediator in memory pressure mode. {@code 0} disables it.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder memoryThreshold(double memoryThreshold) {
+        this.configuration.setMemoryThreshold(memoryThreshold);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of characters of a serialized tool result while under memory pressure.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder memoryPressureResultLimit(long memoryPressureResultLimit) {
+        this.configuration.setMemoryPressureResultLimit(memoryPressureResultLimit);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of characters of a tool result page. {@code 0} disables the pagination.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder resultPageSize(int resultPageSize) {
+        this.configuration.setResultPageSize(resultPageSize);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of paginated tool results kept at the same time.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder resultPageStoreCapacity(int resultPageStoreCapacity) {
+        this.configuration.setResultPageStoreCapacity(resultPageStoreCapacity);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of results kept for conditional calls. {@code 0} disables the conditional results.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder resultCacheCapacity(int resultCacheCapacity) {
+        this.configuration.setResultCacheCapacity(resultCacheCapacity);
+        return this;
+    }
+
+    /**
+     * Sets the number of elements of a streamed tool result sent to the client per notification.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder streamChunkSize(int streamChunkSize) {
+        this.configuration.setStreamChunkSize(streamChunkSize);
+        return this;
+    }
+
+    /**
+     * Sets the file of the tool registry snapshot used to serve the tools right away on the next start.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder toolRegistrySnapshot(Path toolRegistrySnapshot) {
+        this.configuration.setToolRegistrySnapshot(toolRegistrySnapshot);
+        return this;
+    }
+
+    /**
+     * Sets the profile of the tool definitions served by {@code tools/list}.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder toolListingProfile(@NonNull McpToolListingProfile toolListingProfile) {
+        this.configuration.setToolListingProfile(toolListingProfile);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of tools per {@code tools/list} page. {@code 0} disables the pagination.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder toolListPageSize(int toolListPageSize) {
+        this.configuration.setToolListPageSize(toolListPageSize);
+        return this;
+    }
+
+    /**
+     * Enables the tool search mode, {@code tools/list} only lists {@code find_tools} and the pinned tools.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder toolSearchEnabled(boolean toolSearchEnabled) {
+        this.configuration.setToolSearchEnabled(toolSearchEnabled);
+        return this;
+    }
+
+    /**
+     * Sets the names of the tools listed along with {@code find_tools} when the tool search is enabled.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder pinnedTools(@NonNull Set<String> pinnedTools) {
+        this.configuration.setPinnedTools(pinnedTools);
+        return this;
+    }
+
+    /**
+     * Sets the tool profiles exposing a subset of the tools to some clients.
+     */
+    @NonNull
+    public McpMediatorProxyConfigurationBuilder toolProfiles(@NonNull List<McpToolProfile> toolProfiles) {
+        this.configuration.setToolProfiles(toolProfiles);
+        return this;
+    }
+
     @NonNull
     public McpMediatorProxyConfigurationBuilder serializer(@NonNull ObjectMapper serializer) {
         this.configuration.setSerializer(serializer);
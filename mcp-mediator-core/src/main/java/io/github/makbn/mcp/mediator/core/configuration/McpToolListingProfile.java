@@ -0,0 +1,20 @@
+package io.github.makbn.mcp.mediator.core.configuration;
+
+/**
+ * Profiles of the tool definitions served to the MCP clients by {@code tools/list}.
+ *
+ * @author Matt Akbarian
+ */
+public enum McpToolListingProfile {
+    /**
+     * The tools are listed as they are described, with the generated descriptions and the complete input schemas.
+     */
+    FULL,
+
+    /**
+     * The tools are listed with a smaller payload: the generated descriptions are shortened to a single sentence, the
+     * schema identifiers and the default-valued constraints are dropped and the redundant types and empty properties
+     * are removed. Hand-written descriptions and meaningful constraints are kept as they are.
+     */
+    COMPACT
+}
@@ -0,0 +1,58 @@
+package io.github.makbn.mcp.mediator.core.configuration;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Set;
+
+/**
+ * Subset of the tools exposed to some clients, e.g. the tools of a few namespaces for a specialized agent.
+ * <p>
+ * The namespace of a tool is the name of the handler providing it, or the namespace of the remote server it is
+ * proxied from (see {@link McpMediatorProxyConfiguration.McpMediatorRemoteMcpServerConfiguration#getNamespace()}).
+ * A client session uses the profile listing its client name, or the profile it requests in the mediator experimental
+ * client capability of its {@code initialize} request. The meta tools of the mediator, e.g. {@code fetch_more}, are
+ * part of every profile.
+ *
+ * @author Matt Akbarian
+ */
+@Getter
+@Builder
+@ToString
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class McpToolProfile {
+    /**
+     * The profile name, also used by the clients to request the profile.
+     */
+    @NonNull
+    String name;
+    /**
+     * Names of the clients, as sent in the {@code clientInfo} of the {@code initialize} request, using the profile.
+     */
+    @Singular
+    Set<String> clientNames;
+    /**
+     * Namespaces whose tools are all part of the profile.
+     */
+    @Singular
+    Set<String> namespaces;
+    /**
+     * Names of the tools part of the profile whatever their namespace.
+     */
+    @Singular
+    Set<String> tools;
+
+    /**
+     * @param namespace the namespace of the tool
+     * @param toolName  the tool name
+     * @return {@code true} if the tool is part of the profile
+     */
+    public boolean includes(@NonNull String namespace, @NonNull String toolName) {
+        return namespaces.contains(namespace) || tools.contains(toolName);
+    }
+}
@@ -0,0 +1,277 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.util.annotation.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Validates the arguments of a tool call against the constraints advertised by the input schema of the tool.
+ * <p>
+ * The schema is compiled once, when the tool is registered, into a list of checks per argument: the required
+ * arguments and, for the top-level properties, the {@code type}, {@code enum}, {@code minimum}, {@code maximum},
+ * {@code minLength}, {@code maxLength}, {@code pattern}, {@code minItems} and {@code maxItems} keywords. The patterns
+ * are compiled at that time as well, so a call only runs the checks and doesn't parse or reflect on anything. The
+ * arguments not declared by the schema, e.g. the mediator hints, and the nested or referenced schemas are not
+ * checked, the request binding still rejects the values it can't convert.
+ * <p>
+ * The types are checked as leniently as the request binding converts the values: a number or a boolean sent as a
+ * JSON string, e.g. {@code "5"} or {@code "true"}, is accepted, and a numeric string is checked against the bounds.
+ * <p>
+ * A call is validated on the transport thread, an invalid call is rejected with all its violations before it takes
+ * an executor slot or reaches a handler or a remote server.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpArgumentValidator {
+    private static final McpArgumentValidator NONE = new McpArgumentValidator(List.of(), List.of());
+
+    /**
+     * Check of a single argument value.
+     */
+    @FunctionalInterface
+    private interface Check {
+
+        /**
+         * @param value the non-null argument value
+         * @return the violation, {@code null} if the value is valid
+         */
+        @Nullable
+        String check(@NonNull Object value);
+    }
+
+    private record ArgumentChecks(String name, List<Check> checks) {
+    }
+
+    List<String> required;
+    List<ArgumentChecks> arguments;
+
+    /**
+     * Compiles the constraints of an input schema. A schema that can't be read gives a validator accepting every call.
+     *
+     * @param schema the JSON string of the input schema
+     * @param mapper the mapper used to read the schema
+     * @return the validator of the tool arguments
+     */
+    @NonNull
+    public static McpArgumentValidator compile(@Nullable String schema, @NonNull ObjectMapper mapper) {
+        if (schema == null || schema.isBlank()) {
+            return NONE;
+        }
+        JsonNode root;
+        try {
+            root = mapper.readTree(schema);
+        } catch (JsonProcessingException e) {
+            log.debug("Arguments not validated, unreadable schema {}", schema, e);
+            return NONE;
+        }
+        List<String> required = new ArrayList<>();
+        root.path("required").forEach(name -> {
+            if (name.isTextual()) {
+                required.add(name.asText());
+            }
+        });
+        List<ArgumentChecks> arguments = new ArrayList<>();
+        root.path("properties").fields().forEachRemaining(property -> {
+            List<Check> checks = compileProperty(property.getKey(), property.getValue());
+            if (!checks.isEmpty()) {
+                arguments.add(new ArgumentChecks(property.getKey(), List.copyOf(checks)));
+            }
+        });
+        return required.isEmpty() && arguments.isEmpty()
+                ? NONE : new McpArgumentValidator(List.copyOf(required), List.copyOf(arguments));
+    }
+
+    /**
+     * @param arguments the arguments passed by the client
+     * @return the violations of the call joined in a single message, empty if the arguments are valid
+     */
+    @NonNull
+    public Optional<String> validate(@Nullable Map<String, Object> arguments) {
+        if (this == NONE) {
+            return Optional.empty();
+        }
+        Map<String, Object> values = arguments == null ? Map.of() : arguments;
+        List<String> violations = null;
+        for (String name : required) {
+            if (values.get(name) == null) {
+                violations = add(violations, name + " is required");
+            }
+        }
+        for (ArgumentChecks argument : this.arguments) {
+            Object value = values.get(argument.name());
+            if (value == null) {
+                continue;
+            }
+            for (Check check : argument.checks()) {
+                String violation = check.check(value);
+                if (violation != null) {
+                    violations = add(violations, argument.name() + " " + violation);
+                }
+            }
+        }
+        return violations == null ? Optional.empty() : Optional.of(String.join("; ", violations));
+    }
+
+    private static List<String> add(List<String> violations, String violation) {
+        List<String> list = violations == null ? new ArrayList<>(2) : violations;
+        list.add(violation);
+        return list;
+    }
+
+    private static List<Check> compileProperty(String name, JsonNode property) {
+        List<Check> checks = new ArrayList<>();
+        JsonNode type = property.get("type");
+        if (type != null) {
+            Set<String> types = new HashSet<>();
+            if (type.isArray()) {
+                type.forEach(item -> types.add(item.asText()));
+            } else {
+                types.add(type.asText());
+            }
+            List<Predicate<Object>> matchers = types.stream().map(McpArgumentValidator::typeMatcher).toList();
+            String message = "must be of type " + String.join(" or ", types);
+            checks.add(value -> matchers.stream().anyMatch(matcher -> matcher.test(value)) ? null : message);
+        }
+        JsonNode values = property.get("enum");
+        if (values != null && values.isArray()) {
+            Set<String> allowed = new HashSet<>();
+            values.forEach(value -> allowed.add(value.asText()));
+            String message = "must be one of " + values;
+            checks.add(value -> allowed.contains(String.valueOf(value)) ? null : message);
+        }
+        addBound(checks, property.get("minimum"), true);
+        addBound(checks, property.get("maximum"), false);
+        addLength(checks, property.get("minLength"), true);
+        addLength(checks, property.get("maxLength"), false);
+        addItems(checks, property.get("minItems"), true);
+        addItems(checks, property.get("maxItems"), false);
+        JsonNode pattern = property.get("pattern");
+        if (pattern != null && pattern.isTextual()) {
+            try {
+                Pattern compiled = Pattern.compile(pattern.asText());
+                String message = "must match the pattern '" + pattern.asText() + "'";
+                checks.add(value -> !(value instanceof CharSequence text) || compiled.matcher(text).find()
+                        ? null : message);
+            } catch (PatternSyntaxException e) {
+                log.warn("Pattern of the argument {} not validated, invalid regular expression", name, e);
+            }
+        }
+        return checks;
+    }
+
+    private static Predicate<Object> typeMatcher(String type) {
+        return switch (type) {
+            case "string" -> CharSequence.class::isInstance;
+            case "integer" -> McpArgumentValidator::isInteger;
+            case "number" -> value -> toBigDecimal(value) != null;
+            case "boolean" -> value -> value instanceof Boolean
+                    || value instanceof CharSequence text && ("true".equalsIgnoreCase(text.toString())
+                    || "false".equalsIgnoreCase(text.toString()));
+            case "array" -> value -> value instanceof Collection<?> || value.getClass().isArray();
+            case "object" -> Map.class::isInstance;
+            case "null" -> value -> false;
+            default -> value -> true;
+        };
+    }
+
+    private static boolean isInteger(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger) {
+            return true;
+        }
+        // 1.0 is an integer for JSON Schema
+        BigDecimal decimal = toBigDecimal(value);
+        return decimal != null && decimal.stripTrailingZeros().scale() <= 0;
+    }
+
+    private static void addBound(List<Check> checks, JsonNode bound, boolean minimum) {
+        if (bound == null || !bound.isNumber()) {
+            return;
+        }
+        BigDecimal limit = bound.decimalValue();
+        String message = (minimum ? "must be greater than or equal to " : "must be less than or equal to ")
+                + bound.asText();
+        checks.add(value -> {
+            BigDecimal decimal = toBigDecimal(value);
+            if (decimal == null) {
+                return null;
+            }
+            int comparison = decimal.compareTo(limit);
+            return minimum ? (comparison < 0 ? message : null) : (comparison > 0 ? message : null);
+        });
+    }
+
+    private static void addLength(List<Check> checks, JsonNode bound, boolean minimum) {
+        if (bound == null || !bound.canConvertToLong()) {
+            return;
+        }
+        long limit = bound.asLong();
+        String message = (minimum ? "must be at least " : "must be at most ") + limit + " characters long";
+        checks.add(value -> {
+            if (!(value instanceof CharSequence text)) {
+                return null;
+            }
+            String string = text.toString();
+            long length = string.codePointCount(0, string.length());
+            return (minimum ? length < limit : length > limit) ? message : null;
+        });
+    }
+
+    private static void addItems(List<Check> checks, JsonNode bound, boolean minimum) {
+        if (bound == null || !bound.canConvertToLong()) {
+            return;
+        }
+        long limit = bound.asLong();
+        String message = (minimum ? "must have at least " : "must have at most ") + limit + " items";
+        checks.add(value -> {
+            if (!(value instanceof Collection<?> collection)) {
+                return null;
+            }
+            return (minimum ? collection.size() < limit : collection.size() > limit) ? message : null;
+        });
+    }
+
+    @Nullable
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        } else if (value instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        } else if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+            return BigDecimal.valueOf(number.doubleValue());
+        } else if (value instanceof CharSequence text) {
+            // numbers sent as strings are converted by the request binding
+            try {
+                return new BigDecimal(text.toString());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Support of the asynchronous results returned by the request handlers and the service tool methods.
+ * <p>
+ * A handler returning a {@link CompletionStage}, e.g. a {@link CompletableFuture}, or a Reactor {@link Mono} only
+ * holds an executor thread while it starts the operation. The tool call is completed with the value of the result
+ * once it completes, no thread waits for it in between.
+ *
+ * @author Matt Akbarian
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class McpAsyncResults {
+
+    /**
+     * @param result the value returned by a handler
+     * @return {@code true} if the value is a pending result to be awaited
+     */
+    public static boolean isAsync(Object result) {
+        return result instanceof CompletionStage<?> || result instanceof Mono<?>;
+    }
+
+    /**
+     * Adapts the value returned by a handler to a completion stage, a {@link Mono} is subscribed to.
+     *
+     * @param result the value returned by a handler
+     * @return the stage completed with the value of an asynchronous result, or completed with the value itself
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static CompletionStage<Object> toCompletionStage(Object result) {
+        if (result instanceof CompletionStage<?> stage) {
+            return (CompletionStage<Object>) stage;
+        } else if (result instanceof Mono<?> mono) {
+            // an empty Mono completes with null, like a void tool method
+            return (CompletableFuture<Object>) mono.toFuture();
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+}
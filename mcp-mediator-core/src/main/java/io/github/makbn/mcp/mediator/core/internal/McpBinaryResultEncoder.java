@@ -0,0 +1,244 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.util.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Converts binary tool results ({@code byte[]}, {@link ByteBuffer} and {@link Path}) into MCP binary contents instead
+ * of serializing them as JSON strings.
+ * <p>
+ * Images are returned as {@link McpSchema.ImageContent}, any other binary as an {@link McpSchema.EmbeddedResource}
+ * holding a {@link McpSchema.BlobResourceContents}. The MIME type is probed from the file for {@link Path} results
+ * and sniffed from the leading bytes otherwise.
+ * <p>
+ * The payload is Base64 encoded while it is streamed into the output buffer, which is sized exactly once from the
+ * payload length. Files are read through read-only memory mapped {@link FileChannel} regions, so neither the file
+ * content nor the intermediate encoding chunks are ever buffered as a whole on the heap; the only allocations
+ * proportional to the payload are the encoded output and the final {@link String} required by the MCP schema.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class McpBinaryResultEncoder {
+    public static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+    public static final String BLOB_URI_PREFIX = "blob:mcp-mediator/";
+    /**
+     * Number of bytes copied at once out of direct and memory mapped buffers.
+     */
+    private static final int CHUNK_SIZE = 3 * 16 * 1024;
+    /**
+     * Size of the file regions mapped at once, a multiple of {@link #CHUNK_SIZE}.
+     */
+    private static final long MAPPED_REGION_SIZE = CHUNK_SIZE * 1024L;
+    private static final long MAX_PAYLOAD_SIZE = (Integer.MAX_VALUE - 8L) / 4 * 3;
+
+    /**
+     * @param result the tool result
+     * @return {@code true} if the result is delivered as a binary content
+     */
+    public static boolean isBinary(Object result) {
+        return result instanceof byte[] || result instanceof ByteBuffer
+                || (result instanceof Path path && Files.isRegularFile(path));
+    }
+
+    /**
+     * Converts the binary result into an MCP content.
+     *
+     * @param result the binary result, see {@link #isBinary(Object)}
+     * @param limit  maximum number of characters of the encoded payload
+     * @return image or embedded blob resource content
+     * @throws McpMediatorException if the result is larger than the limit or can't be read
+     */
+    @NonNull
+    public static McpSchema.Content toContent(@NonNull Object result, long limit) {
+        return toContent(result, null, limit);
+    }
+
+    /**
+     * Converts the binary result of a known MIME type into an MCP content.
+     *
+     * @param result   the binary result, see {@link #isBinary(Object)}
+     * @param mimeType the MIME type of the result, detected from the content if {@code null}
+     * @param limit    maximum number of characters of the encoded payload
+     * @return image or embedded blob resource content
+     * @throws McpMediatorException if the result is larger than the limit or can't be read
+     */
+    @NonNull
+    public static McpSchema.Content toContent(@NonNull Object result, @Nullable String mimeType, long limit) {
+        try {
+            if (result instanceof byte[] bytes) {
+                return toContent(ByteBuffer.wrap(bytes), mimeType, limit);
+            } else if (result instanceof ByteBuffer buffer) {
+                return toContent(buffer, mimeType, limit);
+            } else if (result instanceof Path path) {
+                return toContent(path, mimeType, limit);
+            }
+        } catch (IOException e) {
+            throw new McpMediatorException("Failed to read the binary result: " + e.getMessage(), e);
+        }
+        throw new McpMediatorException("Unsupported binary result type: " + result.getClass().getName());
+    }
+
+    private static McpSchema.Content toContent(ByteBuffer buffer, String knownMimeType, long limit)
+            throws IOException {
+        // duplicate to leave the position of the caller's buffer untouched
+        ByteBuffer payload = buffer.duplicate();
+        String mimeType = knownMimeType != null ? knownMimeType : sniffMimeType(payload);
+        ArrayOutput output = new ArrayOutput(encodedLength(payload.remaining(), limit));
+        try (OutputStream encoder = Base64.getEncoder().wrap(output)) {
+            encode(payload, encoder, new byte[CHUNK_SIZE]);
+        }
+        return contentOf(output.toString(), mimeType, null);
+    }
+
+    private static McpSchema.Content toContent(Path path, String knownMimeType, long limit) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ArrayOutput output = new ArrayOutput(encodedLength(size, limit));
+            byte[] chunk = new byte[CHUNK_SIZE];
+            String mimeType = knownMimeType;
+            try (OutputStream encoder = Base64.getEncoder().wrap(output)) {
+                for (long position = 0; position < size; position += MAPPED_REGION_SIZE) {
+                    ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(MAPPED_REGION_SIZE, size - position));
+                    if (mimeType == null) {
+                        mimeType = probeMimeType(path, region);
+                    }
+                    encode(region, encoder, chunk);
+                }
+            }
+            if (mimeType == null) {
+                mimeType = probeMimeType(path, ByteBuffer.allocate(0));
+            }
+            return contentOf(output.toString(), mimeType, path.toAbsolutePath().toUri().toString());
+        }
+    }
+
+    private static void encode(ByteBuffer payload, OutputStream encoder, byte[] chunk) throws IOException {
+        if (payload.hasArray()) {
+            // heap buffer, encoded in place without copying
+            encoder.write(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining());
+            payload.position(payload.limit());
+            return;
+        }
+        while (payload.hasRemaining()) {
+            int length = Math.min(chunk.length, payload.remaining());
+            payload.get(chunk, 0, length);
+            encoder.write(chunk, 0, length);
+        }
+    }
+
+    private static int encodedLength(long payloadSize, long limit) {
+        if (payloadSize > MAX_PAYLOAD_SIZE) {
+            throw new McpMediatorException(String.format("Binary result of %d bytes is too large", payloadSize));
+        }
+        long encodedLength = (payloadSize + 2) / 3 * 4;
+        if (encodedLength > limit) {
+            throw new McpResultWriter.ResultLimitExceededException(
+                    String.format("Result exceeds the limit of %d characters", limit), null);
+        }
+        return (int) encodedLength;
+    }
+
+    private static McpSchema.Content contentOf(String data, String mimeType, String uri) {
+        if (mimeType.startsWith("image/")) {
+            return new McpSchema.ImageContent(null, null, data, mimeType);
+        }
+        String resourceUri = uri != null ? uri : BLOB_URI_PREFIX + UUID.randomUUID();
+        return new McpSchema.EmbeddedResource(null, null,
+                new McpSchema.BlobResourceContents(resourceUri, mimeType, data));
+    }
+
+    private static String probeMimeType(Path path, ByteBuffer head) {
+        try {
+            String mimeType = Files.probeContentType(path);
+            if (mimeType != null) {
+                return mimeType;
+            }
+        } catch (IOException e) {
+            log.debug("Failed to probe the content type of {}", path, e);
+        }
+        return sniffMimeType(head);
+    }
+
+    /**
+     * Detects the MIME type from the magic number of the most common binary formats.
+     */
+    private static String sniffMimeType(ByteBuffer payload) {
+        int position = payload.position();
+        if (startsWith(payload, position, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        } else if (startsWith(payload, position, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        } else if (startsWith(payload, position, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        } else if (startsWith(payload, position, 'R', 'I', 'F', 'F')
+                && startsWith(payload, position + 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        } else if (startsWith(payload, position, '%', 'P', 'D', 'F')) {
+            return "application/pdf";
+        } else if (startsWith(payload, position, 'P', 'K', 0x03, 0x04)) {
+            return "application/zip";
+        } else if (startsWith(payload, position, 0x1F, 0x8B)) {
+            return "application/gzip";
+        }
+        return DEFAULT_MIME_TYPE;
+    }
+
+    /**
+     * Fixed size output written by the Base64 encoder, its content is exposed as a Latin-1 string.
+     */
+    private static final class ArrayOutput extends OutputStream {
+        private final byte[] buffer;
+        private int count;
+
+        ArrayOutput(int size) {
+            this.buffer = new byte[size];
+        }
+
+        @Override
+        public void write(int b) {
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(@NonNull byte[] bytes, int offset, int length) {
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, 0, count, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private static boolean startsWith(ByteBuffer payload, int offset, int... magic) {
+        if (payload.limit() - offset < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((payload.get(offset + i) & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
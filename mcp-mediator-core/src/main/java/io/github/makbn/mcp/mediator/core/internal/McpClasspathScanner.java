@@ -0,0 +1,220 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Classpath scanner finding the classes annotated with a given annotation, used for the classpath locations without
+ * a build time index.
+ * <p>
+ * The directories and jars of the classpath are scanned in parallel. Classes are not loaded while scanning: the raw
+ * class files are searched for the descriptor of the annotation, which appears in the constant pool of every class
+ * carrying it, and only the matching classes are returned for loading.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class McpClasspathScanner {
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * Scans the classpath for the classes carrying the given annotation.
+     *
+     * @param classLoader the class loader to scan
+     * @param packages    the packages to scan including their sub-packages, the whole classpath if empty
+     * @param annotation  the annotation type
+     * @return the binary names of the candidate classes
+     * @throws McpMediatorException if the classpath can't be read
+     */
+    @NonNull
+    public static Set<String> scan(@NonNull ClassLoader classLoader, @NonNull Collection<String> packages,
+                                   @NonNull Class<? extends Annotation> annotation) {
+        return scan(classLoader, packages, annotation, Set.of());
+    }
+
+    /**
+     * Scans the classpath for the classes carrying the given annotation, except the given locations.
+     *
+     * @param classLoader      the class loader to scan
+     * @param packages         the packages to scan including their sub-packages, the whole classpath if empty
+     * @param annotation       the annotation type
+     * @param skippedLocations the directories and jars not to scan, e.g. the ones having an index, see
+     *                         {@link #locationOf(URL, String)}
+     * @return the binary names of the candidate classes
+     * @throws McpMediatorException if the classpath can't be read
+     */
+    @NonNull
+    public static Set<String> scan(@NonNull ClassLoader classLoader, @NonNull Collection<String> packages,
+                                   @NonNull Class<? extends Annotation> annotation,
+                                   @NonNull Collection<Path> skippedLocations) {
+        byte[] descriptor = ("L" + annotation.getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+        List<String> prefixes = packages.isEmpty()
+                ? List.of("")
+                : packages.stream().map(name -> name.replace('.', '/') + "/").toList();
+        try {
+            Set<String> classes = Collections.synchronizedSet(new TreeSet<>());
+            Set<Path> locations = locations(classLoader, prefixes);
+            locations.removeAll(skippedLocations);
+            locations.parallelStream()
+                    .forEach(location -> scanLocation(location, prefixes, descriptor, classes));
+            return classes;
+        } catch (IOException | UncheckedIOException e) {
+            throw new McpMediatorException("Failed to scan the classpath", e);
+        }
+    }
+
+    /**
+     * @return the directories and jars containing the packages
+     */
+    private static Set<Path> locations(ClassLoader classLoader, List<String> prefixes) throws IOException {
+        Set<Path> locations = new LinkedHashSet<>();
+        for (String prefix : prefixes) {
+            Enumeration<URL> resources = classLoader.getResources(prefix);
+            while (resources.hasMoreElements()) {
+                toLocation(resources.nextElement(), prefix).ifPresent(locations::add);
+            }
+        }
+        if (prefixes.contains("")) {
+            // the class loader only returns the directories for the root package
+            for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+                if (!entry.isBlank()) {
+                    locations.add(Path.of(entry).toAbsolutePath().normalize());
+                }
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * @param resource     the URL of a resource, as returned by {@link ClassLoader#getResources(String)}
+     * @param resourceName the name of the resource
+     * @return the directory or jar of the classpath containing the resource, empty if it's neither
+     * @throws IOException if the jar can't be opened
+     */
+    @NonNull
+    public static Optional<Path> locationOf(@NonNull URL resource, @NonNull String resourceName) throws IOException {
+        return toLocation(resource, resourceName);
+    }
+
+    private static Optional<Path> toLocation(URL url, String prefix) throws IOException {
+        try {
+            if ("jar".equals(url.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection) url.openConnection();
+                return Optional.of(Path.of(connection.getJarFileURL().toURI()).toAbsolutePath().normalize());
+            } else if ("file".equals(url.getProtocol())) {
+                Path directory = Path.of(url.toURI());
+                int depth = prefix.isEmpty() ? 0 : prefix.split("/").length;
+                for (int i = 0; i < depth; i++) {
+                    directory = directory.getParent();
+                }
+                return Optional.of(directory.toAbsolutePath().normalize());
+            }
+        } catch (URISyntaxException e) {
+            log.debug("Skipping the classpath location {}", url, e);
+        }
+        return Optional.empty();
+    }
+
+    private static void scanLocation(Path location, List<String> prefixes, byte[] descriptor, Set<String> classes) {
+        if (Files.isDirectory(location)) {
+            scanDirectory(location, prefixes, descriptor, classes);
+        } else if (Files.isRegularFile(location)) {
+            scanJar(location, prefixes, descriptor, classes);
+        }
+    }
+
+    private static void scanDirectory(Path root, List<String> prefixes, byte[] descriptor, Set<String> classes) {
+        for (String prefix : prefixes) {
+            Path directory = prefix.isEmpty() ? root : root.resolve(prefix);
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.filter(file -> isClassFile(file.toString()))
+                        .forEach(file -> {
+                            try {
+                                if (contains(Files.readAllBytes(file), descriptor)) {
+                                    classes.add(toClassName(root.relativize(file).toString()
+                                            .replace(File.separatorChar, '/')));
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void scanJar(Path jar, List<String> prefixes, byte[] descriptor, Set<String> classes) {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            List<JarEntry> entries = new ArrayList<>();
+            jarFile.stream()
+                    .filter(entry -> isClassFile(entry.getName()))
+                    .filter(entry -> prefixes.stream().anyMatch(entry.getName()::startsWith))
+                    .forEach(entries::add);
+            for (JarEntry entry : entries) {
+                try (InputStream input = jarFile.getInputStream(entry)) {
+                    if (contains(input.readAllBytes(), descriptor)) {
+                        classes.add(toClassName(entry.getName()));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Skipping the unreadable classpath entry {}", jar, e);
+        }
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(CLASS_SUFFIX) && !name.endsWith("module-info.class")
+                && !name.endsWith("package-info.class");
+    }
+
+    private static String toClassName(String path) {
+        String name = path.substring(0, path.length() - CLASS_SUFFIX.length()).replace('/', '.');
+        // multi-release jars keep the versioned classes under META-INF/versions/<version>/
+        return name.startsWith("META-INF.versions.") ? name.substring(name.indexOf('.', 18) + 1) : name;
+    }
+
+    private static boolean contains(byte[] content, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= content.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (content[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.makbn.mcp.mediator.api.McpToolInvoker;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.util.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lookup of the tool descriptors and invokers generated at build time by the {@code mcp-mediator-processor}
+ * annotation processor, see {@link McpToolInvoker}.
+ * <p>
+ * Descriptors are loaded once per type from the class loader of the type. Types compiled without the processor have
+ * no descriptor and their tools are discovered by reflection as before; the same applies to the individual tools
+ * missing from a descriptor or without a generated schema.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class McpGeneratedTools {
+    private static final ObjectMapper DESCRIPTOR_READER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Map<Class<?>, Optional<Descriptor>> DESCRIPTORS = new ConcurrentHashMap<>();
+
+    /**
+     * @param type the service or request type
+     * @return the generated descriptor of the type, empty if the type wasn't processed at build time
+     */
+    @NonNull
+    public static Optional<Descriptor> find(@NonNull Class<?> type) {
+        return DESCRIPTORS.computeIfAbsent(type, McpGeneratedTools::load);
+    }
+
+    /**
+     * @param method a tool method
+     * @return the key of the method in {@link Descriptor#toolsBySignature()}
+     */
+    @NonNull
+    public static String signature(@NonNull Method method) {
+        return signature(method.getName(), Arrays.stream(method.getParameterTypes())
+                .map(Class::getTypeName)
+                .toList());
+    }
+
+    private static String signature(String method, List<String> parameters) {
+        return method + "(" + String.join(",", parameters) + ")";
+    }
+
+    private static Optional<Descriptor> load(Class<?> type) {
+        ClassLoader classLoader = Objects.requireNonNullElseGet(type.getClassLoader(),
+                ClassLoader::getSystemClassLoader);
+        try (InputStream input = classLoader.getResourceAsStream(
+                McpToolInvoker.DESCRIPTOR_LOCATION + type.getName() + ".json")) {
+            if (input == null) {
+                return Optional.empty();
+            }
+            Descriptor descriptor = DESCRIPTOR_READER.readValue(input, Descriptor.class);
+            log.debug("Loaded the generated tool descriptor of {}", type.getName());
+            return Optional.of(descriptor).filter(loaded -> type.getName().equals(loaded.type()));
+        } catch (IOException e) {
+            log.warn("Ignoring the invalid generated tool descriptor of {}", type.getName(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Generated descriptor of a service or a request type.
+     *
+     * @param type        the binary name of the described type
+     * @param invoker     the generated invoker of a service, {@code null} if it has none
+     * @param tools       the tools of a service
+     * @param name        the tool name of a request
+     * @param description the tool description of a request
+     * @param schema      the input schema of a request, {@code null} if it is generated at runtime
+     */
+    public record Descriptor(String type, @Nullable String invoker, @Nullable List<Tool> tools,
+                             @Nullable String name, @Nullable String description, @Nullable String schema) {
+
+        /**
+         * @return the tools of the service keyed by their method signature, see {@link #signature(Method)}
+         */
+        @NonNull
+        public Map<String, Tool> toolsBySignature() {
+            return Objects.requireNonNullElse(tools, List.<Tool>of())
+                    .stream()
+                    .collect(Collectors.toUnmodifiableMap(tool -> signature(tool.method(), tool.parameters()),
+                            Function.identity(), (first, second) -> first));
+        }
+
+        /**
+         * @param classLoader the class loader of the service
+         * @return a new instance of the generated invoker, empty if the service has none or it can't be loaded
+         */
+        @NonNull
+        public Optional<McpToolInvoker> createInvoker(@NonNull ClassLoader classLoader) {
+            if (invoker == null) {
+                return Optional.empty();
+            }
+            try {
+                Object instance = Class.forName(invoker, true, classLoader).getDeclaredConstructor().newInstance();
+                return Optional.of(instance)
+                        .filter(McpToolInvoker.class::isInstance)
+                        .map(McpToolInvoker.class::cast);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("Failed to load the generated tool invoker {}", invoker, e);
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Generated descriptor of a service tool method.
+     *
+     * @param index       the index of the method in the generated invoker, negative if the method isn't invokable
+     *                    by the invoker
+     * @param method      the method name
+     * @param parameters  the parameter type names of the method, see {@link Class#getTypeName()}
+     * @param description the description of an annotated tool, {@code null} if it is generated at runtime
+     * @param schema      the input schema of the method, {@code null} if it is generated at runtime
+     */
+    public record Tool(int index, String method, List<String> parameters,
+                       @Nullable String description, @Nullable String schema) {
+
+        /**
+         * @param method the described method
+         * @return the generated schema, empty if the method has to be described at runtime
+         */
+        @NonNull
+        public Optional<String> schemaOf(@NonNull Method method) {
+            // the schema uses the source parameter names, the runtime resolves the arguments by the compiled names
+            return Optional.ofNullable(schema)
+                    .filter(generated -> Arrays.stream(method.getParameters()).allMatch(Parameter::isNamePresent));
+        }
+
+        /**
+         * @return {@code true} if the generated invoker can call the method
+         */
+        public boolean isInvokable() {
+            return index >= 0;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps track of the last access time of idle-sensitive resources (request handlers, remote MCP server connections,
+ * ...) and releases them once they have not been used for longer than the configured idle timeout.
+ * <p>
+ * Released resources are expected to reopen themselves on demand. The reaper only decides <em>when</em> a resource
+ * should be released, every call to {@link #touch(Object)} marks the resource as active again. A release can decline
+ * while the resource is still used by a call started before the timeout, the resource stays active and the release is
+ * retried on the next sweep.
+ * <p>
+ * The sweeping thread is a single daemon thread and is only started when the first resource is registered.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@RequiredArgsConstructor(staticName = "of")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpIdleResourceReaper implements AutoCloseable {
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class IdleResource {
+        String name;
+        BooleanSupplier release;
+        AtomicLong lastAccess = new AtomicLong(System.nanoTime());
+        AtomicBoolean active = new AtomicBoolean(true);
+    }
+
+    @NonNull
+    Duration idleTimeout;
+    Map<Object, IdleResource> resources = new ConcurrentHashMap<>();
+
+    @NonFinal
+    ScheduledExecutorService sweeper;
+
+    /**
+     * Registers a resource to be released after being idle for the configured timeout.
+     *
+     * @param key     the identity of the resource, used later by {@link #touch(Object)}
+     * @param name    human-readable name used for logging
+     * @param release the action releasing the underlying resource, returning {@code false} if the resource is still in
+     *                use and was not released
+     */
+    public void register(@NonNull Object key, @NonNull String name, @NonNull BooleanSupplier release) {
+        if (!isEnabled()) {
+            return;
+        }
+        resources.putIfAbsent(key, new IdleResource(name, release));
+        startSweeper();
+    }
+
+    /**
+     * Marks the resource as recently used. Has no effect if the resource is not registered.
+     *
+     * @param key the identity of the resource
+     */
+    public void touch(@NonNull Object key) {
+        IdleResource resource = resources.get(key);
+        if (resource != null) {
+            resource.lastAccess.set(System.nanoTime());
+            resource.active.set(true);
+        }
+    }
+
+    /**
+     * @return {@code true} if idle resource reclamation is enabled by a positive idle timeout
+     */
+    public boolean isEnabled() {
+        return !idleTimeout.isZero() && !idleTimeout.isNegative();
+    }
+
+    private synchronized void startSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-mediator-idle-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleTimeout.toMillis() / 2);
+        sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        long timeout = idleTimeout.toNanos();
+        resources.values().forEach(resource -> {
+            if (now - resource.lastAccess.get() >= timeout && resource.active.compareAndSet(true, false)) {
+                try {
+                    log.debug("Releasing idle resource: {}", resource.name);
+                    if (!resource.release.getAsBoolean()) {
+                        // still used by a call, keep it active so the next sweep retries
+                        resource.active.set(true);
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to release idle resource: {}", resource.name, e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+        resources.clear();
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Minimal <a href="https://datatracker.ietf.org/doc/html/rfc6902">RFC 6902 JSON Patch</a> generator.
+ * <p>
+ * Objects are compared member by member and arrays element by element; array elements are only appended or removed
+ * at the tail, moved elements are reported as replacements. The produced patch is valid but not necessarily minimal,
+ * it only uses the {@code add}, {@code remove} and {@code replace} operations.
+ *
+ * @author Matt Akbarian
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class McpJsonPatch {
+    public static final String MEDIA_TYPE = "application/json-patch+json";
+
+    private static final String OP = "op";
+    private static final String PATH = "path";
+    private static final String VALUE = "value";
+
+    /**
+     * Creates the patch that turns the source document into the target document.
+     *
+     * @param source the previous version
+     * @param target the current version
+     * @return the patch operations, empty if both documents are equal
+     */
+    @NonNull
+    public static ArrayNode diff(@NonNull JsonNode source, @NonNull JsonNode target) {
+        ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+        diff(patch, "", source, target);
+        return patch;
+    }
+
+    private static void diff(ArrayNode patch, String path, JsonNode source, JsonNode target) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            diffObjects(patch, path, source, target);
+        } else if (source.isArray() && target.isArray()) {
+            diffArrays(patch, path, source, target);
+        } else {
+            operation(patch, "replace", path).set(VALUE, target);
+        }
+    }
+
+    private static void diffObjects(ArrayNode patch, String path, JsonNode source, JsonNode target) {
+        Iterator<String> sourceNames = source.fieldNames();
+        while (sourceNames.hasNext()) {
+            String name = sourceNames.next();
+            if (!target.has(name)) {
+                operation(patch, "remove", path + "/" + escape(name));
+            }
+        }
+        Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+        while (targetFields.hasNext()) {
+            Map.Entry<String, JsonNode> field = targetFields.next();
+            String fieldPath = path + "/" + escape(field.getKey());
+            JsonNode sourceValue = source.get(field.getKey());
+            if (sourceValue == null) {
+                operation(patch, "add", fieldPath).set(VALUE, field.getValue());
+            } else {
+                diff(patch, fieldPath, sourceValue, field.getValue());
+            }
+        }
+    }
+
+    private static void diffArrays(ArrayNode patch, String path, JsonNode source, JsonNode target) {
+        int common = Math.min(source.size(), target.size());
+        for (int i = 0; i < common; i++) {
+            diff(patch, path + "/" + i, source.get(i), target.get(i));
+        }
+        for (int i = common; i < target.size(); i++) {
+            operation(patch, "add", path + "/" + i).set(VALUE, target.get(i));
+        }
+        // removed from the tail so the indexes of the remaining elements don't shift
+        for (int i = source.size() - 1; i >= common; i--) {
+            operation(patch, "remove", path + "/" + i);
+        }
+    }
+
+    private static ObjectNode operation(ArrayNode patch, String op, String path) {
+        return patch.addObject()
+                .put(OP, op)
+                .put(PATH, path);
+    }
+
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+}
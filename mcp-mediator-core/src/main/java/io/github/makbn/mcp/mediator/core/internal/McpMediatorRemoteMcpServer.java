@@ -6,9 +6,15 @@ import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.spec.McpSchema;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Mediator class responsible for managing the connection to a remote MCP server
@@ -16,33 +22,88 @@ import java.util.Map;
  * <p>
  * It maintains a set of supported {@link NativeToolAdapter} instances and
  * ensures that only authorized tools are called remotely.
+ * <p>
+ * The connection can be released while the remote server is idle using {@link #releaseConnection()}. It will be
+ * reopened on demand by the next tool call and the reopen latency is tracked.
  *
  * @author Matt Akbarian
  */
+@Slf4j
 @Getter
-@ToString
+@ToString(onlyExplicitlyIncluded = true)
 @RequiredArgsConstructor(staticName = "of")
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class McpMediatorRemoteMcpServer {
 
     /**
-     * Connection object to communicate with the remote MCP server.
+     * Connector used to (re)open the connection to the remote MCP server.
      */
     @NonNull
-    McpSyncClient connectionToRemoteServer;
+    @ToString.Include
+    @Getter(AccessLevel.NONE)
+    McpRemoteServerConnector connector;
 
     /**
      * List of {@link NativeToolAdapter} instances supported by the remote server.
      */
     @NonNull
+    @ToString.Include
     List<NativeToolAdapter> toolAdapters;
 
+    /**
+     * Encoding used to decode the binary results of remote mediators, {@code null} if Smile encoded results are not
+     * requested.
+     */
+    @Getter(AccessLevel.NONE)
+    McpWireEncoding wireEncoding;
+
+    /**
+     * Connection object to communicate with the remote MCP server, {@code null} while released.
+     */
+    @NonFinal
+    @Getter(AccessLevel.NONE)
+    volatile McpSyncClient connectionToRemoteServer;
+
+    /**
+     * Tool calls hold the read lock, releasing the connection requires the write lock.
+     */
+    @Getter(AccessLevel.NONE)
+    ReadWriteLock connectionLock = new ReentrantReadWriteLock();
+    @Getter(AccessLevel.NONE)
+    AtomicLong reconnectCount = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    AtomicLong lastReconnectLatencyNanos = new AtomicLong();
+
+    /**
+     * Creates the remote server using an already initialized connection.
+     *
+     * @param connector    the connector used to reopen the connection after being released
+     * @param connection   the initialized connection
+     * @param toolAdapters the tools provided by the remote server
+     * @param wireEncoding the encoding used to decode the binary results of remote mediators, {@code null} to not
+     *                     request Smile encoded results
+     * @return the remote server instance
+     */
+    @NonNull
+    public static McpMediatorRemoteMcpServer of(@NonNull McpRemoteServerConnector connector,
+                                                @NonNull McpSyncClient connection,
+                                                @NonNull List<NativeToolAdapter> toolAdapters,
+                                                McpWireEncoding wireEncoding) {
+        McpMediatorRemoteMcpServer remoteServer = McpMediatorRemoteMcpServer.of(connector, toolAdapters,
+                wireEncoding);
+        remoteServer.connectionToRemoteServer = connection;
+        return remoteServer;
+    }
 
     /**
      * Handles a remote tool execution request.
      * <p>
      * It verifies that the specified tool is supported, and if so,
      * forwards the request to the remote server with the given client arguments.
+     * <p>
+     * If Smile encoded results are enabled for this server and the remote server is a mediator that advertises the
+     * Smile encoding, the result is requested in Smile and transcoded to JSON, unless the client itself asked for a
+     * Smile encoded result. Otherwise, the arguments are forwarded as is.
      *
      * @param toolAdapter     the tool adapter representing the tool to be executed
      * @param clientPassedArgs the arguments passed by the client to the proxy server for the tool execution
@@ -54,6 +115,91 @@ public class McpMediatorRemoteMcpServer {
         if (!toolAdapters.contains(toolAdapter)) {
             throw new McpMediatorException("invocated tool is not supported by the remote server");
         }
-        return connectionToRemoteServer.callTool(new McpSchema.CallToolRequest(toolAdapter.getMethod(), clientPassedArgs));
+        connectionLock.readLock().lock();
+        try {
+            McpSyncClient connection = getConnectionToRemoteServer();
+            if (wireEncoding == null || !McpWireEncoding.supportsSmile(connection.getServerCapabilities())) {
+                return connection.callTool(new McpSchema.CallToolRequest(toolAdapter.getMethod(), clientPassedArgs));
+            }
+            McpSchema.CallToolResult result = connection.callTool(new McpSchema.CallToolRequest(
+                    toolAdapter.getMethod(), McpWireEncoding.withSmileHint(clientPassedArgs)));
+            return McpWireEncoding.requestsSmile(McpToolCallArguments.of(clientPassedArgs))
+                    ? result
+                    : wireEncoding.toJson(result);
+        } finally {
+            connectionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the connection to the remote server, reopening it if it has been released.
+     *
+     * @return an initialized connection
+     */
+    @NonNull
+    public McpSyncClient getConnectionToRemoteServer() {
+        McpSyncClient connection = connectionToRemoteServer;
+        if (connection != null) {
+            return connection;
+        }
+        synchronized (this) {
+            if (connectionToRemoteServer == null) {
+                long start = System.nanoTime();
+                connectionToRemoteServer = connector.connect();
+                long latency = System.nanoTime() - start;
+                lastReconnectLatencyNanos.set(latency);
+                reconnectCount.incrementAndGet();
+                log.debug("Reopened connection to {} in {} ms", connector, Duration.ofNanos(latency).toMillis());
+            }
+            return connectionToRemoteServer;
+        }
+    }
+
+    /**
+     * Closes the connection to the remote server if there is no in-flight request. For {@code STDIO} servers,
+     * this also stops the child process. The connection is reopened on demand.
+     *
+     * @return {@code false} if a request is in flight and the connection was kept open
+     */
+    public boolean releaseConnection() {
+        if (!connectionLock.writeLock().tryLock()) {
+            return false;
+        }
+        try {
+            synchronized (this) {
+                if (connectionToRemoteServer == null) {
+                    return true;
+                }
+                McpSyncClient connection = connectionToRemoteServer;
+                connectionToRemoteServer = null;
+                connection.closeGracefully();
+                log.debug("Released idle connection to {}", connector);
+                return true;
+            }
+        } finally {
+            connectionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if the connection is currently open
+     */
+    public boolean isConnected() {
+        return connectionToRemoteServer != null;
+    }
+
+    /**
+     * @return number of times the connection has been reopened after being released
+     */
+    public long getReconnectCount() {
+        return reconnectCount.get();
+    }
+
+    /**
+     * @return the latency of the last reopen of the connection, {@link Duration#ZERO} if never reopened
+     */
+    @NonNull
+    public Duration getLastReconnectLatency() {
+        return Duration.ofNanos(lastReconnectLatencyNanos.get());
     }
 }
@@ -0,0 +1,321 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sheds load while the heap is close to exhaustion to prevent large tool results from causing an
+ * {@link OutOfMemoryError}.
+ * <p>
+ * The guard subscribes to the {@link MemoryPoolMXBean} usage threshold notifications of all heap pools. Once a
+ * threshold is crossed, the mediator enters the memory pressure mode in which:
+ * <ul>
+ *     <li>only {@link #PRESSURE_CONCURRENCY} tool results are serialized at the same time, others are queued up to
+ *     {@link #PRESSURE_QUEUE_TIMEOUT_SECONDS} seconds and rejected afterward. A queued result holds no thread.</li>
+ *     <li>serialized tool results are capped to the configured pressure result limit</li>
+ * </ul>
+ * The pressure mode is left automatically once the usage of all the heap pools (measured after the last garbage
+ * collection when supported) drops below {@link #RECOVERY_FACTOR} of the threshold.
+ * <p>
+ * The usage thresholds are global to the JVM. A lower threshold already set on a pool, e.g. by another monitoring
+ * tool or another mediator, is kept, and only the notifications of the monitored pools reaching the threshold of this
+ * guard enter the pressure mode. The previous thresholds are restored when the guard is stopped.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@RequiredArgsConstructor(staticName = "of")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpMemoryGuard implements NotificationListener {
+    public static final int PRESSURE_CONCURRENCY = 2;
+    public static final int PRESSURE_QUEUE_TIMEOUT_SECONDS = 10;
+    public static final double RECOVERY_FACTOR = 0.9;
+
+    /**
+     * Admission ticket for a tool call, must be closed once the result is delivered.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Permit NO_OP_PERMIT = () -> {
+    };
+
+    /**
+     * Ratio of the max heap pool size that is considered as memory pressure, {@code 0} disables the guard.
+     */
+    double threshold;
+    /**
+     * Maximum number of characters a serialized result can have while under memory pressure.
+     */
+    long pressureResultLimit;
+
+    Semaphore pressurePermits = new Semaphore(PRESSURE_CONCURRENCY);
+    Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    AtomicBoolean underPressure = new AtomicBoolean(false);
+    AtomicLong thresholdCrossings = new AtomicLong();
+    AtomicLong rejectedCalls = new AtomicLong();
+    AtomicLong cappedResults = new AtomicLong();
+
+    @NonFinal
+    volatile Map<String, MonitoredPool> monitoredPools = Map.of();
+
+    /**
+     * @return {@code true} if the guard is enabled by a positive threshold
+     */
+    public boolean isEnabled() {
+        return threshold > 0 && threshold < 1;
+    }
+
+    /**
+     * Sets the usage thresholds on the heap memory pools, unless a lower one is already set, and subscribes to the
+     * threshold notifications.
+     */
+    public synchronized void start() {
+        if (!isEnabled() || !monitoredPools.isEmpty()) {
+            return;
+        }
+        monitoredPools = ManagementFactory.getMemoryPoolMXBeans()
+                .stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .filter(MemoryPoolMXBean::isUsageThresholdSupported)
+                .filter(pool -> pool.getUsage().getMax() > 0)
+                .map(this::monitor)
+                .collect(Collectors.toUnmodifiableMap(monitored -> monitored.pool().getName(),
+                        Function.identity()));
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(this, null, null);
+    }
+
+    /**
+     * Unsubscribes from the memory notifications and restores the thresholds that were replaced by the guard.
+     */
+    public synchronized void stop() {
+        if (monitoredPools.isEmpty()) {
+            return;
+        }
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(this);
+        } catch (ListenerNotFoundException e) {
+            log.debug("Memory guard listener was not registered", e);
+        }
+        monitoredPools.values().forEach(MonitoredPool::restore);
+        monitoredPools = Map.of();
+        underPressure.set(false);
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        String type = notification.getType();
+        if ((!MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                && !MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type))
+                || !(notification.getUserData() instanceof CompositeData data)) {
+            return;
+        }
+        MemoryNotificationInfo info = MemoryNotificationInfo.from(data);
+        MonitoredPool monitored = monitoredPools.get(info.getPoolName());
+        // a lower threshold kept for someone else, or a pool this guard doesn't monitor
+        if (monitored == null || info.getUsage().getUsed() < monitored.limit()) {
+            return;
+        }
+        thresholdCrossings.incrementAndGet();
+        if (underPressure.compareAndSet(false, true)) {
+            log.warn("Heap usage of {} crossed the memory guard threshold, shedding load: {}", info.getPoolName(),
+                    type);
+        }
+    }
+
+    @NonNull
+    private MonitoredPool monitor(@NonNull MemoryPoolMXBean pool) {
+        long limit = thresholdOf(pool);
+        long usageThreshold = pool.getUsageThreshold();
+        if (usageThreshold <= 0 || usageThreshold > limit) {
+            pool.setUsageThreshold(limit);
+        }
+        long collectionUsageThreshold = -1;
+        if (pool.isCollectionUsageThresholdSupported()) {
+            collectionUsageThreshold = pool.getCollectionUsageThreshold();
+            if (collectionUsageThreshold <= 0 || collectionUsageThreshold > limit) {
+                pool.setCollectionUsageThreshold(limit);
+            }
+        }
+        log.debug("Memory guard threshold for {} is set to {} bytes", pool.getName(), limit);
+        return new MonitoredPool(pool, limit, usageThreshold, collectionUsageThreshold);
+    }
+
+    /**
+     * Admits the serialization of a tool result. While under memory pressure, the admission is queued until one of the
+     * limited permits is released, without holding the calling thread, and is rejected if none becomes available in
+     * time.
+     *
+     * @return the permit that should be closed once the result is serialized, signaled on the bounded elastic
+     * scheduler when the admission was queued. The admission fails with a {@link McpMediatorException} if it is
+     * rejected due to memory pressure.
+     */
+    @NonNull
+    public Mono<Permit> admit() {
+        if (!isUnderPressure()) {
+            return Mono.just(NO_OP_PERMIT);
+        }
+        return Mono.<Permit>create(sink -> {
+                    Waiter waiter = new Waiter(sink);
+                    waiters.add(waiter);
+                    Disposable timeout = Schedulers.parallel().schedule(() -> {
+                        if (waiter.claim()) {
+                            waiters.remove(waiter);
+                            rejectedCalls.incrementAndGet();
+                            sink.error(new McpMediatorException(
+                                    "Server is under memory pressure, the request is rejected. Retry later!"));
+                        }
+                    }, PRESSURE_QUEUE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    sink.onDispose(timeout);
+                    sink.onCancel(() -> {
+                        if (waiter.claim()) {
+                            waiters.remove(waiter);
+                        }
+                    });
+                    admitWaiters();
+                })
+                .publishOn(Schedulers.boundedElastic())
+                // a permit granted to a cancelled admission is given back
+                .doOnDiscard(Permit.class, Permit::close);
+    }
+
+    private void admitWaiters() {
+        while (!waiters.isEmpty() && pressurePermits.tryAcquire()) {
+            Waiter waiter = waiters.poll();
+            if (waiter != null && waiter.claim()) {
+                waiter.sink().success(createPermit());
+            } else {
+                pressurePermits.release();
+            }
+        }
+    }
+
+    @NonNull
+    private Permit createPermit() {
+        AtomicBoolean released = new AtomicBoolean(false);
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                pressurePermits.release();
+                admitWaiters();
+            }
+        };
+    }
+
+    /**
+     * @return the maximum number of characters a serialized result can have, {@link Long#MAX_VALUE} if unlimited
+     */
+    public long getResultLimit() {
+        return isUnderPressure() ? pressureResultLimit : Long.MAX_VALUE;
+    }
+
+    /**
+     * Records a result that was rejected due to exceeding the {@link #getResultLimit()}.
+     */
+    public void onResultCapped() {
+        cappedResults.incrementAndGet();
+    }
+
+    /**
+     * Checks whether the mediator is under memory pressure and leaves the pressure mode if the heap usage has
+     * recovered.
+     *
+     * @return {@code true} if under memory pressure
+     */
+    public boolean isUnderPressure() {
+        if (!underPressure.get()) {
+            return false;
+        }
+        boolean recovered = monitoredPools.values().stream().allMatch(monitored -> {
+            MemoryPoolMXBean pool = monitored.pool();
+            MemoryUsage usage = pool.isCollectionUsageThresholdSupported() && pool.getCollectionUsage() != null
+                    ? pool.getCollectionUsage()
+                    : pool.getUsage();
+            return usage.getUsed() < monitored.limit() * RECOVERY_FACTOR;
+        });
+        if (recovered && underPressure.compareAndSet(true, false)) {
+            log.info("Heap usage recovered, leaving memory pressure mode");
+        }
+        return !recovered;
+    }
+
+    public long getThresholdCrossings() {
+        return thresholdCrossings.get();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+
+    public long getCappedResults() {
+        return cappedResults.get();
+    }
+
+    private long thresholdOf(@NonNull MemoryPoolMXBean pool) {
+        return (long) (pool.getUsage().getMax() * threshold);
+    }
+
+    /**
+     * Heap pool monitored by the guard, with the limit of the guard and the thresholds set before the guard started,
+     * {@code -1} if not supported.
+     */
+    private record MonitoredPool(MemoryPoolMXBean pool, long limit, long usageThreshold,
+                                 long collectionUsageThreshold) {
+
+        /**
+         * Restores the previous thresholds, unless they were kept or changed since by someone else.
+         */
+        private void restore() {
+            if (pool.getUsageThreshold() == limit && usageThreshold >= 0) {
+                pool.setUsageThreshold(usageThreshold);
+            }
+            if (collectionUsageThreshold >= 0 && pool.getCollectionUsageThreshold() == limit) {
+                pool.setCollectionUsageThreshold(collectionUsageThreshold);
+            }
+        }
+    }
+
+    /**
+     * Queued admission, completed exactly once, either with a permit, a rejection or a cancellation.
+     */
+    private record Waiter(MonoSink<Permit> sink, AtomicBoolean done) {
+        private Waiter(MonoSink<Permit> sink) {
+            this(sink, new AtomicBoolean(false));
+        }
+
+        private boolean claim() {
+            return done.compareAndSet(false, true);
+        }
+    }
+}
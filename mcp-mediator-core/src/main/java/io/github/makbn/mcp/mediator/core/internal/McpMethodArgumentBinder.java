@@ -0,0 +1,145 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.github.makbn.mcp.mediator.core.util.McpUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Binding plan of the arguments of a tool method, computed once when the tool is registered.
+ * <p>
+ * The plan holds the argument name and a specialized converter for every parameter slot, so binding a call is a
+ * single pass over the slots without any parameter or annotation lookup. Primitives, wrappers and {@link String}
+ * use the converters of {@link McpMethodArgumentResolver}, which pass the values Jackson already parsed to the right
+ * type through as they are; binding such arguments allocates nothing but the argument array. Any other parameter
+ * gets a precompiled {@link ObjectReader} for its full generic type, values that already match the type are passed
+ * through and the others, e.g. a {@link Map} for a POJO parameter or a list of maps for a {@code List<Pojo>}, are
+ * converted through a token buffer.
+ * <p>
+ * The converters are resolved again on the first call after a
+ * {@link McpMethodArgumentResolver#registerTypeConverter(Class, Function) converter registration}.
+ *
+ * @author Matt Akbarian
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpMethodArgumentBinder {
+    @Getter
+    Method method;
+    ObjectMapper mapper;
+    String[] names;
+    @NonFinal
+    volatile Converters converters;
+
+    /**
+     * Creates the binding plan of the given method.
+     *
+     * @param method the tool method
+     * @param mapper the mapper used for converting complex arguments
+     * @return the binding plan
+     */
+    @NonNull
+    public static McpMethodArgumentBinder of(@NonNull Method method, @NonNull ObjectMapper mapper) {
+        Parameter[] parameters = method.getParameters();
+        String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            names[i] = McpUtils.getParameterName(parameters[i]);
+        }
+        McpMethodArgumentBinder binder = new McpMethodArgumentBinder(method, mapper, names);
+        binder.converters = binder.resolveConverters();
+        return binder;
+    }
+
+    /**
+     * Binds the tool call arguments to the method parameters.
+     *
+     * @param arguments the tool call arguments
+     * @return the method arguments, in parameter order
+     * @throws IllegalArgumentException if an argument can't be converted to its parameter type
+     */
+    @NonNull
+    public Object[] bind(@NonNull Map<String, Object> arguments) {
+        Converters current = converters;
+        if (current.generation() != McpMethodArgumentResolver.getConverterGeneration()) {
+            current = resolveConverters();
+            converters = current;
+        }
+        Function<Object, Object>[] functions = current.functions();
+        Object[] values = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            values[i] = functions[i].apply(arguments.get(names[i]));
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Converters resolveConverters() {
+        // read first, so a registration racing the resolution makes the next call resolve the converters again
+        int generation = McpMethodArgumentResolver.getConverterGeneration();
+        Parameter[] parameters = method.getParameters();
+        Function<Object, Object>[] functions = new Function[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Function<Object, Object> converter = McpMethodArgumentResolver.getTypeConverter(parameters[i].getType());
+            functions[i] = converter != null ? converter : readerConverter(parameters[i], names[i], mapper);
+        }
+        return new Converters(generation, functions);
+    }
+
+    private static Function<Object, Object> readerConverter(Parameter parameter, String name, ObjectMapper mapper) {
+        JavaType type = mapper.getTypeFactory().constructType(parameter.getParameterizedType());
+        ObjectReader reader = mapper.readerFor(type);
+        boolean passThrough = isUntyped(type);
+        Class<?> rawType = type.getRawClass();
+        return value -> {
+            if (value == null || passThrough && rawType.isInstance(value)) {
+                return value;
+            }
+            try (TokenBuffer buffer = new TokenBuffer(mapper, false)) {
+                mapper.writeValue(buffer, value);
+                try (JsonParser parser = buffer.asParserOnFirstToken()) {
+                    return reader.readValue(parser);
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException(String.format("Failed to convert the argument '%s' to %s",
+                        name, type), e);
+            }
+        };
+    }
+
+    private record Converters(int generation, Function<Object, Object>[] functions) {
+    }
+
+    /**
+     * @return {@code true} if any instance of the raw type is a valid value, i.e. the type has no type parameters
+     * other than {@link Object} and the {@link String} keys of maps
+     */
+    private static boolean isUntyped(JavaType type) {
+        if (type.isMapLikeType()) {
+            return (type.getKeyType().hasRawClass(String.class) || type.getKeyType().hasRawClass(Object.class))
+                    && type.getContentType().hasRawClass(Object.class);
+        }
+        if (type.isContainerType()) {
+            return type.getContentType().hasRawClass(Object.class);
+        }
+        for (int i = 0; i < type.containedTypeCount(); i++) {
+            if (!type.containedType(i).hasRawClass(Object.class)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
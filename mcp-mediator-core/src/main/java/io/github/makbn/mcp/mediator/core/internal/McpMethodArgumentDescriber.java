@@ -14,6 +14,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.regex.Matcher;
 import java.util.stream.Collectors;
 
 /**
@@ -45,6 +46,14 @@ public final class McpMethodArgumentDescriber {
     private static final Map<Class<? extends Annotation>, Function<? extends Annotation, String>>
             ANNOTATION_EXTRACTOR = new LinkedHashMap<>();
 
+    /**
+     * Matches the descriptions generated by {@link #describeMethod(Method)}.
+     */
+    private static final java.util.regex.Pattern GENERATED_DESCRIPTION = java.util.regex.Pattern.compile(
+            "Method '([^']+)' is a method inside \\[([^\\]]+)] as part of \\[[^\\]]*] that accepts .*"
+                    + "It returns a (\\S+) value(?: and may throw \\[([^\\]]*)] exceptions)?\\.",
+            java.util.regex.Pattern.DOTALL);
+
     static {
         // Register default extractors
         registerAnnotation(NotNull.class, ann -> "required (not null)");
@@ -117,6 +126,28 @@ public final class McpMethodArgumentDescriber {
         return sb.toString();
     }
 
+    /**
+     * Shortens a description generated by {@link #describeMethod(Method)} to a single sentence, the arguments and
+     * their constraints are already described by the input schema of the tool.
+     *
+     * @param description the description of a tool
+     * @return the shortened description, or the description itself if it wasn't generated
+     */
+    @NonNull
+    public static String compactDescription(@NonNull String description) {
+        Matcher matcher = GENERATED_DESCRIPTION.matcher(description);
+        if (!matcher.matches()) {
+            return description;
+        }
+        StringBuilder sb = new StringBuilder()
+                .append(matcher.group(2)).append('.').append(matcher.group(1))
+                .append(" returns ").append(matcher.group(3));
+        if (matcher.group(4) != null) {
+            sb.append(", throws ").append(matcher.group(4));
+        }
+        return sb.append('.').toString();
+    }
+
     /**
      * Extracts validation-related constraints from a method parameter.
      *
@@ -1,13 +1,12 @@
 package io.github.makbn.mcp.mediator.core.internal;
 
-import io.github.makbn.mcp.mediator.core.util.McpUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import reactor.util.annotation.NonNull;
 import reactor.util.annotation.Nullable;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -28,80 +27,153 @@ public class McpMethodArgumentResolver {
     /**
      * Registry of type converters for primitives, wrappers, and String.
      */
-    private static final Map<Class<?>, Function<Object, Object>> TYPE_CONVERTERS = new HashMap<>();
+    private static final Map<Class<?>, Function<Object, Object>> TYPE_CONVERTERS = new ConcurrentHashMap<>();
+    /**
+     * Incremented on every converter registration, so the binding plans built before can resolve their converters
+     * again.
+     */
+    private static volatile int converterGeneration;
 
     static {
-        // Register converters for primitives and wrappers
-        TYPE_CONVERTERS.put(int.class, value -> value == null ? 0 : Integer.parseInt(value.toString()));
-        TYPE_CONVERTERS.put(Integer.class, value -> value == null ? null : Integer.valueOf(value.toString()));
-        TYPE_CONVERTERS.put(long.class, value -> value == null ? 0L : Long.parseLong(value.toString()));
-        TYPE_CONVERTERS.put(Long.class, value -> value == null ? null : Long.valueOf(value.toString()));
-        TYPE_CONVERTERS.put(double.class, value -> value == null ? 0D : Double.parseDouble(value.toString()));
-        TYPE_CONVERTERS.put(Double.class, value -> value == null ? null : Double.valueOf(value.toString()));
-        TYPE_CONVERTERS.put(float.class, value -> value == null ? 0F : Float.parseFloat(value.toString()));
-        TYPE_CONVERTERS.put(Float.class, value -> value == null ? null : Float.valueOf(value.toString()));
-        TYPE_CONVERTERS.put(boolean.class, value -> value != null && Boolean.parseBoolean(value.toString()));
-        TYPE_CONVERTERS.put(Boolean.class, value -> value == null ? null : Boolean.valueOf(value.toString()));
-        TYPE_CONVERTERS.put(short.class, value -> value == null ? 0 : Short.parseShort(value.toString()));
-        TYPE_CONVERTERS.put(Short.class, value -> value == null ? null : Short.valueOf(value.toString()));
-        TYPE_CONVERTERS.put(byte.class, value -> value == null ? 0 : Byte.parseByte(value.toString()));
-        TYPE_CONVERTERS.put(Byte.class, value -> value == null ? null : Byte.valueOf(value.toString()));
-        TYPE_CONVERTERS.put(char.class, value -> value == null ? ' ' : value.toString().charAt(0));
-        TYPE_CONVERTERS.put(Character.class, value -> value == null ? null : value.toString().charAt(0));
+        // Register converters for primitives and wrappers, values already of the target type are passed through
+        // as is; the defaults are cast to Object so the conditionals never unbox and box the value again
+        TYPE_CONVERTERS.put(int.class, value -> value == null ? (Object) 0 : toInteger(value));
+        TYPE_CONVERTERS.put(Integer.class, value -> value == null ? null : toInteger(value));
+        TYPE_CONVERTERS.put(long.class, value -> value == null ? (Object) 0L : toLong(value));
+        TYPE_CONVERTERS.put(Long.class, value -> value == null ? null : toLong(value));
+        TYPE_CONVERTERS.put(double.class, value -> value == null ? (Object) 0D : toDouble(value));
+        TYPE_CONVERTERS.put(Double.class, value -> value == null ? null : toDouble(value));
+        TYPE_CONVERTERS.put(float.class, value -> value == null ? (Object) 0F : toFloat(value));
+        TYPE_CONVERTERS.put(Float.class, value -> value == null ? null : toFloat(value));
+        TYPE_CONVERTERS.put(boolean.class, value -> value == null ? Boolean.FALSE : toBoolean(value));
+        TYPE_CONVERTERS.put(Boolean.class, value -> value == null ? null : toBoolean(value));
+        TYPE_CONVERTERS.put(short.class, value -> value == null ? (Object) (short) 0 : toShort(value));
+        TYPE_CONVERTERS.put(Short.class, value -> value == null ? null : toShort(value));
+        TYPE_CONVERTERS.put(byte.class, value -> value == null ? (Object) (byte) 0 : toByte(value));
+        TYPE_CONVERTERS.put(Byte.class, value -> value == null ? null : toByte(value));
+        TYPE_CONVERTERS.put(char.class, value -> value == null ? (Object) ' ' : toCharacter(value));
+        TYPE_CONVERTERS.put(Character.class, value -> value == null ? null : toCharacter(value));
         TYPE_CONVERTERS.put(String.class, value -> value == null ? null : value.toString());
     }
 
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+    private static final Map<Method, McpMethodArgumentBinder> BINDERS = new ConcurrentHashMap<>();
+
     /**
      * Resolves the arguments for the given method by mapping input JSON keys to method parameters.
      * <p>
-     * This method handles automatic type conversion for supported types.
+     * This method handles automatic type conversion for supported types. The binding plan of the method is created
+     * on the first call and reused afterward, see {@link McpMethodArgumentBinder}.
      *
      * @param method  the method for which arguments are to be resolved
      * @param jsonMap a map representing the JSON input
      * @return an array of arguments, ready to be passed to {@link Method#invoke(Object, Object...)}
      */
     public static Object[] resolveArguments(@NonNull Method method, @NonNull Map<String, Object> jsonMap) {
-        Parameter[] parameters = method.getParameters();
-        Object[] args = new Object[parameters.length];
-
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter parameter = parameters[i];
-            String paramName = McpUtils.getParameterName(parameter);
-            Object rawValue = jsonMap.get(paramName);
-            args[i] = convertValue(parameter.getType(), rawValue);
-        }
-        return args;
+        return BINDERS.computeIfAbsent(method, key -> McpMethodArgumentBinder.of(key, DEFAULT_MAPPER))
+                .bind(jsonMap);
     }
 
     /**
-     * Converts a raw value to the target type using registered converters.
-     * <p>
-     * If no converter is found, it attempts to cast directly.
-     *
-     * @param targetType the expected parameter type
-     * @param value      the raw value to be converted
-     * @return the converted value, or default value if the input value is {@code null}
+     * @param targetType the parameter type
+     * @return the registered converter of the type, {@code null} if there is none
      */
     @Nullable
-    private static Object convertValue(Class<?> targetType, @Nullable Object value) {
-        Function<Object, Object> converter = TYPE_CONVERTERS.get(targetType);
-        if (converter != null) {
-            return converter.apply(value);
-        }
+    static Function<Object, Object> getTypeConverter(@NonNull Class<?> targetType) {
+        return TYPE_CONVERTERS.get(targetType);
+    }
 
-        return targetType.cast(value);
+    /**
+     * @return the generation of the registered converters, changes whenever a converter is registered
+     */
+    static int getConverterGeneration() {
+        return converterGeneration;
     }
 
     /**
      * Registers a custom converter for a specific type.
      * <p>
-     * This allows users to handle custom or complex types during argument resolution.
+     * This allows users to handle custom or complex types during argument resolution. The binding plans already
+     * created, including the ones of the registered service tools, pick the converter up on their next call.
      *
      * @param type      the target type
      * @param converter the converter function to transform input into the target type
      */
     public void registerTypeConverter(@NonNull Class<?> type, @NonNull Function<Object, Object> converter) {
-        TYPE_CONVERTERS.put(type, converter);
+        synchronized (TYPE_CONVERTERS) {
+            TYPE_CONVERTERS.put(type, converter);
+            converterGeneration++;
+        }
+    }
+
+    private static Integer toInteger(Object value) {
+        if (value instanceof Integer integer) {
+            return integer;
+        }
+        return isIntegral(value)
+                ? (int) toRange(((Number) value).longValue(), Integer.MIN_VALUE, Integer.MAX_VALUE)
+                : Integer.parseInt(value.toString());
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Long longValue) {
+            return longValue;
+        }
+        return isIntegral(value) ? ((Number) value).longValue() : Long.parseLong(value.toString());
+    }
+
+    private static Short toShort(Object value) {
+        if (value instanceof Short shortValue) {
+            return shortValue;
+        }
+        return isIntegral(value)
+                ? (short) toRange(((Number) value).longValue(), Short.MIN_VALUE, Short.MAX_VALUE)
+                : Short.parseShort(value.toString());
+    }
+
+    private static Byte toByte(Object value) {
+        if (value instanceof Byte byteValue) {
+            return byteValue;
+        }
+        return isIntegral(value)
+                ? (byte) toRange(((Number) value).longValue(), Byte.MIN_VALUE, Byte.MAX_VALUE)
+                : Byte.parseByte(value.toString());
+    }
+
+    private static Double toDouble(Object value) {
+        if (value instanceof Double doubleValue) {
+            return doubleValue;
+        }
+        return value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString());
+    }
+
+    private static Float toFloat(Object value) {
+        if (value instanceof Float floatValue) {
+            return floatValue;
+        }
+        return value instanceof Number number ? number.floatValue() : Float.parseFloat(value.toString());
+    }
+
+    private static Boolean toBoolean(Object value) {
+        return value instanceof Boolean booleanValue ? booleanValue : Boolean.valueOf(value.toString());
+    }
+
+    private static Character toCharacter(Object value) {
+        return value instanceof Character character ? character : value.toString().charAt(0);
+    }
+
+    private static long toRange(long value, long min, long max) {
+        if (value < min || value > max) {
+            throw new NumberFormatException(String.format("Value out of range. Value:\"%d\"", value));
+        }
+        return value;
+    }
+
+    /**
+     * Integral values parsed by Jackson are narrowed without going through their text representation.
+     */
+    private static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
     }
 
 }
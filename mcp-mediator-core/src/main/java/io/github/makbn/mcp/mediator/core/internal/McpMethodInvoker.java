@@ -0,0 +1,103 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import io.github.makbn.mcp.mediator.api.McpToolInvoker;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Direct invoker of a tool method, created once when the tool is registered.
+ * <p>
+ * The method is unreflected into a {@link MethodHandle} adapted to the {@code (Object, Object[])Object} shape, so
+ * every call is a single {@link MethodHandle#invokeExact} without the per-call access checks, argument array
+ * validation and varargs handling of {@link Method#invoke(Object, Object...)}. The JIT can inline the handle like a
+ * direct call as the invoker is kept for the lifetime of the tool. When the service was compiled with the
+ * {@code mcp-mediator-processor}, the generated {@link McpToolInvoker} is used instead, which calls the method
+ * directly and doesn't need the method to be unreflected at all.
+ * <p>
+ * To keep the error handling of the callers unchanged, everything thrown by the method, {@link Error}s included, is
+ * wrapped into an {@link InvocationTargetException} like reflection does.
+ *
+ * @author Matt Akbarian
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpMethodInvoker {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    @Getter
+    Method method;
+    Invocation invocation;
+
+    /**
+     * Creates the invoker of the given method.
+     *
+     * @param method the tool method
+     * @return the invoker
+     * @throws McpMediatorException if the method is not accessible
+     */
+    @NonNull
+    public static McpMethodInvoker of(@NonNull Method method) {
+        try {
+            // services are often package-private classes, the access check is done once here instead of per call
+            method.trySetAccessible();
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            MethodHandle invoker = handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+            return new McpMethodInvoker(method, (target, arguments) -> (Object) invoker.invokeExact(target, arguments));
+        } catch (IllegalAccessException e) {
+            throw new McpMediatorException("Failed to create the invoker for: " + method, e);
+        }
+    }
+
+    /**
+     * Creates the invoker of the given method backed by the invoker generated at build time.
+     *
+     * @param method  the tool method
+     * @param invoker the generated invoker of the service
+     * @param index   the index of the method in the generated invoker
+     * @return the invoker
+     */
+    @NonNull
+    public static McpMethodInvoker of(@NonNull Method method, @NonNull McpToolInvoker invoker, int index) {
+        return new McpMethodInvoker(method, (target, arguments) -> invoker.invoke(target, index, arguments));
+    }
+
+    /**
+     * Invokes the method on the given target.
+     *
+     * @param target    the service instance, ignored for static methods
+     * @param arguments the resolved arguments
+     * @return the value returned by the method, {@code null} for {@code void} methods
+     * @throws IllegalArgumentException  if the number of arguments doesn't match
+     * @throws InvocationTargetException if the method throws, {@link Error}s included, like reflection does
+     */
+    public Object invoke(Object target, @NonNull Object[] arguments) throws InvocationTargetException {
+        if (arguments.length != method.getParameterCount()) {
+            throw new IllegalArgumentException(String.format("%s expects %d arguments but %d were given",
+                    method.getName(), method.getParameterCount(), arguments.length));
+        }
+        try {
+            return invocation.invoke(target, arguments);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke(Object target, Object[] arguments) throws Throwable;
+    }
+}
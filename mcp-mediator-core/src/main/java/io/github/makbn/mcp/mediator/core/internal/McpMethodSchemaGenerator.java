@@ -4,15 +4,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.module.jsonSchema.JsonSchema;
-import com.fasterxml.jackson.module.jsonSchema.JsonSchemaGenerator;
 import io.github.makbn.mcp.mediator.core.util.McpUtils;
 import lombok.AccessLevel;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.experimental.FieldDefaults;
-import lombok.experimental.NonFinal;
 
 import javax.validation.constraints.NotNull;
 import java.lang.annotation.Annotation;
@@ -29,6 +25,8 @@ import java.util.Set;
  * and builds a schema compliant with common JSON Schema standards.
  * <p>
  * This utility is primarily intended for documentation, validation, or dynamic client generation use cases.
+ * The schemas of the complex types are shared through the {@link McpSchemaCache}, a type used by several parameters
+ * is defined once in the {@code $defs} of the method schema.
  *
  * @author Matt Akbarian
  */
@@ -55,8 +53,6 @@ public class McpMethodSchemaGenerator {
     public static final String REQUIRED_KEY = "required";
 
     ObjectMapper mapper;
-    @NonFinal
-    JsonSchemaGenerator schemaGenerator;
 
     /**
      * Generates a JSON Schema for the provided method's parameters.
@@ -75,14 +71,16 @@ public class McpMethodSchemaGenerator {
 
         ObjectNode propertiesNode = mapper.createObjectNode();
         ArrayNode requiredArray = mapper.createArrayNode();
+        McpSchemaCache.Document document = McpSchemaCache.of(mapper).newDocument();
 
         for (Parameter parameter : method.getParameters()) {
-            ObjectNode paramSchema = describeParameter(parameter);
+            ObjectNode paramSchema = describeParameter(parameter, document);
 
-            propertiesNode.set(McpUtils.getParameterName(parameter), paramSchema);
+            String parameterName = McpUtils.getParameterName(parameter);
+            propertiesNode.set(parameterName, paramSchema);
 
             if (isRequired(parameter)) {
-                requiredArray.add(parameter.getName());
+                requiredArray.add(parameterName);
             }
         }
 
@@ -91,18 +89,18 @@ public class McpMethodSchemaGenerator {
             schema.set(REQUIRED_KEY, requiredArray);
         }
 
-        return mapper.writeValueAsString(schema);
+        return mapper.writeValueAsString(document.complete(schema));
     }
 
     /**
      * Describes a method parameter and generates its corresponding schema.
      *
      * @param parameter the method parameter
+     * @param document  the method schema document collecting the definitions of the complex types
      * @return the JSON schema node describing the parameter
      */
-    @SneakyThrows
     @NonNull
-    private ObjectNode describeParameter(Parameter parameter) {
+    private ObjectNode describeParameter(Parameter parameter, McpSchemaCache.Document document) {
         ObjectNode paramSchema = mapper.createObjectNode();
         Class<?> type = parameter.getType();
 
@@ -115,9 +113,7 @@ public class McpMethodSchemaGenerator {
             paramSchema.put(TYPE_KEY, OBJECT);
         } else {
             // Complex nested type
-            JsonSchema schema = getSchemaGenerator().generateSchema(type);
-            paramSchema = mapper.valueToTree(schema);
-            paramSchema.put(ID_KEY, schema.getId());
+            paramSchema = document.describe(type);
         }
 
         // Handle validation annotations
@@ -126,14 +122,6 @@ public class McpMethodSchemaGenerator {
         return paramSchema;
     }
 
-
-    private JsonSchemaGenerator getSchemaGenerator() {
-        if (schemaGenerator == null) {
-            schemaGenerator = new JsonSchemaGenerator(mapper);
-        }
-        return schemaGenerator;
-    }
-
     /**
      * Adds validation constraints extracted from annotations to a given schema node.
      *
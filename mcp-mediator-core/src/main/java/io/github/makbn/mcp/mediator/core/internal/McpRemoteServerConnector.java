@@ -15,6 +15,7 @@ import io.modelcontextprotocol.spec.McpSchema;
 import lombok.AccessLevel;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,6 +29,7 @@ import lombok.extern.slf4j.Slf4j;
  * @author Matt Akbarian
  */
 @Slf4j
+@ToString
 @RequiredArgsConstructor(staticName = "of")
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 public class McpRemoteServerConnector {
@@ -44,10 +46,25 @@ public class McpRemoteServerConnector {
         log.debug("connecting to {}", request.getRemoteServer());
         McpSyncClient client = initializeConnection();
         log.debug("loading all the tools provided by {}", request.getRemoteServer());
-        return McpMediatorRemoteMcpServer.of(client, client.listTools().tools()
+        return McpMediatorRemoteMcpServer.of(this, client, client.listTools().tools()
                 .stream()
                 .map(nativeTool -> NativeToolAdapter.of(nativeTool, request.getRemoteServer().getSerializer()))
-                .toList());
+                .toList(), request.getRemoteServer().isSmileEncoding()
+                ? McpWireEncoding.of(request.getRemoteServer().getSerializer())
+                : null);
+    }
+
+    /**
+     * Opens a new connection to the remote MCP server without reloading the tools. Used to reopen a connection
+     * released while idle.
+     *
+     * @return an initialized {@link McpSyncClient}
+     * @throws McpMediatorException if initialization fails
+     */
+    @NonNull
+    public McpSyncClient connect() {
+        log.debug("reconnecting to {}", request.getRemoteServer());
+        return initializeConnection();
     }
 
     /**
@@ -0,0 +1,104 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+
+/**
+ * Binds the tool call arguments to an instance of the registered request type.
+ * <p>
+ * A binder is created once per request class at registration time and keeps a precompiled {@link ObjectReader}
+ * (and {@link ObjectWriter} for the arguments), so the per-call binding does not pay for the root
+ * serializer/deserializer lookups that {@link ObjectMapper#convertValue(Object, Class)} repeats on every call.
+ * The arguments still go through a token buffer like {@code convertValue} does, only request types that are
+ * themselves {@link Map}s are filled directly without any token buffering.
+ *
+ * @param <T> the request type
+ * @author Matt Akbarian
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpRequestBinder<T> {
+    private static final MethodType NO_ARGS_CONSTRUCTOR = MethodType.methodType(void.class);
+
+    Class<T> requestType;
+    ObjectMapper mapper;
+    ObjectReader reader;
+    ObjectWriter argumentsWriter;
+    /**
+     * No-args constructor of the request type if it is a {@link Map}, {@code null} otherwise.
+     */
+    MethodHandle mapConstructor;
+
+    /**
+     * Creates a binder for the given request type.
+     *
+     * @param requestType the request type
+     * @param mapper      the mapper used for binding
+     * @param <T>         the request type
+     * @return the binder
+     */
+    @NonNull
+    public static <T> McpRequestBinder<T> of(@NonNull Class<T> requestType, @NonNull ObjectMapper mapper) {
+        return new McpRequestBinder<>(requestType, mapper, mapper.readerFor(requestType),
+                mapper.writerFor(Map.class), findMapConstructor(requestType));
+    }
+
+    /**
+     * Binds the already parsed arguments to a new request instance.
+     *
+     * @param arguments tool call arguments
+     * @return the request instance
+     * @throws McpMediatorException if the binding fails
+     */
+    @NonNull
+    public T bind(@NonNull Map<String, Object> arguments) {
+        if (mapConstructor != null) {
+            return bindToMap(arguments);
+        }
+        try (TokenBuffer buffer = new TokenBuffer(mapper, false)) {
+            argumentsWriter.writeValue(buffer, arguments);
+            try (JsonParser parser = buffer.asParserOnFirstToken()) {
+                return reader.readValue(parser);
+            }
+        } catch (IOException e) {
+            throw new McpMediatorException(String.format("Failed to bind arguments to %s", requestType.getName()), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T bindToMap(Map<String, Object> arguments) {
+        try {
+            Map<String, Object> request = (Map<String, Object>) mapConstructor.invoke();
+            request.putAll(arguments);
+            return (T) request;
+        } catch (Throwable e) {
+            throw new McpMediatorException(String.format("Failed to bind arguments to %s", requestType.getName()), e);
+        }
+    }
+
+    private static MethodHandle findMapConstructor(Class<?> requestType) {
+        if (!Map.class.isAssignableFrom(requestType)) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().findConstructor(requestType, NO_ARGS_CONSTRUCTOR);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            // falls back to Jackson binding
+            return null;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package io.github.makbn.mcp.mediator.core.internal;
 
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 
 import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 
 /**
  * Abstract base class for executing a request within a {@link Callable} context.
@@ -11,7 +13,8 @@ import java.util.concurrent.Callable;
  * This executor is designed to wrap the logic required to process an {@link io.github.makbn.mcp.mediator.api.McpMediatorRequest}
  * in a controlled and thread-safe environment (typically using an {@link java.util.concurrent.ExecutorService}).
  * <p>
- * Subclasses must implement the {@link #call()} method to provide the actual execution logic.
+ * Subclasses must implement the {@link #call()} method to provide the actual execution logic. The executor is also a
+ * {@link Supplier}, so it can be run as a {@link java.util.concurrent.CompletableFuture} stage.
  *
  * @param <T> the result type returned by this executor's {@code call} method
  *
@@ -22,6 +25,21 @@ import java.util.concurrent.Callable;
  * @author Matt Akbarian
  */
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
-public abstract class McpRequestExecutor<T> implements Callable<T> {
+public abstract class McpRequestExecutor<T> implements Callable<T>, Supplier<T> {
 
+    /**
+     * Runs {@link #call()}, wrapping its checked exceptions into an {@link McpMediatorException}.
+     *
+     * @return the result of {@link #call()}
+     */
+    @Override
+    public T get() {
+        try {
+            return call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new McpMediatorException(e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,202 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import reactor.util.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded cache of recently delivered tool results keyed by their fingerprint.
+ * <p>
+ * The fingerprint is an ETag-like truncated SHA-256 hash of the serialized result. A client that supplies the
+ * fingerprint of the previous result of a tool gets either a "not modified" answer or a JSON Patch against the
+ * cached previous version. Since entries are addressed by the hash of their content, only a client that received a
+ * result can refer to it, so a single cache is shared by all the clients.
+ * <p>
+ * The cache keeps at most {@code capacity} results and {@link #MAX_CACHED_CHARACTERS} characters in total and evicts
+ * the least recently used results first. Results larger than a quarter of the total size are not cached.
+ *
+ * @author Matt Akbarian
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpResultCache {
+    public static final long MAX_CACHED_CHARACTERS = 32L * 1024 * 1024;
+    private static final int FINGERPRINT_BYTES = 16;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    int capacity;
+    Map<String, String> results;
+    @NonFinal
+    long cachedCharacters;
+
+    private McpResultCache(int capacity) {
+        this.capacity = capacity;
+        this.results = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @param capacity maximum number of cached results, {@code 0} disables the cache
+     * @return the result cache
+     */
+    @NonNull
+    public static McpResultCache of(int capacity) {
+        return new McpResultCache(capacity);
+    }
+
+    /**
+     * @return {@code true} if the results are cached
+     */
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * @param result the serialized result
+     * @return the fingerprint of the result
+     */
+    @NonNull
+    public static String fingerprint(@NonNull String result) {
+        try {
+            byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(result.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, FINGERPRINT_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new McpMediatorException(DIGEST_ALGORITHM + " is not supported by the JVM", e);
+        }
+    }
+
+    /**
+     * Caches the current result and decides how it is delivered to a client that holds the previous result of the
+     * given fingerprint: a "not modified" answer if the client already has the current result, a patch against the
+     * previous result if it is still cached and the patch is smaller than the current result, the current result
+     * otherwise. The previous result is looked up before the current one is cached so that caching the current result
+     * can't evict it.
+     *
+     * @param result      the current serialized result
+     * @param ifNoneMatch fingerprint of the previous result delivered to the client, if any
+     * @param differ      computes the patch that turns the previous result into the current one
+     * @return the fingerprint of the current result and what is sent to the client
+     * @throws IOException if the patch can't be computed
+     */
+    @NonNull
+    public Resolution resolve(@NonNull String result, @Nullable String ifNoneMatch, @NonNull Differ differ)
+            throws IOException {
+        String fingerprint = fingerprint(result);
+        if (fingerprint.equals(ifNoneMatch)) {
+            put(fingerprint, result);
+            return new Resolution(fingerprint, Status.NOT_MODIFIED, null);
+        }
+        Optional<String> previousResult = ifNoneMatch == null ? Optional.empty() : get(ifNoneMatch);
+        put(fingerprint, result);
+        String patch = previousResult.isPresent() ? differ.diff(previousResult.get(), result) : null;
+        if (patch != null && patch.length() < result.length()) {
+            return new Resolution(fingerprint, Status.PATCH, patch);
+        }
+        return new Resolution(fingerprint, Status.FULL, result);
+    }
+
+    /**
+     * Caches the result under its fingerprint.
+     *
+     * @param fingerprint the fingerprint of the result
+     * @param result      the serialized result
+     */
+    public void put(@NonNull String fingerprint, @NonNull String result) {
+        if (!isEnabled() || result.length() > MAX_CACHED_CHARACTERS / 4) {
+            return;
+        }
+        synchronized (results) {
+            String previous = results.put(fingerprint, result);
+            if (previous == null) {
+                cachedCharacters += result.length();
+            }
+            evict();
+        }
+    }
+
+    /**
+     * @param fingerprint the fingerprint of a previously delivered result
+     * @return the cached result
+     */
+    @NonNull
+    public Optional<String> get(@NonNull String fingerprint) {
+        synchronized (results) {
+            return Optional.ofNullable(results.get(fingerprint));
+        }
+    }
+
+    /**
+     * Removes all the cached results.
+     */
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+            cachedCharacters = 0;
+        }
+    }
+
+    private void evict() {
+        Iterator<String> iterator = results.values().iterator();
+        while ((results.size() > capacity || cachedCharacters > MAX_CACHED_CHARACTERS) && iterator.hasNext()) {
+            cachedCharacters -= iterator.next().length();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * How a result is delivered to a client that supplied the fingerprint of its previous result.
+     */
+    public enum Status {
+        /**
+         * The client already has the current result.
+         */
+        NOT_MODIFIED,
+
+        /**
+         * A JSON Patch against the previous result of the client is sent.
+         */
+        PATCH,
+
+        /**
+         * The whole current result is sent.
+         */
+        FULL;
+
+        /**
+         * @return the status as reported to the client
+         */
+        @NonNull
+        public String getValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Computes the patch that turns a previous result into the current one.
+     */
+    @FunctionalInterface
+    public interface Differ {
+        @NonNull
+        String diff(@NonNull String previousResult, @NonNull String currentResult) throws IOException;
+    }
+
+    /**
+     * @param fingerprint the fingerprint of the current result
+     * @param status      how the current result is delivered
+     * @param content     the current result or the patch, {@code null} if the result is not modified
+     */
+    public record Resolution(@NonNull String fingerprint, @NonNull Status status, @Nullable String content) {
+    }
+}
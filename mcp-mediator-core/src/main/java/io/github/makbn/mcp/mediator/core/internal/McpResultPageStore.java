@@ -0,0 +1,249 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.util.annotation.Nullable;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded server-side store of oversized tool results that are delivered to the client page by page.
+ * <p>
+ * A stored result is referenced by an opaque continuation token that identifies the result and the next page. Each
+ * page holds at most {@code pageSize} characters of the stored result, so the response size of every call is bounded
+ * by the page size no matter how large the result is. Page boundaries never split a surrogate pair. A result is
+ * removed once its last page is fetched.
+ * <p>
+ * The store keeps at most {@code capacity} results and evicts the least recently used one once it is full. Results
+ * that are not fetched within the time-to-live are evicted as well, {@link Duration#ZERO} keeps them until evicted by
+ * capacity.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpResultPageStore {
+    private static final int TOKEN_BYTES = 16;
+    private static final String TOKEN_PAGE_SEPARATOR = ".";
+
+    /**
+     * A single page of a paginated result.
+     *
+     * @param content           the page content
+     * @param page              one-based page number
+     * @param pages             total number of pages
+     * @param totalSize         total number of characters of the result
+     * @param continuationToken token of the next page, {@code null} if this is the last page
+     */
+    public record Page(@NonNull String content, int page, int pages, long totalSize,
+                       @Nullable String continuationToken) {
+
+        public boolean hasMore() {
+            return continuationToken != null;
+        }
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Entry {
+        String result;
+        /**
+         * Start offsets of the pages, followed by the result length.
+         */
+        int[] boundaries;
+        long expiresAt;
+
+        int pages() {
+            return boundaries.length - 1;
+        }
+    }
+
+    int pageSize;
+    int capacity;
+    long ttlNanos;
+    SecureRandom random = new SecureRandom();
+    Map<String, Entry> entries;
+    AtomicLong evictions = new AtomicLong();
+
+    private McpResultPageStore(int pageSize, int capacity, @NonNull Duration ttl) {
+        this.pageSize = pageSize;
+        this.capacity = capacity;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > McpResultPageStore.this.capacity;
+                if (evict) {
+                    evictions.incrementAndGet();
+                    log.debug("Evicting paginated result {} from the page store", eldest.getKey());
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * @param pageSize maximum number of characters of a page, {@code 0} disables the pagination
+     * @param capacity maximum number of paginated results kept at the same time
+     * @param ttl      time after which a result that is not fetched is evicted
+     * @return the page store
+     */
+    @NonNull
+    public static McpResultPageStore of(int pageSize, int capacity, @NonNull Duration ttl) {
+        return new McpResultPageStore(pageSize, capacity, ttl);
+    }
+
+    /**
+     * @return {@code true} if results are paginated
+     */
+    public boolean isEnabled() {
+        return pageSize > 0 && capacity > 0;
+    }
+
+    /**
+     * @param result the result text
+     * @return {@code true} if the result is larger than a single page
+     */
+    public boolean requiresPagination(@NonNull String result) {
+        return isEnabled() && result.length() > pageSize;
+    }
+
+    /**
+     * Stores the given result and returns its first page.
+     *
+     * @param result the result text
+     * @return the first page, holding the continuation token of the second page if there is any
+     */
+    @NonNull
+    public Page paginate(@NonNull String result) {
+        if (!requiresPagination(result)) {
+            return new Page(result, 1, 1, result.length(), null);
+        }
+        Entry entry = new Entry(result, boundariesOf(result), System.nanoTime() + ttlNanos);
+        String id = newId();
+        synchronized (entries) {
+            removeExpired();
+            entries.put(id, entry);
+        }
+        return pageOf(id, entry, 0);
+    }
+
+    /**
+     * Fetches the page referenced by the continuation token.
+     *
+     * @param continuationToken token returned with the previous page
+     * @return the page or empty if the token is unknown, expired or evicted
+     */
+    @NonNull
+    public Optional<Page> fetch(@NonNull String continuationToken) {
+        int separator = continuationToken.lastIndexOf(TOKEN_PAGE_SEPARATOR);
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        String id = continuationToken.substring(0, separator);
+        int pageIndex;
+        try {
+            pageIndex = Integer.parseInt(continuationToken.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+
+        Entry entry;
+        synchronized (entries) {
+            removeExpired();
+            entry = entries.get(id);
+            if (entry == null || pageIndex <= 0 || pageIndex >= entry.pages()) {
+                return Optional.empty();
+            }
+            if (pageIndex == entry.pages() - 1) {
+                // last page, the result is not needed anymore
+                entries.remove(id);
+            }
+        }
+        return Optional.of(pageOf(id, entry, pageIndex));
+    }
+
+    /**
+     * @return number of paginated results currently kept in the store
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return number of results evicted, due to the store capacity or expiration, before all their pages were fetched
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Removes all the stored results.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @NonNull
+    private static Page pageOf(String id, Entry entry, int pageIndex) {
+        String content = entry.result.substring(entry.boundaries[pageIndex], entry.boundaries[pageIndex + 1]);
+        int pages = entry.pages();
+        String continuationToken = pageIndex + 1 < pages ? id + TOKEN_PAGE_SEPARATOR + (pageIndex + 1) : null;
+        return new Page(content, pageIndex + 1, pages, entry.result.length(), continuationToken);
+    }
+
+    @NonNull
+    private int[] boundariesOf(String result) {
+        int length = result.length();
+        // a page may be one character shorter to keep a surrogate pair together
+        int[] boundaries = new int[length / Math.max(1, pageSize - 1) + 2];
+        int pages = 0;
+        int start = 0;
+        while (start < length) {
+            boundaries[pages++] = start;
+            int end = (int) Math.min((long) start + pageSize, length);
+            if (end < length && end - start > 1 && Character.isHighSurrogate(result.charAt(end - 1))) {
+                end--;
+            }
+            start = end;
+        }
+        boundaries[pages] = length;
+        return Arrays.copyOf(boundaries, pages + 1);
+    }
+
+    private void removeExpired() {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().expiresAt > 0) {
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    @NonNull
+    private String newId() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
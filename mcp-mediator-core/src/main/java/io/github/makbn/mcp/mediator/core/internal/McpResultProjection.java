@@ -0,0 +1,127 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Field projection requested by the client to shrink a tool result to the fields it actually needs.
+ * <p>
+ * A projection is a list of paths, given either as a comma separated string or as an array. Each path is either a
+ * JSON pointer ({@code /page/title}) or a dot separated path ({@code page.title}). Arrays are traversed
+ * transparently, so {@code results.title} keeps the {@code title} of every element of the {@code results} array.
+ * <p>
+ * The projection is applied by a Jackson {@link TokenFilter} while the result is being serialized, the full JSON
+ * representation of the result is never built. A result without any object to project, e.g. a scalar or an array of
+ * scalars, is kept unchanged.
+ *
+ * @author Matt Akbarian
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpResultProjection {
+    private static final String POINTER_PREFIX = "/";
+    private static final String PATH_SEPARATOR = ",";
+
+    @Getter
+    TokenFilter filter;
+
+    /**
+     * Parses the projection hint passed by the client.
+     *
+     * @param hint a comma separated string or a collection of paths
+     * @return the projection, or empty if the hint doesn't contain any path
+     * @throws McpMediatorException if the hint has an unsupported type
+     */
+    @NonNull
+    public static Optional<McpResultProjection> parse(@Nullable Object hint) {
+        List<String> paths = new ArrayList<>();
+        if (hint == null) {
+            return Optional.empty();
+        } else if (hint instanceof String value) {
+            paths.addAll(List.of(value.split(PATH_SEPARATOR)));
+        } else if (hint instanceof Collection<?> values) {
+            values.forEach(value -> paths.add(String.valueOf(value)));
+        } else {
+            throw new McpMediatorException("Result projection should be a string or an array of paths");
+        }
+
+        PathFilter root = new PathFilter(true);
+        paths.stream()
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .forEach(path -> root.add(split(path)));
+
+        return root.isIncludeAll() ? Optional.empty() : Optional.of(new McpResultProjection(root));
+    }
+
+    private static List<String> split(String path) {
+        List<String> segments = new ArrayList<>();
+        if (path.startsWith(POINTER_PREFIX)) {
+            for (String segment : path.substring(1).split(POINTER_PREFIX, -1)) {
+                segments.add(segment.replace("~1", "/").replace("~0", "~"));
+            }
+        } else {
+            segments.addAll(List.of(path.split("\\.")));
+        }
+        segments.removeIf(String::isEmpty);
+        return segments;
+    }
+
+    /**
+     * A node of the projection path tree. Nodes where a path ends include the whole value, other nodes only the
+     * children that are part of the projection. Only the root node keeps the scalars, the ones outside any object.
+     */
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class PathFilter extends TokenFilter {
+        boolean root;
+        Map<String, PathFilter> children = new HashMap<>();
+        @NonFinal
+        boolean terminal;
+
+        void add(List<String> segments) {
+            PathFilter node = this;
+            for (String segment : segments) {
+                node = node.children.computeIfAbsent(segment, key -> new PathFilter(false));
+            }
+            node.terminal = true;
+        }
+
+        boolean isIncludeAll() {
+            return terminal || children.isEmpty();
+        }
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            PathFilter child = children.get(name);
+            if (child == null) {
+                return null;
+            }
+            return child.isIncludeAll() ? TokenFilter.INCLUDE_ALL : child;
+        }
+
+        @Override
+        public TokenFilter includeElement(int index) {
+            return this;
+        }
+
+        @Override
+        protected boolean _includeScalar() {
+            return root;
+        }
+    }
+}
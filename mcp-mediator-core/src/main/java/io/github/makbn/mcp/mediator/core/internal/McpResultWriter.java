@@ -0,0 +1,201 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.util.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Serializes tool results into their textual JSON representation without intermediate segments.
+ * <p>
+ * The result is streamed by a Jackson generator directly into a character buffer borrowed from a small shared pool of
+ * at most {@link #POOL_SIZE} buffers of up to {@link #MAX_RETAINED_BUFFER_SIZE} characters, so the memory retained
+ * between calls stays bounded whatever the number of threads. A result fitting in a pooled buffer only allocates the
+ * final {@link String}, a larger one grows its own buffer that is dropped afterward. In both cases the result is on
+ * the heap twice while the {@link String} is created, unlike {@link ObjectMapper#writeValueAsString(Object)} that
+ * also collects the result in segments and concatenates them.
+ * <p>
+ * An optional limit stops the serialization as soon as the result grows beyond the given number of characters, and an
+ * optional {@link McpResultProjection} drops the fields the client is not interested in while writing.
+ *
+ * @author Matt Akbarian
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpResultWriter {
+    public static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    public static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    public static final int POOL_SIZE = 16;
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+    private static final String EMPTY_PROJECTION = "{}";
+    private static final BlockingQueue<char[]> BUFFERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /**
+     * Thrown when a result grows beyond the requested limit.
+     */
+    public static final class ResultLimitExceededException extends McpMediatorException {
+        public ResultLimitExceededException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    ObjectMapper mapper;
+    ObjectWriter writer;
+
+    /**
+     * @param mapper the mapper used to serialize the results
+     * @return a new result writer
+     */
+    @NonNull
+    public static McpResultWriter of(@NonNull ObjectMapper mapper) {
+        return new McpResultWriter(mapper, mapper.writer());
+    }
+
+    /**
+     * Serializes the given value without any size limit.
+     *
+     * @param value the value to serialize
+     * @return the JSON representation of the value
+     * @throws IOException if the serialization fails
+     */
+    @NonNull
+    public String writeAsString(@NonNull Object value) throws IOException {
+        return writeAsString(value, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Serializes the given value, failing as soon as the output grows beyond the given limit.
+     *
+     * @param value      the value to serialize
+     * @param limit      maximum number of characters of the output
+     * @param projection optional projection to apply to the value while writing
+     * @return the JSON representation of the value
+     * @throws IOException                  if the serialization fails
+     * @throws ResultLimitExceededException if the output exceeds the limit
+     */
+    @NonNull
+    public String writeAsString(@NonNull Object value, long limit, @Nullable McpResultProjection projection)
+            throws IOException {
+        PooledCharWriter output = new PooledCharWriter(limit);
+        try {
+            try (JsonGenerator generator = createGenerator(output, projection)) {
+                writer.writeValue(generator, value);
+            } catch (IOException e) {
+                if (output.isLimitExceeded()) {
+                    throw new ResultLimitExceededException(
+                            String.format("Result exceeds the limit of %d characters", limit), e);
+                }
+                throw e;
+            }
+            if (projection != null && output.isEmpty()) {
+                // nothing matched the projection
+                return EMPTY_PROJECTION;
+            }
+            return output.toString();
+        } finally {
+            output.release();
+        }
+    }
+
+    @NonNull
+    private JsonGenerator createGenerator(@NonNull Writer output, @Nullable McpResultProjection projection)
+            throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(output);
+        if (projection == null) {
+            return generator;
+        }
+        return new FilteringGeneratorDelegate(generator, projection.getFilter(),
+                TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true);
+    }
+
+    /**
+     * Growable character buffer borrowed from the pool and given back once released, if the pool isn't full.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class PooledCharWriter extends Writer {
+        final long limit;
+        char[] buffer;
+        int count;
+        @Getter
+        boolean limitExceeded;
+
+        PooledCharWriter(long limit) {
+            this.limit = limit;
+            char[] pooled = BUFFERS.poll();
+            this.buffer = pooled != null ? pooled : new char[INITIAL_BUFFER_SIZE];
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            ensureCapacity(1);
+            buffer[count++] = (char) c;
+        }
+
+        @Override
+        public void write(@NonNull char[] chars, int offset, int length) throws IOException {
+            ensureCapacity(length);
+            System.arraycopy(chars, offset, buffer, count, length);
+            count += length;
+        }
+
+        @Override
+        public void write(@NonNull String str, int offset, int length) throws IOException {
+            ensureCapacity(length);
+            str.getChars(offset, offset + length, buffer, count);
+            count += length;
+        }
+
+        private void ensureCapacity(int length) throws IOException {
+            long required = (long) count + length;
+            if (required > limit) {
+                limitExceeded = true;
+                throw new IOException(String.format("Result exceeds the limit of %d characters", limit));
+            } else if (required > MAX_BUFFER_SIZE) {
+                throw new IOException("Result is too large to be serialized");
+            } else if (required > buffer.length) {
+                long grown = Math.max(required, (long) buffer.length << 1);
+                buffer = Arrays.copyOf(buffer, (int) Math.min(grown, Math.min(limit, MAX_BUFFER_SIZE)));
+            }
+        }
+
+        @Override
+        public void flush() {
+            // in memory, nothing to flush
+        }
+
+        @Override
+        public void close() {
+            // in memory, nothing to close, the buffer is given back by release()
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, 0, count);
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        void release() {
+            if (buffer != null && buffer.length <= MAX_RETAINED_BUFFER_SIZE) {
+                BUFFERS.offer(buffer);
+            }
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.module.jsonSchema.JsonSchemaGenerator;
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of the JSON schemas of the complex tool argument types, shared by all the tools.
+ * <p>
+ * The schema of a type is generated once per mapper by the Jackson schema generator, whatever the number of tools
+ * using the type. The schemas are then assembled per tool schema by a {@link Document}: every object type is factored
+ * into the {@code $defs} of the tool schema and referenced with a {@code $ref}, so a type used by several arguments or
+ * nested in several types is described only once. The types used only once are inlined back, and the internal
+ * {@code urn:jsonschema} identifiers of the generator are dropped, keeping the schemas of simple tools as they were.
+ *
+ * @author Matt Akbarian
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpSchemaCache {
+    public static final String DEFS_KEY = "$defs";
+    public static final String REF_KEY = "$ref";
+    private static final String DEFS_PREFIX = "#/" + DEFS_KEY + "/";
+    private static final String ID_KEY = "id";
+    private static final String URN_PREFIX = "urn:jsonschema:";
+    private static final String TYPE_KEY = "type";
+    private static final String OBJECT = "object";
+    private static final Map<ObjectMapper, McpSchemaCache> CACHES = new ConcurrentHashMap<>();
+
+    ObjectMapper mapper;
+    JsonSchemaGenerator generator;
+    Map<Class<?>, ObjectNode> schemas = new ConcurrentHashMap<>();
+    Map<Class<?>, String> rootSchemas = new ConcurrentHashMap<>();
+
+    /**
+     * @param mapper the mapper the schemas are generated for
+     * @return the schema cache of the mapper
+     */
+    @NonNull
+    public static McpSchemaCache of(@NonNull ObjectMapper mapper) {
+        return CACHES.computeIfAbsent(mapper, key -> new McpSchemaCache(key, new JsonSchemaGenerator(key)));
+    }
+
+    /**
+     * @return a new schema document, to be {@link Document#complete(ObjectNode) completed} with the tool schema
+     */
+    @NonNull
+    public Document newDocument() {
+        return new Document();
+    }
+
+    /**
+     * Generates the schema of a type used as a whole tool input, e.g. a request class.
+     *
+     * @param type the input type
+     * @return the JSON string of the schema, computed once per type
+     * @throws McpMediatorException if the schema can't be generated
+     */
+    @NonNull
+    public String toSchema(@NonNull Class<?> type) {
+        return rootSchemas.computeIfAbsent(type, key -> {
+            Document document = newDocument();
+            ObjectNode schema = document.complete(document.describe(key));
+            if (schema.has(REF_KEY)) {
+                // a recursive input type stays a reference, the tool input is still declared as an object
+                schema = mapper.createObjectNode().put(TYPE_KEY, OBJECT).setAll(schema);
+            }
+            try {
+                return mapper.writeValueAsString(schema);
+            } catch (JsonProcessingException e) {
+                throw new McpMediatorException("Failed to serialize the schema of " + key.getName(), e);
+            }
+        });
+    }
+
+    private ObjectNode getSchema(Class<?> type) {
+        return schemas.computeIfAbsent(type, key -> {
+            try {
+                return mapper.valueToTree(generator.generateSchema(key));
+            } catch (JsonMappingException e) {
+                throw new McpMediatorException("Failed to generate the schema of " + key.getName(), e);
+            }
+        });
+    }
+
+    /**
+     * Schema of a single tool, collecting the definitions of the types it uses.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public final class Document {
+        Map<String, String> names = new HashMap<>();
+        Set<String> usedNames = new HashSet<>();
+        Map<String, ObjectNode> definitions = new LinkedHashMap<>();
+        Map<String, List<ObjectNode>> references = new HashMap<>();
+
+        private Document() {
+        }
+
+        /**
+         * Describes a type, its definition and the definitions of its nested types are added to the document.
+         *
+         * @param type the complex type
+         * @return the schema of the type, a reference to its definition that may be extended with other keywords
+         * @throws McpMediatorException if the schema can't be generated
+         */
+        @NonNull
+        public ObjectNode describe(@NonNull Class<?> type) {
+            JsonNode schema = factor(getSchema(type).deepCopy());
+            return schema instanceof ObjectNode objectNode ? objectNode : mapper.createObjectNode();
+        }
+
+        /**
+         * Adds the definitions to the tool schema, the definitions referenced only once are inlined instead.
+         *
+         * @param root the tool schema
+         * @return the tool schema
+         */
+        @NonNull
+        public ObjectNode complete(@NonNull ObjectNode root) {
+            Map<String, ObjectNode> shared = new LinkedHashMap<>();
+            definitions.forEach((name, definition) -> {
+                List<ObjectNode> nodes = references.get(name);
+                if (nodes.size() == 1) {
+                    inline(nodes.get(0), definition);
+                } else {
+                    shared.put(name, definition);
+                }
+            });
+            if (!shared.isEmpty()) {
+                ObjectNode defs = root.putObject(DEFS_KEY);
+                shared.forEach(defs::set);
+            }
+            return root;
+        }
+
+        private JsonNode factor(JsonNode node) {
+            if (node instanceof ObjectNode objectNode) {
+                JsonNode id = objectNode.get(ID_KEY);
+                JsonNode ref = objectNode.get(REF_KEY);
+                if (id != null && id.isTextual() && id.asText().startsWith(URN_PREFIX)) {
+                    String name = nameOf(id.asText());
+                    if (!definitions.containsKey(name)) {
+                        // registered before its properties, so recursive types reference it
+                        definitions.put(name, objectNode);
+                        objectNode.remove(ID_KEY);
+                        factorChildren(objectNode);
+                    }
+                    return reference(name);
+                } else if (ref != null && ref.isTextual() && ref.asText().startsWith(URN_PREFIX)) {
+                    return reference(nameOf(ref.asText()));
+                }
+                factorChildren(objectNode);
+            } else if (node instanceof ArrayNode arrayNode) {
+                for (int i = 0; i < arrayNode.size(); i++) {
+                    arrayNode.set(i, factor(arrayNode.get(i)));
+                }
+            }
+            return node;
+        }
+
+        private void factorChildren(ObjectNode node) {
+            List<String> fields = new ArrayList<>();
+            node.fieldNames().forEachRemaining(fields::add);
+            fields.forEach(field -> node.set(field, factor(node.get(field))));
+        }
+
+        private ObjectNode reference(String name) {
+            ObjectNode reference = mapper.createObjectNode().put(REF_KEY, DEFS_PREFIX + name);
+            references.computeIfAbsent(name, key -> new ArrayList<>()).add(reference);
+            return reference;
+        }
+
+        private String nameOf(String urn) {
+            return names.computeIfAbsent(urn, key -> {
+                String simpleName = key.substring(key.lastIndexOf(':') + 1);
+                String name = simpleName.isEmpty() ? "Type" : simpleName;
+                for (int i = 2; !usedNames.add(name); i++) {
+                    name = simpleName + "_" + i;
+                }
+                return name;
+            });
+        }
+
+        private void inline(ObjectNode reference, ObjectNode definition) {
+            // keywords added next to the reference, e.g. a description, take precedence
+            Map<String, JsonNode> keywords = new LinkedHashMap<>();
+            reference.fields().forEachRemaining(field -> keywords.put(field.getKey(), field.getValue()));
+            reference.removeAll();
+            reference.setAll(definition);
+            keywords.remove(REF_KEY);
+            keywords.forEach(reference::set);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import io.github.makbn.mcp.mediator.api.McpService;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Provides the service instances the tool calls of an {@link McpService} are dispatched to, according to the
+ * {@link McpService.Scope scope} of the service.
+ * <p>
+ * Every call {@link #borrow() borrows} an instance and {@link #release(Object) releases} it once the tool method
+ * returned. A singleton service lends the same instance to all the calls. A pooled service lends each instance to one
+ * call at a time, so the throughput scales with the pool size instead of being serialized by a lock in the service.
+ * A per-call service creates a new instance for every call.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+public abstract class McpServiceInstances {
+
+    /**
+     * @return the instance handling the current call
+     * @throws McpMediatorException if no instance can be created, or none is returned to the pool within the pool
+     *                              timeout, or the thread is interrupted while waiting for one
+     */
+    @NonNull
+    public abstract Object borrow();
+
+    /**
+     * Returns the instance once the call is done.
+     *
+     * @param instance the instance returned by {@link #borrow()}
+     */
+    public abstract void release(@NonNull Object instance);
+
+    /**
+     * Drops the instances that are not handling a call, closing the {@link AutoCloseable} ones. Dropped instances are
+     * recreated on demand. The service instance given by the caller is owned by the caller, it's neither dropped nor
+     * closed.
+     *
+     * @return {@code false} if some instances are still handling a call and could not be dropped yet
+     */
+    public boolean releaseIdle() {
+        return true;
+    }
+
+    /**
+     * @param scope    the scope of the service
+     * @param poolSize    the maximum number of pooled instances, the number of available processors if not positive
+     * @param poolTimeout the maximum time a call waits for a pooled instance, the call fails right away if not
+     *                    positive
+     * @param service     the service instance, the only instance of a singleton and the first instance of a pool
+     * @param supplier    the factory of the new instances
+     * @return the instances of the service
+     */
+    @NonNull
+    public static McpServiceInstances of(@NonNull McpService.Scope scope, int poolSize, @NonNull Duration poolTimeout,
+                                         @NonNull Object service, @NonNull Supplier<?> supplier) {
+        return switch (scope) {
+            case SINGLETON -> new Singleton(service);
+            case POOLED -> new Pooled(supplier, poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors(),
+                    poolTimeout.isNegative() ? Duration.ZERO : poolTimeout, service);
+            case PER_CALL -> new PerCall(supplier);
+        };
+    }
+
+    private static Object create(Supplier<?> supplier) {
+        Object instance = supplier.get();
+        if (instance == null) {
+            throw new McpMediatorException("The service instance supplier returned null");
+        }
+        return instance;
+    }
+
+    private static void close(Object instance) {
+        if (instance instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Failed to close the service instance {}", instance, e);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Singleton extends McpServiceInstances {
+        Object service;
+
+        @Override
+        public Object borrow() {
+            return service;
+        }
+
+        @Override
+        public void release(Object instance) {
+            // the instance is shared by all the calls
+        }
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class PerCall extends McpServiceInstances {
+        Supplier<?> supplier;
+
+        @Override
+        public Object borrow() {
+            return create(supplier);
+        }
+
+        @Override
+        public void release(Object instance) {
+            close(instance);
+        }
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Pooled extends McpServiceInstances {
+        Supplier<?> supplier;
+        int size;
+        Duration timeout;
+        Object service;
+        Semaphore permits;
+        // LIFO, the most recently used instances are kept warm and the others can be released when idle
+        Deque<Object> idle = new ConcurrentLinkedDeque<>();
+
+        Pooled(Supplier<?> supplier, int size, Duration timeout, Object service) {
+            this.supplier = supplier;
+            this.size = size;
+            this.timeout = timeout;
+            this.service = service;
+            this.permits = new Semaphore(size);
+            this.idle.push(service);
+        }
+
+        @Override
+        public Object borrow() {
+            try {
+                if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw new McpMediatorException(String.format("No instance of the service %s was available in %d "
+                                    + "ms, all the %d pooled instances are busy", service.getClass().getName(),
+                            timeout.toMillis(), size));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new McpMediatorException("Interrupted while waiting for a service instance", e);
+            }
+            Object instance = idle.pollFirst();
+            if (instance != null) {
+                return instance;
+            }
+            try {
+                return create(supplier);
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public void release(Object instance) {
+            idle.push(instance);
+            permits.release();
+        }
+
+        @Override
+        public boolean releaseIdle() {
+            Object instance;
+            boolean serviceIdle = false;
+            while ((instance = idle.pollLast()) != null) {
+                if (instance == service) {
+                    serviceIdle = true;
+                } else {
+                    close(instance);
+                }
+            }
+            if (serviceIdle) {
+                idle.push(service);
+            }
+            return permits.availablePermits() == size;
+        }
+    }
+}
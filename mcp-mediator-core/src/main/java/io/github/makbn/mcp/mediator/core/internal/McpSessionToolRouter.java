@@ -0,0 +1,180 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Lists and routes the tools per session, for the mediators exposing large or partitioned tool catalogs.
+ * <p>
+ * The MCP server of the SDK answers {@code tools/list} with all the tools at once, ignores the cursor and finds the
+ * called tools among all of them. This transport provider decorates the sessions of the server: the catalog of a
+ * session is chosen from its {@code initialize} request, e.g. after the client name or the requested profile, then
+ * the {@code tools/list} requests are answered page by page from that {@link McpToolCatalog}. The sessions with a
+ * dedicated catalog also have their {@code tools/call} requests routed by the catalog, so they can only call its tools
+ * and the routing cost depends on the catalog size. The other messages are handled by the server as usual.
+ * <p>
+ * An unknown cursor is rejected with an invalid params error, as required by the specification, and so is a call of
+ * a tool outside the catalog of the session.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@RequiredArgsConstructor(staticName = "of")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpSessionToolRouter implements McpServerTransportProvider {
+    /**
+     * Entry of the mediator experimental client capability, see {@link McpWireEncoding#CAPABILITY}, holding the name of
+     * the tool profile requested by the client.
+     */
+    public static final String TOOL_PROFILE = "tool_profile";
+    private static final String CURSOR_KEY = "cursor";
+
+    McpServerTransportProvider delegate;
+    /**
+     * The catalog of the sessions not asking for a specific one.
+     */
+    McpToolCatalog defaultCatalog;
+    /**
+     * Chooses the catalog of a session from its initialize request.
+     */
+    Function<McpSchema.InitializeRequest, McpToolCatalog> catalogSelector;
+    int pageSize;
+
+    @Override
+    public void setSessionFactory(@NonNull McpServerSession.Factory sessionFactory) {
+        delegate.setSessionFactory(transport -> new RoutedSession(sessionFactory.create(transport), transport));
+    }
+
+    @Override
+    public Mono<Void> notifyClients(String method, Object params) {
+        return delegate.notifyClients(method, params);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public Mono<Void> closeGracefully() {
+        return delegate.closeGracefully();
+    }
+
+    /**
+     * Session answering {@code tools/list}, and {@code tools/call} for a dedicated catalog, and delegating everything
+     * else to the session of the server.
+     */
+    private final class RoutedSession extends McpServerSession {
+        private final McpServerSession session;
+        private final McpServerTransport transport;
+        private volatile McpToolCatalog catalog = defaultCatalog;
+        private volatile McpAsyncServerExchange exchange;
+
+        private RoutedSession(McpServerSession session, McpServerTransport transport) {
+            super(session.getId(), transport, null, null, Map.of(), Map.of());
+            this.session = session;
+            this.transport = transport;
+        }
+
+        @Override
+        public String getId() {
+            return session.getId();
+        }
+
+        @Override
+        public Mono<Void> handle(McpSchema.JSONRPCMessage message) {
+            if (message instanceof McpSchema.JSONRPCRequest request) {
+                if (McpSchema.METHOD_INITIALIZE.equals(request.method())) {
+                    selectCatalog(request);
+                } else if (McpSchema.METHOD_TOOLS_LIST.equals(request.method())) {
+                    return transport.sendMessage(listTools(request));
+                } else if (McpSchema.METHOD_TOOLS_CALL.equals(request.method()) && catalog != defaultCatalog) {
+                    return callTool(request).flatMap(transport::sendMessage);
+                }
+            }
+            return session.handle(message);
+        }
+
+        private void selectCatalog(McpSchema.JSONRPCRequest request) {
+            try {
+                McpSchema.InitializeRequest initializeRequest = transport.unmarshalFrom(request.params(),
+                        new TypeReference<>() {
+                        });
+                catalog = catalogSelector.apply(initializeRequest);
+                exchange = new McpAsyncServerExchange(session, initializeRequest.capabilities(),
+                        initializeRequest.clientInfo());
+                log.debug("Session {} uses the {} tool catalog", getId(), catalog.getName());
+            } catch (RuntimeException e) {
+                log.warn("Failed to select the tool catalog of the session {}, using the default one", getId(), e);
+                catalog = defaultCatalog;
+            }
+        }
+
+        private McpSchema.JSONRPCResponse listTools(McpSchema.JSONRPCRequest request) {
+            try {
+                Object cursor = request.params() instanceof Map<?, ?> params ? params.get(CURSOR_KEY) : null;
+                return new McpSchema.JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.id(),
+                        catalog.list(cursor == null ? null : cursor.toString(), pageSize), null);
+            } catch (IllegalArgumentException e) {
+                log.debug("Rejected the tools/list request {}", request.id(), e);
+                return error(request, McpSchema.ErrorCodes.INVALID_PARAMS, "Invalid cursor");
+            }
+        }
+
+        private Mono<McpSchema.JSONRPCResponse> callTool(McpSchema.JSONRPCRequest request) {
+            McpSchema.CallToolRequest callRequest;
+            try {
+                callRequest = transport.unmarshalFrom(request.params(), new TypeReference<>() {
+                });
+            } catch (IllegalArgumentException e) {
+                return Mono.just(error(request, McpSchema.ErrorCodes.INVALID_PARAMS, "Invalid tool call"));
+            }
+            return catalog.findCall(callRequest.name())
+                    .map(call -> Mono.defer(() -> call.apply(exchange, callRequest.arguments()))
+                            .map(result -> new McpSchema.JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.id(),
+                                    result, null))
+                            .onErrorResume(e -> Mono.just(error(request, McpSchema.ErrorCodes.INTERNAL_ERROR,
+                                    String.valueOf(e.getMessage())))))
+                    .orElseGet(() -> Mono.just(error(request, McpSchema.ErrorCodes.INVALID_PARAMS,
+                            "Unknown tool: " + callRequest.name())));
+        }
+
+        private McpSchema.JSONRPCResponse error(McpSchema.JSONRPCRequest request, int code, String message) {
+            return new McpSchema.JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.id(), null,
+                    new McpSchema.JSONRPCResponse.JSONRPCError(code, message, null));
+        }
+
+        @Override
+        public <T> Mono<T> sendRequest(String method, Object requestParams, TypeReference<T> typeRef) {
+            return session.sendRequest(method, requestParams, typeRef);
+        }
+
+        @Override
+        public Mono<Void> sendNotification(String method, Object params) {
+            return session.sendNotification(method, params);
+        }
+
+        @Override
+        public Mono<Void> closeGracefully() {
+            return session.closeGracefully();
+        }
+
+        @Override
+        public void close() {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Support of the streamed results returned by the request handlers and the service tool methods.
+ * <p>
+ * A handler may return a {@link Stream}, an {@link Iterator}, a {@link Flow.Publisher} or a Reactor {@link Flux}. By
+ * default, the elements are collected and the result is returned like any other result, paginated if it's large. A
+ * client {@link #requestsStreaming(McpToolCallArguments) requesting} the streaming doesn't have the result collected in
+ * memory: the elements are forwarded to the client in chunks as they are produced and the source is only pulled as the
+ * chunks are sent, so a call buffers a couple of chunks at most whatever the size of the result. Results fitting in a
+ * single chunk are not forwarded but returned as a regular list, so short results keep their usual shape.
+ *
+ * @author Matt Akbarian
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class McpStreamingResults {
+
+    /**
+     * Outcome of a forwarded result.
+     *
+     * @param elements        all the elements of a result fitting in a single chunk, {@code null} if it was forwarded
+     * @param forwardedCount  the number of forwarded elements
+     * @param forwardedChunks the number of forwarded chunks
+     */
+    public record Outcome(@Nullable List<Object> elements, long forwardedCount, int forwardedChunks) {
+
+        /**
+         * @return {@code true} if the elements were forwarded in chunks instead of being returned
+         */
+        public boolean isForwarded() {
+            return elements == null;
+        }
+    }
+
+    /**
+     * @param result the value returned by a handler
+     * @return {@code true} if the value is a stream of elements to be forwarded
+     */
+    public static boolean isStreaming(Object result) {
+        return result instanceof Stream<?> || result instanceof Iterator<?> || result instanceof Flow.Publisher<?>
+                || result instanceof Flux<?>;
+    }
+
+    /**
+     * @param arguments the tool call arguments
+     * @return {@code true} if the caller asked for the streamed results to be forwarded in chunks
+     */
+    public static boolean requestsStreaming(@NonNull McpToolCallArguments arguments) {
+        return arguments.getHint(McpToolCallArguments.STREAM_HINT)
+                .map(value -> Boolean.parseBoolean(String.valueOf(value)))
+                .orElse(false);
+    }
+
+    /**
+     * Runs the action once the streamed result is exhausted, closed, cancelled or failed. The returned result is of
+     * the same kind as the given one, e.g. a {@link Stream} stays a {@link Stream} for the callers of the handler,
+     * which have to exhaust or close it.
+     *
+     * @param result the streamed result, see {@link #isStreaming(Object)}
+     * @param action the action, run at most once
+     * @return the result running the action on termination
+     */
+    @NonNull
+    public static Object doOnTermination(@NonNull Object result, @NonNull Runnable action) {
+        AtomicBoolean done = new AtomicBoolean();
+        Runnable once = () -> {
+            if (done.compareAndSet(false, true)) {
+                action.run();
+            }
+        };
+        if (result instanceof Stream<?> stream) {
+            return StreamSupport.stream(new TerminatingSpliterator<>(stream.spliterator(), once), false)
+                    .onClose(() -> {
+                        try {
+                            stream.close();
+                        } finally {
+                            once.run();
+                        }
+                    });
+        } else if (result instanceof Iterator<?> iterator) {
+            return new TerminatingIterator<>(iterator, once);
+        } else if (result instanceof Flux<?> flux) {
+            return flux.doFinally(signal -> once.run());
+        } else if (result instanceof Flow.Publisher<?> publisher) {
+            return JdkFlowAdapter.publisherToFlowPublisher(JdkFlowAdapter.flowPublisherToFlux(publisher)
+                    .doFinally(signal -> once.run()));
+        }
+        once.run();
+        return result;
+    }
+
+    /**
+     * Forwards the elements of a streamed result in chunks.
+     *
+     * @param result    the streamed result, see {@link #isStreaming(Object)}
+     * @param chunkSize the number of elements per chunk
+     * @param forwarder sends a chunk to the client, the next chunk is produced once the returned {@link Mono} completes
+     * @return the outcome of the forwarding, once the result is exhausted
+     */
+    @NonNull
+    public static Mono<Outcome> forward(@NonNull Object result, int chunkSize,
+                                        @NonNull Function<List<Object>, Mono<Void>> forwarder) {
+        return Mono.defer(() -> {
+            // the last chunk is held back, a result made of a single chunk is returned instead of being forwarded
+            AtomicReference<List<Object>> pending = new AtomicReference<>();
+            AtomicLong forwardedCount = new AtomicLong();
+            AtomicInteger forwardedChunks = new AtomicInteger();
+            Function<List<Object>, Mono<Void>> send = chunk -> forwarder.apply(chunk)
+                    .doOnSuccess(ignored -> {
+                        forwardedCount.addAndGet(chunk.size());
+                        forwardedChunks.incrementAndGet();
+                    });
+            return toFlux(result)
+                    .buffer(chunkSize)
+                    .concatMap(chunk -> {
+                        List<Object> previous = pending.getAndSet(chunk);
+                        return previous == null ? Mono.<Void>empty() : send.apply(previous);
+                    }, 1)
+                    .then(Mono.defer(() -> {
+                        List<Object> last = pending.get();
+                        if (forwardedChunks.get() == 0) {
+                            return Mono.just(new Outcome(last == null ? List.of() : last, 0, 0));
+                        }
+                        return send.apply(last)
+                                .then(Mono.fromSupplier(() ->
+                                        new Outcome(null, forwardedCount.get(), forwardedChunks.get())));
+                    }));
+        });
+    }
+
+    /**
+     * @param result the streamed result, see {@link #isStreaming(Object)}
+     * @return the elements of the result, a {@link Stream} is closed once exhausted or if the call fails
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static Flux<Object> toFlux(@NonNull Object result) {
+        if (result instanceof Stream<?> stream) {
+            return Flux.fromStream((Stream<Object>) stream);
+        } else if (result instanceof Iterator<?> iterator) {
+            return Flux.fromIterable(() -> (Iterator<Object>) iterator);
+        } else if (result instanceof Flux<?> flux) {
+            return (Flux<Object>) flux;
+        } else if (result instanceof Flow.Publisher<?> publisher) {
+            return JdkFlowAdapter.flowPublisherToFlux((Flow.Publisher<Object>) publisher);
+        }
+        return Flux.just(result);
+    }
+
+    /**
+     * Runs the action once the source has no more elements. Not split, so the action runs after all the elements.
+     */
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class TerminatingSpliterator<T> implements Spliterator<T> {
+        Spliterator<T> source;
+        Runnable action;
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> consumer) {
+            boolean advanced = source.tryAdvance(consumer);
+            if (!advanced) {
+                action.run();
+            }
+            return advanced;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> consumer) {
+            source.forEachRemaining(consumer);
+            action.run();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * Runs the action once the source has no more elements.
+     */
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class TerminatingIterator<T> implements Iterator<T> {
+        Iterator<T> source;
+        Runnable action;
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = source.hasNext();
+            if (!hasNext) {
+                action.run();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            return source.next();
+        }
+
+        @Override
+        public void remove() {
+            source.remove();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.util.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Splits the arguments of a tool call into the actual tool arguments and the mediator hints.
+ * <p>
+ * Hints are passed by the client either as reserved top-level arguments prefixed with {@code _} (e.g.
+ * {@code "_fields": "name,url"}) or inside the reserved {@code _meta} argument object (e.g.
+ * {@code "_meta": {"fields": "name,url"}}). Reserved arguments are removed before the arguments are bound to the
+ * request, so the request types never see them.
+ *
+ * @author Matt Akbarian
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpToolCallArguments {
+    public static final String META_ARGUMENT = "_meta";
+    public static final String RESERVED_PREFIX = "_";
+
+    /**
+     * Result projection, see {@link McpResultProjection}.
+     */
+    public static final String FIELDS_HINT = "fields";
+    /**
+     * Requests the fingerprint of the result, see {@link McpResultCache}.
+     */
+    public static final String FINGERPRINT_HINT = "fingerprint";
+    /**
+     * Fingerprint of the previously delivered result, see {@link McpResultCache}.
+     */
+    public static final String IF_NONE_MATCH_HINT = "if_none_match";
+
+    /**
+     * Encoding of the result requested by another mediator, see {@link McpWireEncoding}.
+     */
+    public static final String ENCODING_HINT = "encoding";
+
+    /**
+     * Requests a streamed result to be forwarded in chunks, see {@link McpStreamingResults}.
+     */
+    public static final String STREAM_HINT = "stream";
+
+    private static final Set<String> HINTS = Set.of(FIELDS_HINT, FINGERPRINT_HINT, IF_NONE_MATCH_HINT, ENCODING_HINT,
+            STREAM_HINT);
+
+    /**
+     * The tool arguments without the reserved arguments.
+     */
+    Map<String, Object> arguments;
+    /**
+     * The hints passed by the client.
+     */
+    Map<String, Object> hints;
+
+    /**
+     * @param arguments the arguments passed by the client
+     * @return the arguments split into tool arguments and hints
+     */
+    @NonNull
+    public static McpToolCallArguments of(@Nullable Map<String, Object> arguments) {
+        if (arguments == null || arguments.isEmpty()) {
+            return new McpToolCallArguments(Collections.emptyMap(), Collections.emptyMap());
+        }
+        if (!containsReservedArgument(arguments)) {
+            return new McpToolCallArguments(arguments, Collections.emptyMap());
+        }
+
+        Map<String, Object> toolArguments = new HashMap<>(arguments);
+        Map<String, Object> hints = new HashMap<>();
+        if (toolArguments.remove(META_ARGUMENT) instanceof Map<?, ?> meta) {
+            meta.forEach((key, value) -> {
+                if (HINTS.contains(String.valueOf(key))) {
+                    hints.put(String.valueOf(key), value);
+                }
+            });
+        }
+        HINTS.forEach(hint -> {
+            Object value = toolArguments.remove(RESERVED_PREFIX + hint);
+            if (value != null) {
+                hints.put(hint, value);
+            }
+        });
+        return new McpToolCallArguments(toolArguments, hints);
+    }
+
+    /**
+     * @param name the hint name without the reserved prefix
+     * @return the hint value if passed by the client
+     */
+    @NonNull
+    public Optional<Object> getHint(@NonNull String name) {
+        return Optional.ofNullable(hints.get(name));
+    }
+
+    private static boolean containsReservedArgument(Map<String, Object> arguments) {
+        if (arguments.containsKey(META_ARGUMENT)) {
+            return true;
+        }
+        for (String hint : HINTS) {
+            if (arguments.containsKey(RESERVED_PREFIX + hint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
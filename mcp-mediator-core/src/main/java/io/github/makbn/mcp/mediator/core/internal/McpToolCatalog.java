@@ -0,0 +1,167 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiFunction;
+
+/**
+ * Set of tools exposed to a session, e.g. all the tools of the mediator or the tools of a client profile.
+ * <p>
+ * A catalog keeps the tools it lists sorted by name and the calls of all its tools keyed by name. It is maintained
+ * incrementally as the tools are registered and removed, so listing the tools and routing a call only depend on the
+ * size of the catalog. The first page of the listing is computed once and reused until the catalog changes.
+ * <p>
+ * The listing is paginated with cursors holding the name of the last tool of the previous page, the next page
+ * starts right after it. The pages stay consistent while the catalog changes without any state kept on the server:
+ * no tool is listed twice and the tools that are not removed are never skipped.
+ *
+ * @author Matt Akbarian
+ * @see <a href="https://modelcontextprotocol.io/specification/2025-03-26/server/utilities/pagination">MCP Pagination</a>
+ */
+@RequiredArgsConstructor(staticName = "of")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpToolCatalog {
+    private static final String CURSOR_PREFIX = "v1:";
+
+    /**
+     * The catalog name, e.g. the profile name.
+     */
+    @Getter
+    String name;
+    NavigableMap<String, McpSchema.Tool> listedTools = new ConcurrentSkipListMap<>();
+    Map<String, BiFunction<McpAsyncServerExchange, Map<String, Object>, Mono<McpSchema.CallToolResult>>> calls =
+            new ConcurrentHashMap<>();
+    @NonFinal
+    volatile FirstPage firstPage;
+
+    /**
+     * Adds a tool to the catalog, replacing the tool of the same name if any.
+     *
+     * @param tool   the tool
+     * @param call   the call of the tool
+     * @param listed {@code true} if the tool is listed, an unlisted tool can still be called
+     */
+    public synchronized void put(@NonNull McpSchema.Tool tool,
+                    @NonNull BiFunction<McpAsyncServerExchange, Map<String, Object>, Mono<McpSchema.CallToolResult>> call,
+                    boolean listed) {
+        calls.put(tool.name(), call);
+        if (listed) {
+            listedTools.put(tool.name(), tool);
+        } else {
+            listedTools.remove(tool.name());
+        }
+        firstPage = null;
+    }
+
+    /**
+     * @param name the name of the tool to remove
+     */
+    public synchronized void remove(@NonNull String name) {
+        calls.remove(name);
+        listedTools.remove(name);
+        firstPage = null;
+    }
+
+    /**
+     * @return the number of listed tools
+     */
+    public int size() {
+        return listedTools.size();
+    }
+
+    /**
+     * @param name the tool name
+     * @return {@code true} if the tool is part of the catalog, listed or not
+     */
+    public boolean contains(@NonNull String name) {
+        return calls.containsKey(name);
+    }
+
+    /**
+     * @param name the tool name
+     * @return the call of the tool, empty if the tool isn't part of the catalog
+     */
+    @NonNull
+    public Optional<BiFunction<McpAsyncServerExchange, Map<String, Object>, Mono<McpSchema.CallToolResult>>> findCall(
+            @NonNull String name) {
+        return Optional.ofNullable(calls.get(name));
+    }
+
+    /**
+     * @param cursor   the cursor of the page, {@code null} for the first page
+     * @param pageSize the maximum number of tools of the page, {@code 0} lists all the tools at once
+     * @return the page of the tools, with the cursor of the next page if any
+     * @throws IllegalArgumentException if the cursor is unknown
+     */
+    @NonNull
+    public McpSchema.ListToolsResult list(@Nullable String cursor, int pageSize) {
+        if (cursor == null) {
+            FirstPage page = firstPage;
+            if (page == null || page.pageSize() != pageSize) {
+                // computed under the lock, so a concurrent change can't leave a stale page behind
+                synchronized (this) {
+                    page = firstPage;
+                    if (page == null || page.pageSize() != pageSize) {
+                        page = new FirstPage(pageSize, listPage(listedTools, pageSize));
+                        firstPage = page;
+                    }
+                }
+            }
+            return page.result();
+        }
+        return listPage(listedTools.tailMap(decodeCursor(cursor), false), pageSize);
+    }
+
+    @NonNull
+    private static McpSchema.ListToolsResult listPage(NavigableMap<String, McpSchema.Tool> tools, int pageSize) {
+        List<McpSchema.Tool> page = new ArrayList<>(pageSize > 0 ? Math.min(pageSize, tools.size()) : tools.size());
+        String lastName = null;
+        for (Map.Entry<String, McpSchema.Tool> entry : tools.entrySet()) {
+            if (pageSize > 0 && page.size() == pageSize) {
+                return new McpSchema.ListToolsResult(List.copyOf(page), encodeCursor(lastName));
+            }
+            page.add(entry.getValue());
+            lastName = entry.getKey();
+        }
+        return new McpSchema.ListToolsResult(List.copyOf(page), null);
+    }
+
+    @NonNull
+    private static String encodeCursor(@NonNull String lastName) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastName).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * First page of the listing for a page size.
+     */
+    private record FirstPage(int pageSize, McpSchema.ListToolsResult result) {
+    }
+
+    @NonNull
+    private static String decodeCursor(@NonNull String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!decoded.startsWith(CURSOR_PREFIX)) {
+            throw new IllegalArgumentException("Unknown cursor " + cursor);
+        }
+        return decoded.substring(CURSOR_PREFIX.length());
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import io.github.makbn.mcp.mediator.api.McpToolDescriptor;
+import io.github.makbn.mcp.mediator.core.configuration.McpToolListingProfile;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Builds the tool definitions served by {@code tools/list} for a {@link McpToolListingProfile} and measures their
+ * size.
+ * <p>
+ * The {@link McpToolListingProfile#COMPACT} profile keeps the tool semantics and only drops what the clients don't
+ * need: the descriptions generated by {@link McpMethodArgumentDescriber} are shortened to a single sentence, and the
+ * input schemas lose their {@code urn:jsonschema} identifiers, the {@code minLength}/{@code maxLength} constraints left
+ * to their default values, the types next to an {@code enum} or a {@code const}, the placeholder {@code items} of the
+ * untyped collections and the empty {@code properties} and {@code required} keywords.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class McpToolListing {
+    private static final String ID_KEY = "id";
+    private static final String TYPE_KEY = "type";
+    private static final String OBJECT = "object";
+    private static final String PROPERTIES_KEY = "properties";
+    private static final String REQUIRED_KEY = "required";
+    private static final String ITEMS_KEY = "items";
+    private static final String MIN_LENGTH_KEY = "minLength";
+    private static final String MAX_LENGTH_KEY = "maxLength";
+    private static final List<String> VALUE_KEYS = List.of("enum", "const");
+    private static final List<String> SCHEMA_KEYS = List.of(ITEMS_KEY, "additionalProperties", "not");
+    /**
+     * Keywords holding several schemas, in an object or in an array.
+     */
+    private static final List<String> SCHEMA_CONTAINER_KEYS = List.of(PROPERTIES_KEY, McpSchemaCache.DEFS_KEY,
+            "definitions", "allOf", "anyOf", "oneOf");
+
+    /**
+     * @param descriptor the tool descriptor
+     * @param profile    the listing profile
+     * @param mapper     the mapper used to read the input schema
+     * @return the descriptor of the tool as listed with the profile
+     */
+    @NonNull
+    public static McpToolDescriptor describe(@NonNull McpToolDescriptor descriptor,
+                                             @NonNull McpToolListingProfile profile, @NonNull ObjectMapper mapper) {
+        if (profile == McpToolListingProfile.FULL) {
+            return descriptor;
+        }
+        return McpToolDescriptor.of(descriptor.name(),
+                McpMethodArgumentDescriber.compactDescription(descriptor.description()),
+                compactSchema(descriptor.schema(), mapper));
+    }
+
+    /**
+     * @param tool   the tool definition
+     * @param mapper the mapper serializing the messages of the server
+     * @return the number of bytes of the serialized definition
+     * @throws McpMediatorException if the definition can't be serialized
+     */
+    public static long sizeOf(@NonNull McpSchema.Tool tool, @NonNull ObjectMapper mapper) {
+        try {
+            return mapper.writeValueAsBytes(tool).length;
+        } catch (JsonProcessingException e) {
+            throw new McpMediatorException("Failed to serialize the tool " + tool.name(), e);
+        }
+    }
+
+    @NonNull
+    private static String compactSchema(@NonNull String schema, @NonNull ObjectMapper mapper) {
+        try {
+            JsonNode root = mapper.readTree(schema);
+            if (!(root instanceof ObjectNode rootNode)) {
+                return schema;
+            }
+            compact(rootNode, true);
+            return mapper.writeValueAsString(rootNode);
+        } catch (JsonProcessingException e) {
+            log.debug("Keeping the unreadable schema as it is: {}", schema, e);
+            return schema;
+        }
+    }
+
+    private static void compact(JsonNode node, boolean root) {
+        if (!(node instanceof ObjectNode schema)) {
+            return;
+        }
+        if (schema.path(ID_KEY).isTextual()) {
+            schema.remove(ID_KEY);
+        }
+        if (VALUE_KEYS.stream().anyMatch(schema::has)) {
+            schema.remove(TYPE_KEY);
+        }
+        if (schema.path(MIN_LENGTH_KEY).asLong(-1) == 0) {
+            schema.remove(MIN_LENGTH_KEY);
+        }
+        if (schema.path(MAX_LENGTH_KEY).asLong() == Integer.MAX_VALUE) {
+            schema.remove(MAX_LENGTH_KEY);
+        }
+        JsonNode items = schema.get(ITEMS_KEY);
+        if (items != null && items.size() == 1 && OBJECT.equals(items.path(TYPE_KEY).asText())) {
+            schema.remove(ITEMS_KEY);
+        }
+        if (!root && schema.path(PROPERTIES_KEY).isObject() && schema.path(PROPERTIES_KEY).isEmpty()) {
+            schema.remove(PROPERTIES_KEY);
+        }
+        if (schema.path(REQUIRED_KEY).isArray() && schema.path(REQUIRED_KEY).isEmpty()) {
+            schema.remove(REQUIRED_KEY);
+        }
+        SCHEMA_KEYS.forEach(key -> compact(schema.get(key), false));
+        SCHEMA_CONTAINER_KEYS.forEach(key -> schema.path(key).forEach(child -> compact(child, false)));
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import reactor.util.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot of the resolved tool registry of a mediator, stored in a versioned binary file so the next start can serve
+ * {@code tools/list} before the handlers are initialized and the remote servers are connected.
+ * <p>
+ * The file starts with a magic number and the format version, followed by the registry key, the tool entries and a
+ * CRC32 of the whole content. Strings are stored as their UTF-8 length followed by their bytes. The file is
+ * memory-mapped when read and rejected if the magic number, the version, the checksum or the registry key doesn't
+ * match, a rejected snapshot is simply rebuilt. The registry key identifies the configuration the snapshot was taken
+ * from, e.g. the server name and version and the registered handlers, so a snapshot is never served for another
+ * setup.
+ * <p>
+ * Snapshots are written to a temporary file first and atomically moved over the previous one, so a reader never sees
+ * a partial snapshot.
+ *
+ * @author Matt Akbarian
+ */
+@Slf4j
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpToolRegistrySnapshot {
+    public static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x4D435052; // MCPR
+    private static final int HEADER_SIZE = 8;
+    private static final int CHECKSUM_SIZE = 4;
+
+    /**
+     * Tool of the snapshot.
+     *
+     * @param name        the tool name
+     * @param description the tool description
+     * @param schema      the input schema of the tool
+     * @param route       the routing key of the tool, e.g. the handler or the remote server providing it
+     */
+    public record Entry(@NonNull String name, @Nullable String description, @Nullable String schema,
+                        @NonNull String route) {
+    }
+
+    @Getter
+    String key;
+    @Getter
+    List<Entry> entries;
+
+    /**
+     * Reads and validates a snapshot.
+     *
+     * @param file the snapshot file
+     * @param key  the expected registry key
+     * @return the snapshot, empty if the file doesn't exist or isn't a valid snapshot of the registry
+     */
+    @NonNull
+    public static Optional<McpToolRegistrySnapshot> read(@NonNull Path file, @NonNull String key) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + CHECKSUM_SIZE || size > Integer.MAX_VALUE) {
+                log.warn("Ignoring the tool registry snapshot {}, unexpected size {}", file, size);
+                return Optional.empty();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                log.warn("Ignoring the tool registry snapshot {}, unsupported format", file);
+                return Optional.empty();
+            }
+            int contentSize = (int) size - CHECKSUM_SIZE;
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.duplicate().position(0).limit(contentSize));
+            if ((int) checksum.getValue() != buffer.getInt(contentSize)) {
+                log.warn("Ignoring the corrupted tool registry snapshot {}", file);
+                return Optional.empty();
+            }
+            buffer.limit(contentSize);
+            String snapshotKey = readRequiredString(buffer);
+            if (!key.equals(snapshotKey)) {
+                log.info("Ignoring the outdated tool registry snapshot {}", file);
+                return Optional.empty();
+            }
+            int count = buffer.getInt();
+            List<Entry> entries = new ArrayList<>(Math.min(count, buffer.remaining()));
+            for (int i = 0; i < count; i++) {
+                entries.add(new Entry(readRequiredString(buffer), readString(buffer), readString(buffer),
+                        readRequiredString(buffer)));
+            }
+            log.debug("Loaded {} tools from the tool registry snapshot {}", entries.size(), file);
+            return Optional.of(new McpToolRegistrySnapshot(snapshotKey, List.copyOf(entries)));
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            log.warn("Ignoring the unreadable tool registry snapshot {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a snapshot, replacing the previous one. Failures are logged and otherwise ignored, the snapshot is only
+     * an optimization.
+     *
+     * @param file    the snapshot file
+     * @param key     the registry key
+     * @param entries the tools of the registry
+     */
+    public static void write(@NonNull Path file, @NonNull String key, @NonNull Collection<Entry> entries) {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            CRC32 checksum = new CRC32();
+            try (OutputStream fileOutput = Files.newOutputStream(temporary);
+                 CheckedOutputStream checkedOutput = new CheckedOutputStream(new BufferedOutputStream(fileOutput),
+                         checksum);
+                 DataOutputStream output = new DataOutputStream(checkedOutput)) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                writeString(output, key);
+                output.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    writeString(output, entry.name());
+                    writeString(output, entry.description());
+                    writeString(output, entry.schema());
+                    writeString(output, entry.route());
+                }
+                output.flush();
+                // the checksum covers everything written so far and is not part of itself
+                new DataOutputStream(fileOutput).writeInt((int) checksum.getValue());
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote {} tools to the tool registry snapshot {}", entries.size(), file);
+        } catch (IOException e) {
+            log.warn("Failed to write the tool registry snapshot {}", file, e);
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // best effort
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readRequiredString(ByteBuffer buffer) {
+        String value = readString(buffer);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required value at " + buffer.position());
+        }
+        return value;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = StandardCharsets.UTF_8.decode(buffer.slice().limit(length)).toString();
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
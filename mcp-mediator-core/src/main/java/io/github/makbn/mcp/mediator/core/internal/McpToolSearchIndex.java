@@ -0,0 +1,187 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of the tools, ranking them against a free text query with Okapi BM25.
+ * <p>
+ * A tool is indexed by the terms of its name, its description and the names of its parameters. The names are split
+ * on the snake case and camel case boundaries and the name terms are counted twice, so a query matching a tool name
+ * ranks it above the tools only mentioning the query in their description. Tools are added and removed one at a time
+ * as they are registered, the statistics of the index are maintained incrementally and a search only reads the
+ * postings of the query terms.
+ *
+ * @author Matt Akbarian
+ * @see <a href="https://en.wikipedia.org/wiki/Okapi_BM25">Okapi BM25</a>
+ */
+@NoArgsConstructor(staticName = "create")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpToolSearchIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_BOOST = 2;
+    private static final Pattern CAMEL_CASE_BOUNDARY = Pattern.compile("(?<=[a-z0-9])(?=[A-Z])");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for",
+            "from", "in", "is", "it", "of", "on", "or", "that", "the", "this", "to", "with");
+
+    /**
+     * Match of a search.
+     *
+     * @param tool  the matching tool
+     * @param score the BM25 score of the tool for the query
+     */
+    public record Match(@NonNull McpSchema.Tool tool, double score) {
+    }
+
+    private record Document(McpSchema.Tool tool, Map<String, Integer> termFrequencies, int length) {
+    }
+
+    Map<String, Document> documents = new HashMap<>();
+    /**
+     * Term to the names of the tools containing it.
+     */
+    Map<String, Set<String>> postings = new HashMap<>();
+    @NonFinal
+    long totalLength;
+
+    /**
+     * Adds a tool to the index, replacing the tool of the same name if any.
+     *
+     * @param tool the tool
+     */
+    public synchronized void add(@NonNull McpSchema.Tool tool) {
+        remove(tool.name());
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (int i = 0; i < NAME_BOOST; i++) {
+            length += addTerms(frequencies, tool.name());
+        }
+        length += addTerms(frequencies, tool.description());
+        if (tool.inputSchema() != null && tool.inputSchema().properties() != null) {
+            for (String parameter : tool.inputSchema().properties().keySet()) {
+                length += addTerms(frequencies, parameter);
+            }
+        }
+        documents.put(tool.name(), new Document(tool, frequencies, length));
+        frequencies.keySet().forEach(term -> postings.computeIfAbsent(term, key -> new LinkedHashSet<>())
+                .add(tool.name()));
+        totalLength += length;
+    }
+
+    /**
+     * Removes a tool from the index.
+     *
+     * @param name the tool name
+     */
+    public synchronized void remove(@NonNull String name) {
+        Document document = documents.remove(name);
+        if (document == null) {
+            return;
+        }
+        document.termFrequencies().keySet().forEach(term -> {
+            Set<String> names = postings.get(term);
+            names.remove(name);
+            if (names.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+        totalLength -= document.length();
+    }
+
+    /**
+     * @return the number of indexed tools
+     */
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    /**
+     * Ranks the tools against a query.
+     *
+     * @param query the free text query
+     * @param limit the maximum number of matches
+     * @return the matching tools, the best match first
+     */
+    @NonNull
+    public List<Match> search(@NonNull String query, int limit) {
+        return search(query, limit, name -> true);
+    }
+
+    /**
+     * Ranks the tools accepted by the filter against a query, e.g. the tools of the catalog of a session. The filter
+     * is applied before the limit, so up to {@code limit} accepted tools are returned.
+     *
+     * @param query  the free text query
+     * @param limit  the maximum number of matches
+     * @param filter accepts the names of the tools to rank
+     * @return the matching tools, the best match first
+     */
+    @NonNull
+    public synchronized List<Match> search(@NonNull String query, int limit, @NonNull Predicate<String> filter) {
+        if (documents.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        double averageLength = Math.max(1, (double) totalLength / documents.size());
+        Map<String, Double> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Set<String> names = postings.get(term);
+            if (names == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documents.size() - names.size() + 0.5) / (names.size() + 0.5));
+            for (String name : names) {
+                if (!filter.test(name)) {
+                    continue;
+                }
+                Document document = documents.get(name);
+                int frequency = document.termFrequencies().get(term);
+                double norm = K1 * (1 - B + B * document.length() / averageLength);
+                scores.merge(name, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> new Match(documents.get(entry.getKey()).tool(), entry.getValue()))
+                .toList();
+    }
+
+    private static int addTerms(Map<String, Integer> frequencies, String text) {
+        List<String> terms = tokenize(text);
+        terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        return terms.size();
+    }
+
+    @NonNull
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : SEPARATORS.split(CAMEL_CASE_BOUNDARY.matcher(text).replaceAll(" "))) {
+            String term = token.toLowerCase(Locale.ROOT);
+            if (!term.isEmpty() && !STOP_WORDS.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,260 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.makbn.mcp.mediator.api.McpMediatorException;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import reactor.util.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of the tool results exchanged between two mediators.
+ * <p>
+ * A mediator advertises the encodings it can produce in the experimental server capabilities of the initialize
+ * handshake. A {@link io.github.makbn.mcp.mediator.core.ProxyMcpMediator} connected to such a server can ask for
+ * <a href="https://github.com/FasterXML/smile-format-specification">Smile</a> encoded results by passing the
+ * {@link McpToolCallArguments#ENCODING_HINT} hint and gets back an embedded blob resource of
+ * {@link #SMILE_MEDIA_TYPE} instead of a JSON text. Third-party servers don't advertise the capability and keep
+ * receiving plain JSON calls.
+ * <p>
+ * The proxy only asks for it when enabled on the remote server configuration. The blob is Base64 encoded inside the
+ * JSON-RPC text, a third larger than the Smile bytes, and the proxy transcodes it back to JSON for its own clients, so
+ * the encoding is not a win by default. It pays off when the results repeat many keys and strings, which Smile
+ * back-references.
+ * <p>
+ * The Smile mapper is a copy of the configured {@link ObjectMapper} with a {@link SmileFactory}, so both encodings
+ * share the same modules and features. The encoding is bounded while writing, a result can't grow beyond the limit
+ * before being rejected.
+ *
+ * @author Matt Akbarian
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class McpWireEncoding {
+    public static final String CAPABILITY = "io.github.makbn/mcp-mediator";
+    public static final String ENCODINGS = "encodings";
+    public static final String SMILE = "smile";
+    public static final String SMILE_MEDIA_TYPE = "application/x-jackson-smile";
+
+    ObjectMapper jsonMapper;
+    ObjectMapper smileMapper;
+
+    /**
+     * @param jsonMapper the configured mapper
+     * @return the wire encoding based on the given mapper
+     */
+    @NonNull
+    public static McpWireEncoding of(@NonNull ObjectMapper jsonMapper) {
+        // copyWith() is rejected by the mapper subclasses, e.g. JsonMapper, the copy constructor isn't
+        return new McpWireEncoding(jsonMapper, new SmileMapperCopy(jsonMapper));
+    }
+
+    /**
+     * @return the experimental server capabilities advertising the supported encodings
+     */
+    @NonNull
+    public static Map<String, Object> capabilities() {
+        return Map.of(CAPABILITY, Map.of(ENCODINGS, List.of(SMILE)));
+    }
+
+    /**
+     * @param capabilities the capabilities of the remote server
+     * @return {@code true} if the remote server can produce Smile encoded results
+     */
+    public static boolean supportsSmile(@Nullable McpSchema.ServerCapabilities capabilities) {
+        return capabilities != null && capabilities.experimental() != null
+                && capabilities.experimental().get(CAPABILITY) instanceof Map<?, ?> capability
+                && capability.get(ENCODINGS) instanceof Collection<?> encodings
+                && encodings.contains(SMILE);
+    }
+
+    /**
+     * @param arguments the tool call arguments
+     * @return {@code true} if the caller asked for a Smile encoded result
+     */
+    public static boolean requestsSmile(@NonNull McpToolCallArguments arguments) {
+        return arguments.getHint(McpToolCallArguments.ENCODING_HINT)
+                .map(SMILE::equals)
+                .orElse(false);
+    }
+
+    /**
+     * Adds the Smile encoding hint to the arguments of a call to a remote mediator.
+     *
+     * @param arguments the tool call arguments
+     * @return a copy of the arguments with the encoding hint
+     */
+    @NonNull
+    public static Map<String, Object> withSmileHint(@NonNull Map<String, Object> arguments) {
+        Map<String, Object> encodedArguments = new HashMap<>(arguments);
+        Map<String, Object> meta = new HashMap<>();
+        if (arguments.get(McpToolCallArguments.META_ARGUMENT) instanceof Map<?, ?> existingMeta) {
+            existingMeta.forEach((key, value) -> meta.put(String.valueOf(key), value));
+        }
+        meta.put(McpToolCallArguments.ENCODING_HINT, SMILE);
+        encodedArguments.put(McpToolCallArguments.META_ARGUMENT, meta);
+        return encodedArguments;
+    }
+
+    /**
+     * Encodes the result as Smile.
+     *
+     * @param value      the result
+     * @param projection optional projection to apply while encoding
+     * @param limit      maximum number of characters of the Base64 encoded result
+     * @return the Smile encoded result
+     * @throws IOException                                      if the encoding fails
+     * @throws McpResultWriter.ResultLimitExceededException if the encoded result exceeds the limit
+     */
+    @NonNull
+    public byte[] encode(@NonNull Object value, @Nullable McpResultProjection projection, long limit)
+            throws IOException {
+        LimitedOutput output = new LimitedOutput(limit);
+        try {
+            JsonGenerator generator = smileMapper.getFactory().createGenerator(output);
+            if (projection != null) {
+                generator = new FilteringGeneratorDelegate(generator, projection.getFilter(),
+                        TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true);
+            }
+            try (JsonGenerator closeable = generator) {
+                smileMapper.writeValue(closeable, value);
+            }
+        } catch (IOException e) {
+            throw output.checkLimit(e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Encodes an already serialized JSON result as Smile, token by token.
+     *
+     * @param json  the JSON result
+     * @param limit maximum number of characters of the Base64 encoded result
+     * @return the Smile encoded result
+     * @throws IOException                                      if the encoding fails
+     * @throws McpResultWriter.ResultLimitExceededException if the encoded result exceeds the limit
+     */
+    @NonNull
+    public byte[] transcode(@NonNull String json, long limit) throws IOException {
+        LimitedOutput output = new LimitedOutput(limit);
+        try (JsonParser parser = jsonMapper.getFactory().createParser(json);
+             JsonGenerator generator = smileMapper.getFactory().createGenerator(output)) {
+            if (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        } catch (IOException e) {
+            throw output.checkLimit(e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Converts the Smile encoded contents of a remote result into JSON text contents, other contents are left
+     * untouched.
+     *
+     * @param result the result of the remote mediator
+     * @return the result with JSON text contents
+     */
+    @NonNull
+    public McpSchema.CallToolResult toJson(@NonNull McpSchema.CallToolResult result) {
+        if (result.content() == null || result.content().stream().noneMatch(McpWireEncoding::isSmile)) {
+            return result;
+        }
+        List<McpSchema.Content> contents = result.content()
+                .stream()
+                .map(content -> isSmile(content) ? toJson((McpSchema.EmbeddedResource) content) : content)
+                .toList();
+        return new McpSchema.CallToolResult(contents, result.isError());
+    }
+
+    private McpSchema.Content toJson(McpSchema.EmbeddedResource content) {
+        String blob = ((McpSchema.BlobResourceContents) content.resource()).blob();
+        StringWriter output = new StringWriter();
+        try (JsonParser parser = smileMapper.getFactory().createParser(Base64.getDecoder().decode(blob));
+             JsonGenerator generator = jsonMapper.getFactory().createGenerator(output)) {
+            // token by token transcoding, no intermediate tree is built
+            if (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        } catch (IOException e) {
+            throw new McpMediatorException("Failed to decode the Smile encoded result", e);
+        }
+        return new McpSchema.TextContent(output.toString());
+    }
+
+    private static boolean isSmile(McpSchema.Content content) {
+        return content instanceof McpSchema.EmbeddedResource resource
+                && resource.resource() instanceof McpSchema.BlobResourceContents blob
+                && SMILE_MEDIA_TYPE.equals(blob.mimeType());
+    }
+
+    /**
+     * Smile mapper sharing the configuration and the modules of the JSON mapper.
+     */
+    private static final class SmileMapperCopy extends ObjectMapper {
+        private SmileMapperCopy(ObjectMapper jsonMapper) {
+            super(jsonMapper, new SmileFactory());
+        }
+    }
+
+    /**
+     * In-memory output failing as soon as its Base64 encoding would exceed the limit.
+     */
+    private static final class LimitedOutput extends ByteArrayOutputStream {
+        private final long limit;
+        private final long byteLimit;
+        private boolean exceeded;
+
+        private LimitedOutput(long limit) {
+            this.limit = limit;
+            this.byteLimit = limit / 4 * 3;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            ensureCapacity(1);
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            super.write(bytes, offset, length);
+        }
+
+        private void ensureCapacity(int length) {
+            if ((long) count + length > byteLimit) {
+                exceeded = true;
+                throw new McpResultWriter.ResultLimitExceededException(
+                        String.format("Result exceeds the limit of %d characters", limit), null);
+            }
+        }
+
+        /**
+         * @return the given failure, unless it was caused by the limit
+         */
+        private IOException checkLimit(IOException e) {
+            if (exceeded) {
+                throw new McpResultWriter.ResultLimitExceededException(
+                        String.format("Result exceeds the limit of %d characters", limit), e);
+            }
+            return e;
+        }
+    }
+}
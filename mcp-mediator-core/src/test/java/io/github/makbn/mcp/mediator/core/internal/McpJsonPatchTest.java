@@ -0,0 +1,169 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Patches generated between two documents turn the first document into the second one when applied.
+ */
+class McpJsonPatchTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void generatesAnEmptyPatchForEqualDocuments() throws IOException {
+        assertEquals(0, McpJsonPatch.diff(json("{\"a\": [1, {\"b\": null}]}"),
+                json("{\"a\": [1, {\"b\": null}]}")).size());
+    }
+
+    @Test
+    void patchesNestedObjects() throws IOException {
+        assertRoundTrip("{\"user\": {\"name\": \"Ada\", \"age\": 36, \"address\": {\"city\": \"London\"}}}",
+                "{\"user\": {\"name\": \"Ada\", \"email\": \"ada@example.com\", \"address\": {\"city\": \"Paris\"}},"
+                        + " \"active\": true}");
+    }
+
+    @Test
+    void patchesArraysThatGrowShrinkOrChange() throws IOException {
+        assertRoundTrip("{\"items\": [1, 2, 3]}", "{\"items\": [1, 5, 3, 4, 6]}");
+        assertRoundTrip("{\"items\": [1, 2, 3, 4, 5]}", "{\"items\": [1, 7]}");
+        assertRoundTrip("[{\"id\": 1, \"tags\": [\"a\"]}, {\"id\": 2}]", "[{\"id\": 1, \"tags\": [\"a\", \"b\"]}]");
+        assertRoundTrip("{\"items\": []}", "{\"items\": [[], {}]}");
+    }
+
+    @Test
+    void removesArrayElementsFromTheTail() throws IOException {
+        ArrayNode patch = McpJsonPatch.diff(json("{\"items\": [1, 2, 3, 4, 5]}"), json("{\"items\": [1, 2]}"));
+
+        assertEquals(List.of("/items/4", "/items/3", "/items/2"), paths(patch));
+        assertTrue(operations(patch).stream().allMatch("remove"::equals));
+    }
+
+    @Test
+    void appendsArrayElementsAtTheTail() throws IOException {
+        ArrayNode patch = McpJsonPatch.diff(json("[1]"), json("[1, 2, 3]"));
+
+        assertEquals(List.of("/1", "/2"), paths(patch));
+        assertTrue(operations(patch).stream().allMatch("add"::equals));
+    }
+
+    @Test
+    void replacesValuesThatChangeType() throws IOException {
+        assertRoundTrip("{\"a\": {\"b\": 1}, \"c\": [1], \"d\": 1, \"e\": \"x\", \"f\": null}",
+                "{\"a\": [1], \"c\": {\"b\": 1}, \"d\": \"1\", \"e\": null, \"f\": false}");
+        assertRoundTrip("{\"a\": 1}", "[1]");
+        assertRoundTrip("[1]", "\"text\"");
+
+        ArrayNode patch = McpJsonPatch.diff(json("{\"a\": {\"b\": 1}}"), json("{\"a\": [1]}"));
+        assertEquals(List.of("replace"), operations(patch));
+        assertEquals(List.of("/a"), paths(patch));
+    }
+
+    @Test
+    void escapesMemberNamesOfThePaths() throws IOException {
+        ArrayNode patch = McpJsonPatch.diff(json("{\"a/b\": 1, \"m~n\": 2, \"~1\": 3}"),
+                json("{\"a/b\": 2, \"m~n\": 3, \"~1\": 4}"));
+
+        assertEquals(List.of("/a~1b", "/m~0n", "/~01"), paths(patch));
+        assertRoundTrip("{\"a/b\": {\"m~n\": [1]}, \"~1\": 3}", "{\"a/b\": {\"m~n\": [1, 2]}, \"~0\": 3}");
+    }
+
+    private static void assertRoundTrip(String source, String target) throws IOException {
+        ArrayNode patch = McpJsonPatch.diff(json(source), json(target));
+
+        assertEquals(json(target), apply(json(source), patch), patch::toString);
+    }
+
+    /**
+     * Applies the {@code add}, {@code remove} and {@code replace} operations of a patch to a copy of the document,
+     * failing if an operation targets a location that the RFC 6902 doesn't allow.
+     */
+    static JsonNode apply(JsonNode document, JsonNode patch) {
+        JsonNode result = document.deepCopy();
+        for (JsonNode operation : patch) {
+            String op = operation.get("op").asText();
+            List<String> tokens = tokens(operation.get("path").asText());
+            if (tokens.isEmpty()) {
+                assertEquals("replace", op);
+                result = operation.get("value").deepCopy();
+                continue;
+            }
+            JsonNode parent = result;
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                parent = parent.isArray() ? parent.get(Integer.parseInt(token)) : parent.get(token);
+                assertTrue(parent != null && parent.isContainerNode(), operation::toString);
+            }
+            String last = tokens.get(tokens.size() - 1);
+            if (parent instanceof ArrayNode array) {
+                int index = Integer.parseInt(last);
+                switch (op) {
+                    case "add" -> {
+                        assertTrue(index <= array.size(), operation::toString);
+                        array.insert(index, operation.get("value").deepCopy());
+                    }
+                    case "remove" -> {
+                        assertTrue(index < array.size(), operation::toString);
+                        array.remove(index);
+                    }
+                    case "replace" -> {
+                        assertTrue(index < array.size(), operation::toString);
+                        array.set(index, operation.get("value").deepCopy());
+                    }
+                    default -> throw new AssertionError("unexpected operation " + operation);
+                }
+            } else {
+                ObjectNode object = (ObjectNode) parent;
+                switch (op) {
+                    case "add" -> object.set(last, operation.get("value").deepCopy());
+                    case "remove" -> {
+                        assertTrue(object.has(last), operation::toString);
+                        object.remove(last);
+                    }
+                    case "replace" -> {
+                        assertTrue(object.has(last), operation::toString);
+                        object.set(last, operation.get("value").deepCopy());
+                    }
+                    default -> throw new AssertionError("unexpected operation " + operation);
+                }
+            }
+        }
+        return result;
+    }
+
+    static JsonNode json(String text) throws IOException {
+        return MAPPER.readTree(text);
+    }
+
+    private static List<String> tokens(String path) {
+        List<String> tokens = new ArrayList<>();
+        if (path.isEmpty()) {
+            return tokens;
+        }
+        assertTrue(path.startsWith("/"), path);
+        for (String token : path.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static List<String> paths(ArrayNode patch) {
+        List<String> paths = new ArrayList<>();
+        patch.forEach(operation -> paths.add(operation.get("path").asText()));
+        return paths;
+    }
+
+    private static List<String> operations(ArrayNode patch) {
+        List<String> operations = new ArrayList<>();
+        patch.forEach(operation -> operations.add(operation.get("op").asText()));
+        return operations;
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fingerprints, conditional delivery and eviction of the cached tool results.
+ */
+class McpResultCacheTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final McpResultCache.Differ DIFFER = (previous, current) -> MAPPER.writeValueAsString(
+            McpJsonPatch.diff(MAPPER.readTree(previous), MAPPER.readTree(current)));
+
+    private static final String FIRST = "{\"city\": \"London\", \"forecast\": [{\"day\": 1, \"temperature\": 12},"
+            + " {\"day\": 2, \"temperature\": 14}, {\"day\": 3, \"temperature\": 11}], \"source\": \"station 42\"}";
+    private static final String SECOND = "{\"city\": \"London\", \"forecast\": [{\"day\": 1, \"temperature\": 12},"
+            + " {\"day\": 2, \"temperature\": 15}, {\"day\": 3, \"temperature\": 11}], \"source\": \"station 42\"}";
+
+    @Test
+    void fingerprintsTheContent() {
+        String fingerprint = McpResultCache.fingerprint(FIRST);
+
+        assertTrue(fingerprint.matches("[0-9a-f]{32}"), fingerprint);
+        assertEquals(fingerprint, McpResultCache.fingerprint(FIRST));
+        assertNotEquals(fingerprint, McpResultCache.fingerprint(SECOND));
+    }
+
+    @Test
+    void deliversTheFullResultWithoutAPreviousFingerprint() throws IOException {
+        McpResultCache cache = McpResultCache.of(4);
+
+        McpResultCache.Resolution resolution = cache.resolve(FIRST, null, DIFFER);
+
+        assertEquals(McpResultCache.Status.FULL, resolution.status());
+        assertEquals(FIRST, resolution.content());
+        assertEquals(McpResultCache.fingerprint(FIRST), resolution.fingerprint());
+        assertEquals(Optional.of(FIRST), cache.get(resolution.fingerprint()));
+    }
+
+    @Test
+    void answersNotModifiedForTheCurrentFingerprint() throws IOException {
+        McpResultCache cache = McpResultCache.of(4);
+        String fingerprint = cache.resolve(FIRST, null, DIFFER).fingerprint();
+
+        McpResultCache.Resolution resolution = cache.resolve(FIRST, fingerprint, DIFFER);
+
+        assertEquals(McpResultCache.Status.NOT_MODIFIED, resolution.status());
+        assertEquals("not_modified", resolution.status().getValue());
+        assertEquals(fingerprint, resolution.fingerprint());
+        assertNull(resolution.content());
+    }
+
+    @Test
+    void deliversAPatchThatTurnsThePreviousResultIntoTheCurrentOne() throws IOException {
+        McpResultCache cache = McpResultCache.of(4);
+        String fingerprint = cache.resolve(FIRST, null, DIFFER).fingerprint();
+
+        McpResultCache.Resolution resolution = cache.resolve(SECOND, fingerprint, DIFFER);
+
+        assertEquals(McpResultCache.Status.PATCH, resolution.status());
+        assertEquals(McpResultCache.fingerprint(SECOND), resolution.fingerprint());
+        assertTrue(resolution.content().length() < SECOND.length());
+        assertEquals(McpJsonPatchTest.json(SECOND),
+                McpJsonPatchTest.apply(McpJsonPatchTest.json(FIRST), McpJsonPatchTest.json(resolution.content())));
+        assertEquals(Optional.of(SECOND), cache.get(resolution.fingerprint()));
+    }
+
+    @Test
+    void patchesAgainstThePreviousResultOfAFullCache() throws IOException {
+        McpResultCache cache = McpResultCache.of(1);
+        String fingerprint = cache.resolve(FIRST, null, DIFFER).fingerprint();
+
+        assertEquals(McpResultCache.Status.PATCH, cache.resolve(SECOND, fingerprint, DIFFER).status());
+    }
+
+    @Test
+    void deliversTheFullResultForAnUnknownFingerprint() throws IOException {
+        McpResultCache cache = McpResultCache.of(4);
+        cache.resolve(FIRST, null, DIFFER);
+
+        McpResultCache.Resolution resolution = cache.resolve(SECOND, McpResultCache.fingerprint("{}"), DIFFER);
+
+        assertEquals(McpResultCache.Status.FULL, resolution.status());
+        assertEquals(SECOND, resolution.content());
+    }
+
+    @Test
+    void deliversTheFullResultWhenThePatchIsNotSmaller() throws IOException {
+        McpResultCache cache = McpResultCache.of(4);
+        String fingerprint = cache.resolve("{\"a\": 1}", null, DIFFER).fingerprint();
+
+        McpResultCache.Resolution resolution = cache.resolve("[2]", fingerprint, DIFFER);
+
+        assertEquals(McpResultCache.Status.FULL, resolution.status());
+        assertEquals("[2]", resolution.content());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedResult() {
+        McpResultCache cache = McpResultCache.of(2);
+        cache.put("a", "first");
+        cache.put("b", "second");
+        // reading the first result makes the second one the least recently used
+        cache.get("a");
+
+        cache.put("c", "third");
+
+        assertEquals(Optional.empty(), cache.get("b"));
+        assertEquals(Optional.of("first"), cache.get("a"));
+        assertEquals(Optional.of("third"), cache.get("c"));
+    }
+
+    @Test
+    void doesNotCacheWhenDisabled() throws IOException {
+        McpResultCache cache = McpResultCache.of(0);
+        String fingerprint = McpResultCache.fingerprint(FIRST);
+
+        cache.put(fingerprint, FIRST);
+
+        assertFalse(cache.isEnabled());
+        assertEquals(Optional.empty(), cache.get(fingerprint));
+        assertEquals(McpResultCache.Status.FULL, cache.resolve(SECOND, fingerprint, DIFFER).status());
+    }
+
+    @Test
+    void doesNotCacheResultsLargerThanAQuarterOfTheCache() {
+        McpResultCache cache = McpResultCache.of(4);
+        String large = "x".repeat((int) (McpResultCache.MAX_CACHED_CHARACTERS / 4) + 1);
+
+        cache.put("large", large);
+        cache.put("small", "x");
+
+        assertEquals(Optional.empty(), cache.get("large"));
+        assertEquals(Optional.of("x"), cache.get("small"));
+    }
+
+    @Test
+    void clearsTheCachedResults() {
+        McpResultCache cache = McpResultCache.of(4);
+        cache.put("a", "first");
+
+        cache.clear();
+
+        assertEquals(Optional.empty(), cache.get("a"));
+    }
+}
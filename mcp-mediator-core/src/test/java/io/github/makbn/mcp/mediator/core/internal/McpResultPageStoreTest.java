@@ -0,0 +1,141 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Page boundaries, continuation tokens and eviction of the paginated results.
+ */
+class McpResultPageStoreTest {
+    private static final String EMOJI = "\uD83D\uDE00";
+
+    @Test
+    void returnsSmallResultsAsASinglePage() {
+        McpResultPageStore store = McpResultPageStore.of(10, 4, Duration.ZERO);
+
+        McpResultPageStore.Page page = store.paginate("0123456789");
+
+        assertEquals("0123456789", page.content());
+        assertEquals(1, page.pages());
+        assertFalse(page.hasMore());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void doesNotPaginateWhenDisabled() {
+        McpResultPageStore store = McpResultPageStore.of(0, 4, Duration.ZERO);
+
+        assertFalse(store.isEnabled());
+        assertFalse(store.requiresPagination("x".repeat(10_000)));
+        assertFalse(store.paginate("x".repeat(10_000)).hasMore());
+    }
+
+    @Test
+    void splitsResultsIntoPagesOfAtMostThePageSize() {
+        McpResultPageStore store = McpResultPageStore.of(10, 4, Duration.ZERO);
+        String result = "abcdefghijklmnopqrstuvwxy";
+
+        List<McpResultPageStore.Page> pages = fetchAll(store, store.paginate(result));
+
+        assertEquals(List.of("abcdefghij", "klmnopqrst", "uvwxy"),
+                pages.stream().map(McpResultPageStore.Page::content).toList());
+        assertEquals(List.of(1, 2, 3), pages.stream().map(McpResultPageStore.Page::page).toList());
+        assertTrue(pages.stream().allMatch(page -> page.pages() == 3 && page.totalSize() == result.length()));
+        assertNull(pages.get(2).continuationToken());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void neverSplitsASurrogatePair() {
+        McpResultPageStore store = McpResultPageStore.of(10, 4, Duration.ZERO);
+        String result = "abcdefghi" + EMOJI + "jklmnopqr" + EMOJI + EMOJI;
+
+        List<McpResultPageStore.Page> pages = fetchAll(store, store.paginate(result));
+
+        assertEquals(List.of("abcdefghi", EMOJI + "jklmnopq", "r" + EMOJI + EMOJI),
+                pages.stream().map(McpResultPageStore.Page::content).toList());
+    }
+
+    @Test
+    void keepsPagesOfSurrogatePairsWhole() {
+        McpResultPageStore store = McpResultPageStore.of(3, 4, Duration.ZERO);
+        String result = EMOJI.repeat(7);
+
+        List<McpResultPageStore.Page> pages = fetchAll(store, store.paginate(result));
+
+        assertEquals(7, pages.size());
+        for (McpResultPageStore.Page page : pages) {
+            assertEquals(EMOJI, page.content());
+        }
+    }
+
+    @Test
+    void rejectsForeignAndOutOfRangeTokens() {
+        McpResultPageStore store = McpResultPageStore.of(10, 4, Duration.ZERO);
+        String token = store.paginate("x".repeat(30)).continuationToken();
+        String id = token.substring(0, token.lastIndexOf('.'));
+
+        for (String foreign : List.of("unknown.1", id + ".0", id + ".3", id + ".-1", id + ".x", id + ".", id,
+                ".1", "")) {
+            assertEquals(Optional.empty(), store.fetch(foreign), foreign);
+        }
+        assertEquals(2, store.fetch(token).orElseThrow().page());
+    }
+
+    @Test
+    void forgetsAResultOnceItsLastPageIsFetched() {
+        McpResultPageStore store = McpResultPageStore.of(10, 4, Duration.ZERO);
+        String token = store.paginate("x".repeat(20)).continuationToken();
+
+        assertTrue(store.fetch(token).isPresent());
+        assertEquals(Optional.empty(), store.fetch(token));
+        assertEquals(0, store.getEvictions());
+    }
+
+    @Test
+    void expiresTheResultsNotFetchedInTime() throws InterruptedException {
+        McpResultPageStore store = McpResultPageStore.of(10, 4, Duration.ofMillis(1));
+        String token = store.paginate("x".repeat(30)).continuationToken();
+
+        Thread.sleep(20);
+
+        assertEquals(Optional.empty(), store.fetch(token));
+        assertEquals(0, store.size());
+        assertEquals(1, store.getEvictions());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedResult() {
+        McpResultPageStore store = McpResultPageStore.of(10, 2, Duration.ZERO);
+        String first = store.paginate("a".repeat(30)).continuationToken();
+        String second = store.paginate("b".repeat(30)).continuationToken();
+        // fetching the first result makes the second one the least recently used
+        String firstNext = store.fetch(first).orElseThrow().continuationToken();
+
+        String third = store.paginate("c".repeat(30)).continuationToken();
+
+        assertEquals(Optional.empty(), store.fetch(second));
+        assertEquals("a".repeat(10), store.fetch(firstNext).orElseThrow().content());
+        assertEquals("c".repeat(10), store.fetch(third).orElseThrow().content());
+        assertEquals(1, store.getEvictions());
+    }
+
+    private static List<McpResultPageStore.Page> fetchAll(McpResultPageStore store, McpResultPageStore.Page first) {
+        List<McpResultPageStore.Page> pages = new ArrayList<>(List.of(first));
+        McpResultPageStore.Page page = first;
+        while (page.hasMore()) {
+            page = store.fetch(page.continuationToken()).orElseThrow();
+            pages.add(page);
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cursor pagination of the tool listing of a catalog, while the catalog changes between the pages.
+ */
+class McpToolCatalogTest {
+
+    @Test
+    void listsAllTheToolsSortedByName() {
+        McpToolCatalog catalog = catalogOf("charlie", "alpha", "bravo");
+
+        McpSchema.ListToolsResult page = catalog.list(null, 0);
+
+        assertEquals(List.of("alpha", "bravo", "charlie"), names(page));
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void paginatesAtPageBoundaries() {
+        McpToolCatalog catalog = catalogOf("a", "b", "c", "d", "e");
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), listAll(catalog, 2));
+        assertEquals(List.of(List.of("a", "b", "c", "d", "e")), listAll(catalog, 5));
+        assertEquals(List.of(List.of("a", "b", "c", "d", "e")), listAll(catalog, 10));
+    }
+
+    @Test
+    void endsOnAFullPageWithoutAnEmptyOne() {
+        McpToolCatalog catalog = catalogOf("a", "b", "c", "d");
+
+        McpSchema.ListToolsResult second = catalog.list(catalog.list(null, 2).nextCursor(), 2);
+
+        assertEquals(List.of("c", "d"), names(second));
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void keepsThePagesConsistentWhenToolsAreAddedAndRemovedBetweenPages() {
+        McpToolCatalog catalog = catalogOf("a", "b", "c", "d", "e");
+        McpSchema.ListToolsResult first = catalog.list(null, 2);
+
+        // the last tool of the page, the next tool and a tool already listed are removed
+        catalog.remove("b");
+        catalog.remove("c");
+        catalog.remove("a");
+        // one tool sorted before the cursor, one after
+        catalog.put(tool("aa"), (exchange, arguments) -> Mono.empty(), true);
+        catalog.put(tool("ca"), (exchange, arguments) -> Mono.empty(), true);
+        McpSchema.ListToolsResult second = catalog.list(first.nextCursor(), 2);
+        McpSchema.ListToolsResult third = catalog.list(second.nextCursor(), 2);
+
+        assertEquals(List.of("a", "b"), names(first));
+        assertEquals(List.of("ca", "d"), names(second));
+        assertEquals(List.of("e"), names(third));
+        assertNull(third.nextCursor());
+    }
+
+    @Test
+    void rejectsUnknownCursors() {
+        McpToolCatalog catalog = catalogOf("a", "b", "c");
+
+        assertThrows(IllegalArgumentException.class, () -> catalog.list("not base64!", 2));
+        assertThrows(IllegalArgumentException.class, () -> catalog.list(encode("a"), 2));
+        assertThrows(IllegalArgumentException.class, () -> catalog.list(encode("v2:a"), 2));
+        assertEquals(List.of("b", "c"), names(catalog.list(encode("v1:a"), 2)));
+    }
+
+    @Test
+    void cachesTheFirstPageUntilTheCatalogChanges() {
+        McpToolCatalog catalog = catalogOf("b", "c", "d");
+        McpSchema.ListToolsResult first = catalog.list(null, 2);
+
+        assertSame(first, catalog.list(null, 2));
+
+        catalog.put(tool("a"), (exchange, arguments) -> Mono.empty(), true);
+        McpSchema.ListToolsResult afterPut = catalog.list(null, 2);
+        assertNotSame(first, afterPut);
+        assertEquals(List.of("a", "b"), names(afterPut));
+
+        catalog.remove("a");
+        assertEquals(List.of("b", "c"), names(catalog.list(null, 2)));
+
+        catalog.put(tool("b"), (exchange, arguments) -> Mono.empty(), false);
+        assertEquals(List.of("c", "d"), names(catalog.list(null, 2)));
+    }
+
+    @Test
+    void routesTheCallsOfUnlistedTools() {
+        McpToolCatalog catalog = catalogOf("a");
+
+        catalog.put(tool("hidden"), (exchange, arguments) -> Mono.empty(), false);
+
+        assertTrue(catalog.contains("hidden"));
+        assertNotNull(catalog.findCall("hidden").orElse(null));
+        assertEquals(1, catalog.size());
+        assertEquals(List.of("a"), names(catalog.list(null, 0)));
+
+        catalog.remove("hidden");
+        assertFalse(catalog.contains("hidden"));
+    }
+
+    private static McpToolCatalog catalogOf(String... names) {
+        McpToolCatalog catalog = McpToolCatalog.of("test");
+        for (String name : names) {
+            catalog.put(tool(name), (exchange, arguments) -> Mono.empty(), true);
+        }
+        return catalog;
+    }
+
+    private static List<List<String>> listAll(McpToolCatalog catalog, int pageSize) {
+        List<List<String>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            McpSchema.ListToolsResult page = catalog.list(cursor, pageSize);
+            pages.add(names(page));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private static List<String> names(McpSchema.ListToolsResult page) {
+        return page.tools().stream().map(McpSchema.Tool::name).toList();
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static McpSchema.Tool tool(String name) {
+        return new McpSchema.Tool(name, "The " + name + " tool", "{\"type\": \"object\"}");
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip of the tool registry snapshots and the rejection of the snapshots that can't be served, which makes the
+ * mediator fall back to a full warm-up.
+ */
+class McpToolRegistrySnapshotTest {
+    private static final String KEY = "weather-server:1.0:handlers=2";
+    private static final List<McpToolRegistrySnapshot.Entry> ENTRIES = List.of(
+            new McpToolRegistrySnapshot.Entry("get_weather", "Current conditions of a city",
+                    "{\"type\":\"object\",\"properties\":{\"city\":{\"type\":\"string\"}}}", "handler:weather"),
+            new McpToolRegistrySnapshot.Entry("remote_forecast", null, null, "remote:forecast"),
+            new McpToolRegistrySnapshot.Entry("caf\u00e9_\uD83D\uDE00", "", "{}", "handler:caf\u00e9"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsTheWrittenSnapshot() {
+        Path file = directory.resolve("snapshots/tools.snapshot");
+
+        McpToolRegistrySnapshot.write(file, KEY, ENTRIES);
+        McpToolRegistrySnapshot snapshot = McpToolRegistrySnapshot.read(file, KEY).orElseThrow();
+
+        assertEquals(KEY, snapshot.getKey());
+        assertEquals(ENTRIES, snapshot.getEntries());
+    }
+
+    @Test
+    void readsAnEmptySnapshot() {
+        Path file = directory.resolve("tools.snapshot");
+
+        McpToolRegistrySnapshot.write(file, KEY, List.of());
+
+        assertEquals(List.of(), McpToolRegistrySnapshot.read(file, KEY).orElseThrow().getEntries());
+    }
+
+    @Test
+    void ignoresAMissingSnapshot() {
+        assertEquals(Optional.empty(), McpToolRegistrySnapshot.read(directory.resolve("missing.snapshot"), KEY));
+        assertEquals(Optional.empty(), McpToolRegistrySnapshot.read(directory, KEY));
+    }
+
+    @Test
+    void ignoresTheSnapshotOfAnotherRegistry() {
+        Path file = directory.resolve("tools.snapshot");
+
+        McpToolRegistrySnapshot.write(file, KEY, ENTRIES);
+
+        assertEquals(Optional.empty(), McpToolRegistrySnapshot.read(file, "weather-server:1.1:handlers=2"));
+    }
+
+    @Test
+    void ignoresACorruptedSnapshot() throws IOException {
+        Path file = directory.resolve("tools.snapshot");
+        McpToolRegistrySnapshot.write(file, KEY, ENTRIES);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // every byte after the header, including the checksum itself, is covered by the checksum
+        for (int i = 8; i < bytes.length; i += 7) {
+            byte[] corrupted = bytes.clone();
+            corrupted[i] ^= 0x10;
+            Files.write(file, corrupted);
+            assertEquals(Optional.empty(), McpToolRegistrySnapshot.read(file, KEY), "byte " + i);
+        }
+    }
+
+    @Test
+    void ignoresATruncatedSnapshot() throws IOException {
+        Path file = directory.resolve("tools.snapshot");
+        McpToolRegistrySnapshot.write(file, KEY, ENTRIES);
+        byte[] bytes = Files.readAllBytes(file);
+
+        for (int size : List.of(0, 4, 11, bytes.length / 2, bytes.length - 1)) {
+            Files.write(file, Arrays.copyOf(bytes, size));
+            assertEquals(Optional.empty(), McpToolRegistrySnapshot.read(file, KEY), "size " + size);
+        }
+    }
+
+    @Test
+    void ignoresASnapshotWithAValidChecksumButMissingEntries() throws IOException {
+        Path file = directory.resolve("tools.snapshot");
+        McpToolRegistrySnapshot.write(file, KEY, ENTRIES);
+        byte[] content = Arrays.copyOf(Files.readAllBytes(file), (int) Files.size(file) - 4);
+
+        // the entry count promises more entries than the content holds
+        Files.write(file, withChecksum(Arrays.copyOf(content, content.length - 10)));
+        assertEquals(Optional.empty(), McpToolRegistrySnapshot.read(file, KEY));
+
+        // a string length larger than the rest of the content
+        int countOffset = 8 + 4 + KEY.length();
+        ByteBuffer.wrap(content).putInt(countOffset + 4, Integer.MAX_VALUE);
+        Files.write(file, withChecksum(content));
+        assertEquals(Optional.empty(), McpToolRegistrySnapshot.read(file, KEY));
+    }
+
+    @Test
+    void ignoresASnapshotOfAnotherFormatVersion() throws IOException {
+        Path file = directory.resolve("tools.snapshot");
+        McpToolRegistrySnapshot.write(file, KEY, ENTRIES);
+        byte[] content = Arrays.copyOf(Files.readAllBytes(file), (int) Files.size(file) - 4);
+
+        ByteBuffer.wrap(content).putInt(4, McpToolRegistrySnapshot.FORMAT_VERSION + 1);
+        Files.write(file, withChecksum(content));
+
+        assertEquals(Optional.empty(), McpToolRegistrySnapshot.read(file, KEY));
+    }
+
+    @Test
+    void replacesThePreviousSnapshotWithoutLeavingTheTemporaryFile() throws IOException {
+        Path file = directory.resolve("tools.snapshot");
+        Path temporary = directory.resolve("tools.snapshot.tmp");
+        McpToolRegistrySnapshot.write(file, KEY, ENTRIES);
+        // left over by a write that didn't complete
+        Files.writeString(temporary, "partial");
+
+        McpToolRegistrySnapshot.write(file, KEY, ENTRIES.subList(0, 1));
+
+        assertEquals(ENTRIES.subList(0, 1), McpToolRegistrySnapshot.read(file, KEY).orElseThrow().getEntries());
+        assertFalse(Files.exists(temporary));
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void removesTheTemporaryFileOfAFailedWrite() throws IOException {
+        // a non-empty directory can't be replaced by the snapshot
+        Path file = Files.createDirectories(directory.resolve("tools.snapshot"));
+        Files.writeString(file.resolve("other"), "other");
+
+        McpToolRegistrySnapshot.write(file, KEY, ENTRIES);
+
+        assertTrue(Files.isDirectory(file));
+        assertFalse(Files.exists(directory.resolve("tools.snapshot.tmp")));
+        assertEquals(Optional.empty(), McpToolRegistrySnapshot.read(file, KEY));
+    }
+
+    private static byte[] withChecksum(byte[] content) {
+        CRC32 checksum = new CRC32();
+        checksum.update(content);
+        return ByteBuffer.allocate(content.length + 4)
+                .put(content)
+                .putInt((int) checksum.getValue())
+                .array();
+    }
+}
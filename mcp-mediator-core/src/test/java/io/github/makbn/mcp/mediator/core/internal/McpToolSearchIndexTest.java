@@ -0,0 +1,152 @@
+package io.github.makbn.mcp.mediator.core.internal;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ranking of the tool search index and its incremental maintenance as tools are added and removed.
+ */
+class McpToolSearchIndexTest {
+    private static final McpSchema.Tool GET_WEATHER = tool("get_weather", "Current conditions of a city",
+            "city");
+    private static final McpSchema.Tool PLAN_TRIP = tool("plan_trip",
+            "Plans a trip between two cities and checks the weather on the way", "origin", "destination");
+    private static final McpSchema.Tool SEND_EMAIL = tool("sendEmail", "Sends an email to a recipient",
+            "recipientAddress", "subject", "body");
+    private static final McpSchema.Tool LIST_FILES = tool("list_files", "Lists the files of a directory",
+            "directory");
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        McpToolSearchIndex index = indexOf(GET_WEATHER, PLAN_TRIP, SEND_EMAIL, LIST_FILES);
+
+        List<McpToolSearchIndex.Match> matches = index.search("weather", 10);
+
+        assertEquals(List.of("get_weather", "plan_trip"), names(matches));
+        assertTrue(matches.get(0).score() > matches.get(1).score());
+    }
+
+    @Test
+    void ranksRareTermsAboveCommonTerms() {
+        McpToolSearchIndex index = indexOf(GET_WEATHER, PLAN_TRIP, SEND_EMAIL, LIST_FILES,
+                tool("list_directories", "Lists the directories of a directory", "directory"),
+                tool("list_users", "Lists the users"));
+
+        List<McpToolSearchIndex.Match> matches = index.search("list files", 10);
+
+        assertEquals("list_files", matches.get(0).tool().name());
+        assertEquals(3, matches.size());
+    }
+
+    @Test
+    void matchesSplitNamesAndParameters() {
+        McpToolSearchIndex index = indexOf(GET_WEATHER, PLAN_TRIP, SEND_EMAIL, LIST_FILES);
+
+        assertEquals(List.of("sendEmail"), names(index.search("email", 10)));
+        assertEquals(List.of("sendEmail"), names(index.search("recipient address", 10)));
+        assertEquals(List.of("plan_trip"), names(index.search("Destination", 10)));
+    }
+
+    @Test
+    void ignoresStopWordsAndUnknownTerms() {
+        McpToolSearchIndex index = indexOf(GET_WEATHER, PLAN_TRIP, SEND_EMAIL, LIST_FILES);
+
+        assertEquals(List.of(), index.search("the of a", 10));
+        assertEquals(List.of(), index.search("database", 10));
+        assertEquals(List.of("get_weather", "plan_trip"), names(index.search("the weather", 10)));
+    }
+
+    @Test
+    void limitsTheMatches() {
+        McpToolSearchIndex index = indexOf(GET_WEATHER, PLAN_TRIP, SEND_EMAIL, LIST_FILES);
+
+        assertEquals(List.of("get_weather"), names(index.search("weather", 1)));
+        assertEquals(List.of(), index.search("weather", 0));
+    }
+
+    @Test
+    void filtersTheToolsBeforeTheLimit() {
+        McpToolSearchIndex index = indexOf(GET_WEATHER, PLAN_TRIP, SEND_EMAIL, LIST_FILES);
+
+        assertEquals(List.of("plan_trip"), names(index.search("weather", 1, name -> !name.equals("get_weather"))));
+        assertEquals(List.of(), index.search("weather", 10, name -> false));
+    }
+
+    @Test
+    void removesTools() {
+        McpToolSearchIndex index = indexOf(GET_WEATHER, PLAN_TRIP, SEND_EMAIL, LIST_FILES);
+
+        index.remove("get_weather");
+        index.remove("unknown");
+
+        assertEquals(3, index.size());
+        assertEquals(List.of("plan_trip"), names(index.search("weather", 10)));
+        assertEquals(List.of(), index.search("city", 10));
+    }
+
+    @Test
+    void replacesToolsOfTheSameName() {
+        McpToolSearchIndex index = indexOf(GET_WEATHER, PLAN_TRIP);
+
+        index.add(tool("get_weather", "Forecast of a region", "region"));
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(), index.search("city conditions", 10));
+        assertEquals(List.of("get_weather"), names(index.search("forecast", 10)));
+    }
+
+    @Test
+    void scoresIncrementalUpdatesLikeAFreshIndex() {
+        McpToolSearchIndex incremental = indexOf(GET_WEATHER, SEND_EMAIL, LIST_FILES);
+        incremental.add(PLAN_TRIP);
+        incremental.remove("sendEmail");
+        incremental.add(SEND_EMAIL);
+        incremental.remove("list_files");
+        McpToolSearchIndex fresh = indexOf(GET_WEATHER, PLAN_TRIP, SEND_EMAIL);
+
+        for (String query : List.of("weather", "trip weather city", "email recipient", "files")) {
+            List<McpToolSearchIndex.Match> expected = fresh.search(query, 10);
+            List<McpToolSearchIndex.Match> actual = incremental.search(query, 10);
+            assertEquals(names(expected), names(actual), query);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).score(), actual.get(i).score(), 1e-9, query);
+            }
+        }
+    }
+
+    @Test
+    void emptiesTheIndex() {
+        McpToolSearchIndex index = indexOf(GET_WEATHER, PLAN_TRIP);
+
+        index.remove("get_weather");
+        index.remove("plan_trip");
+
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.search("weather", 10));
+    }
+
+    private static McpToolSearchIndex indexOf(McpSchema.Tool... tools) {
+        McpToolSearchIndex index = McpToolSearchIndex.create();
+        for (McpSchema.Tool tool : tools) {
+            index.add(tool);
+        }
+        return index;
+    }
+
+    private static List<String> names(List<McpToolSearchIndex.Match> matches) {
+        return matches.stream().map(match -> match.tool().name()).toList();
+    }
+
+    private static McpSchema.Tool tool(String name, String description, String... parameters) {
+        StringBuilder schema = new StringBuilder("{\"type\": \"object\", \"properties\": {");
+        for (int i = 0; i < parameters.length; i++) {
+            schema.append(i > 0 ? ", " : "").append('"').append(parameters[i]).append("\": {\"type\": \"string\"}");
+        }
+        return new McpSchema.Tool(name, description, schema.append("}}").toString());
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.makbn.mcp.mediator.processor;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Minimal compact JSON writer for the generated descriptors and schemas. The processor runs inside the compiler, so
+ * it doesn't pull in a JSON library.
+ * <p>
+ * Supports maps with string keys, iterables, strings, numbers, booleans and {@code null}; the output matches the
+ * compact output of Jackson for the same values.
+ *
+ * @author Matt Akbarian
+ */
+final class McpJson {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private McpJson() {
+    }
+
+    /**
+     * @param value the value to write
+     * @return the JSON text of the value
+     */
+    static String write(Object value) {
+        StringBuilder output = new StringBuilder();
+        append(output, value);
+        return output.toString();
+    }
+
+    private static void append(StringBuilder output, Object value) {
+        if (value == null) {
+            output.append("null");
+        } else if (value instanceof CharSequence text) {
+            appendString(output, text);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            output.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            output.append('{');
+            Iterator<? extends Map.Entry<?, ?>> entries = map.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<?, ?> entry = entries.next();
+                appendString(output, String.valueOf(entry.getKey()));
+                output.append(':');
+                append(output, entry.getValue());
+                if (entries.hasNext()) {
+                    output.append(',');
+                }
+            }
+            output.append('}');
+        } else if (value instanceof Iterable<?> iterable) {
+            output.append('[');
+            Iterator<?> elements = iterable.iterator();
+            while (elements.hasNext()) {
+                append(output, elements.next());
+                if (elements.hasNext()) {
+                    output.append(',');
+                }
+            }
+            output.append(']');
+        } else {
+            throw new IllegalArgumentException("Unsupported JSON value: " + value.getClass().getName());
+        }
+    }
+
+    private static void appendString(StringBuilder output, CharSequence text) {
+        output.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> output.append("\\\"");
+                case '\\' -> output.append("\\\\");
+                case '\b' -> output.append("\\b");
+                case '\f' -> output.append("\\f");
+                case '\n' -> output.append("\\n");
+                case '\r' -> output.append("\\r");
+                case '\t' -> output.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        output.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        output.append(c);
+                    }
+                }
+            }
+        }
+        output.append('"');
+    }
+}
@@ -0,0 +1,287 @@
+package io.github.makbn.mcp.mediator.processor;
+
+import io.github.makbn.mcp.mediator.api.McpService;
+import io.github.makbn.mcp.mediator.api.McpTool;
+import io.github.makbn.mcp.mediator.api.McpToolInvoker;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor generating the tool artifacts of {@link McpService} classes and {@link McpTool} requests at
+ * build time, so the mediator doesn't have to scan them by reflection on every start.
+ * <p>
+ * For every annotated type a descriptor is written to {@link McpToolInvoker#DESCRIPTOR_LOCATION} holding the tool
+ * descriptions and input schemas. For every service class an {@link McpToolInvoker} is generated next to it which
+ * calls the tool methods directly, and all the services are listed in {@link McpToolInvoker#SERVICE_INDEX_LOCATION}
+ * for the classpath discovery. Private methods, methods of private classes and schemas that depend on the
+ * runtime {@code ObjectMapper} are left out; the mediator handles them at runtime as if there was no descriptor.
+ * <p>
+ * To enable it, add the {@code mcp-mediator-processor} artifact to the annotation processor path of the compiler.
+ *
+ * @author Matt Akbarian
+ */
+@SupportedAnnotationTypes({"io.github.makbn.mcp.mediator.api.McpService", "io.github.makbn.mcp.mediator.api.McpTool"})
+public class McpToolProcessor extends AbstractProcessor {
+    private static final String MCP_TOOL = McpTool.class.getCanonicalName();
+
+    private final Set<String> services = new TreeSet<>();
+    private McpToolSchemas schemas;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.schemas = new McpToolSchemas(processingEnv);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(McpService.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                processService((TypeElement) element);
+            }
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(McpTool.class)) {
+            if (element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.RECORD) {
+                processRequest((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && !services.isEmpty()) {
+            writeServiceIndex();
+        }
+        // the annotations are left to other processors
+        return false;
+    }
+
+    private void processService(TypeElement service) {
+        services.add(schemas.binaryName(service));
+        boolean invokable = isAccessible(service);
+        List<ExecutableElement> invokableMethods = new ArrayList<>();
+        List<Map<String, Object>> tools = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(service.getEnclosedElements())) {
+            AnnotationMirror annotation = McpToolSchemas.annotation(method, MCP_TOOL);
+            Map<String, Object> tool = new LinkedHashMap<>();
+            if (invokable && isInvokable(method)) {
+                tool.put("index", invokableMethods.size());
+                invokableMethods.add(method);
+            } else {
+                tool.put("index", -1);
+            }
+            tool.put("method", method.getSimpleName().toString());
+            tool.put("parameters", method.getParameters()
+                    .stream()
+                    .map(parameter -> schemas.binaryTypeName(parameter.asType()))
+                    .toList());
+            // descriptions of non-annotated methods are generated at runtime as they depend on the describers
+            tool.put("description", annotation != null ? schemas.value(annotation, "description") : null);
+            tool.put("schema", schemas.methodSchema(service, method));
+            tools.add(tool);
+        }
+
+        String invoker = null;
+        if (!invokableMethods.isEmpty()) {
+            invoker = writeInvoker(service, invokableMethods);
+        }
+        Map<String, Object> descriptor = new LinkedHashMap<>();
+        descriptor.put("type", schemas.binaryName(service));
+        descriptor.put("invoker", invoker);
+        descriptor.put("tools", tools);
+        writeDescriptor(service, descriptor);
+    }
+
+    private void processRequest(TypeElement request) {
+        AnnotationMirror annotation = McpToolSchemas.annotation(request, MCP_TOOL);
+        if (annotation == null) {
+            return;
+        }
+        Object schemaType = schemas.value(annotation, "schema");
+        Map<String, Object> descriptor = new LinkedHashMap<>();
+        descriptor.put("type", schemas.binaryName(request));
+        descriptor.put("name", schemas.value(annotation, "name"));
+        descriptor.put("description", schemas.value(annotation, "description"));
+        descriptor.put("schema", schemaType instanceof DeclaredType declaredType
+                ? schemas.requestSchema((TypeElement) declaredType.asElement())
+                : null);
+        writeDescriptor(request, descriptor);
+    }
+
+    private String writeInvoker(TypeElement service, List<ExecutableElement> methods) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(service);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String binaryName = schemas.binaryName(service);
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                .replace('$', '_') + McpToolInvoker.INVOKER_SUFFIX;
+        String invokerName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        String serviceName = service.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements ").append(McpToolInvoker.class.getCanonicalName()).append(" {\n\n")
+                .append("    @Override\n")
+                .append("    public Object invoke(Object service, int tool, Object[] arguments) throws Exception {\n")
+                .append("        switch (tool) {\n");
+        for (int index = 0; index < methods.size(); index++) {
+            ExecutableElement method = methods.get(index);
+            String target = method.getModifiers().contains(Modifier.STATIC)
+                    ? serviceName
+                    : "((" + serviceName + ") service)";
+            StringBuilder call = new StringBuilder(target).append('.').append(method.getSimpleName()).append('(');
+            for (int i = 0; i < method.getParameters().size(); i++) {
+                TypeMirror type = method.getParameters().get(i).asType();
+                call.append(i == 0 ? "" : ", ")
+                        .append('(').append(schemas.qualifiedName(type)).append(") arguments[").append(i).append(']');
+            }
+            call.append(')');
+            source.append("            case ").append(index).append(":\n");
+            if (method.getReturnType().getKind() == TypeKind.VOID) {
+                source.append("                ").append(call).append(";\n")
+                        .append("                return null;\n");
+            } else {
+                source.append("                return ").append(call).append(";\n");
+            }
+        }
+        source.append("            default:\n")
+                .append("                throw new IllegalArgumentException(\"Unknown tool index: \" + tool);\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(invokerName, service);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+            return invokerName;
+        } catch (IOException e) {
+            error(service, "Failed to generate the tool invoker: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeDescriptor(TypeElement type, Map<String, Object> descriptor) {
+        String location = McpToolInvoker.DESCRIPTOR_LOCATION + schemas.binaryName(type) + ".json";
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", location, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(McpJson.write(descriptor));
+            }
+        } catch (IOException e) {
+            error(type, "Failed to write the tool descriptor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the index of the services, merged with the services of the previous incremental compilations that still
+     * exist.
+     */
+    private void writeServiceIndex() {
+        Set<String> index = new TreeSet<>(services);
+        try {
+            FileObject existing = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", McpToolInvoker.SERVICE_INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+                reader.lines()
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty()
+                                && processingEnv.getElementUtils().getTypeElement(name.replace('$', '.')) != null)
+                        .forEach(index::add);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no index written by a previous compilation
+        }
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", McpToolInvoker.SERVICE_INDEX_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                for (String service : index) {
+                    writer.write(service);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write the service index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return {@code true} if the generated invoker placed in the package of the type can call its methods
+     */
+    private static boolean isAccessible(TypeElement type) {
+        Element element = type;
+        while (element instanceof TypeElement) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private boolean isAccessible(TypeMirror type) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        if (erasure instanceof ArrayType arrayType) {
+            return isAccessible(arrayType.getComponentType());
+        }
+        return !(erasure instanceof DeclaredType declaredType)
+                || isAccessible((TypeElement) declaredType.asElement());
+    }
+
+    private boolean isInvokable(ExecutableElement method) {
+        if (method.getModifiers().contains(Modifier.PRIVATE) || method.getParameters()
+                .stream()
+                .anyMatch(parameter -> !isAccessible(parameter.asType()))) {
+            return false;
+        }
+        // the invoker only declares Exception, methods throwing a wider type are invoked at runtime
+        TypeMirror exception = processingEnv.getElementUtils().getTypeElement("java.lang.Exception").asType();
+        TypeMirror error = processingEnv.getElementUtils().getTypeElement("java.lang.Error").asType();
+        return method.getThrownTypes()
+                .stream()
+                .allMatch(thrown -> processingEnv.getTypeUtils().isAssignable(thrown, exception)
+                        || processingEnv.getTypeUtils().isAssignable(thrown, error));
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,339 @@
+package io.github.makbn.mcp.mediator.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates at build time the same input schemas the mediator generates at runtime.
+ * <p>
+ * Method schemas follow {@code McpMethodSchemaGenerator}: simple, collection and map parameters with their validation
+ * constraints. Request schemas follow Jackson's {@code JsonSchemaGenerator} for flat beans and records made of
+ * simple properties. Anything else, nested beans in particular, depends on the runtime {@code ObjectMapper}
+ * configuration; no schema is generated for it and the mediator keeps generating it at runtime.
+ *
+ * @author Matt Akbarian
+ */
+final class McpToolSchemas {
+    static final String TYPE_KEY = "type";
+    static final String ID_KEY = "id";
+    static final String PROPERTIES_KEY = "properties";
+    static final String OBJECT = "object";
+
+    private static final String URN_PREFIX = "urn:jsonschema:";
+    private static final String NOT_NULL = "javax.validation.constraints.NotNull";
+    private static final String JSON_IGNORE = "com.fasterxml.jackson.annotation.JsonIgnore";
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+    private static final Set<String> LOMBOK_GETTERS = Set.of("lombok.Data", "lombok.Value", "lombok.Getter");
+    /**
+     * Simple parameter types of {@code McpMethodSchemaGenerator} and their JSON types.
+     */
+    private static final Map<String, String> METHOD_TYPES = Map.ofEntries(
+            Map.entry("java.lang.String", "string"),
+            Map.entry("java.lang.Integer", "integer"), Map.entry("int", "integer"),
+            Map.entry("java.lang.Long", "integer"), Map.entry("long", "integer"),
+            Map.entry("java.lang.Float", "number"), Map.entry("float", "number"),
+            Map.entry("java.lang.Double", "number"), Map.entry("double", "number"),
+            Map.entry("java.lang.Boolean", "boolean"), Map.entry("boolean", "boolean"));
+    /**
+     * Simple property types of Jackson's {@code JsonSchemaGenerator} and their JSON types.
+     */
+    private static final Map<String, String> BEAN_TYPES;
+
+    static {
+        Map<String, String> beanTypes = new HashMap<>(METHOD_TYPES);
+        beanTypes.put("char", "string");
+        beanTypes.put("java.lang.Character", "string");
+        beanTypes.put("short", "integer");
+        beanTypes.put("java.lang.Short", "integer");
+        beanTypes.put("byte", "integer");
+        beanTypes.put("java.lang.Byte", "integer");
+        beanTypes.put("java.math.BigInteger", "integer");
+        beanTypes.put("java.math.BigDecimal", "number");
+        BEAN_TYPES = Map.copyOf(beanTypes);
+    }
+
+    private final Types types;
+    private final Elements elements;
+    private final TypeMirror collectionType;
+    private final TypeMirror mapType;
+
+    McpToolSchemas(ProcessingEnvironment environment) {
+        this.types = environment.getTypeUtils();
+        this.elements = environment.getElementUtils();
+        this.collectionType = types.erasure(elements.getTypeElement("java.util.Collection").asType());
+        this.mapType = types.erasure(elements.getTypeElement("java.util.Map").asType());
+    }
+
+    /**
+     * @param service the service declaring the method
+     * @param method  the tool method
+     * @return the input schema of the method, {@code null} if it has to be generated at runtime
+     */
+    String methodSchema(TypeElement service, ExecutableElement method) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        List<String> required = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            Map<String, Object> property = parameterSchema(parameter);
+            if (property == null) {
+                return null;
+            }
+            String name = parameter.getSimpleName().toString();
+            properties.put(name, property);
+            if (annotation(parameter, NOT_NULL) != null) {
+                required.add(name);
+            }
+        }
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put(TYPE_KEY, OBJECT);
+        schema.put(ID_KEY, (URN_PREFIX + binaryName(service).replace('.', ':') + ":" + method.getSimpleName())
+                .toLowerCase());
+        schema.put(PROPERTIES_KEY, properties);
+        if (!required.isEmpty()) {
+            schema.put("required", required);
+        }
+        return McpJson.write(schema);
+    }
+
+    /**
+     * @param schemaType the schema type of a request tool, see {@code McpTool#schema()}
+     * @return the input schema of the request, {@code null} if it has to be generated at runtime
+     */
+    String requestSchema(TypeElement schemaType) {
+        boolean isRecord = schemaType.getKind() == ElementKind.RECORD;
+        if (schemaType.getKind() != ElementKind.CLASS && !isRecord
+                || !isRecord && !isType(schemaType.getSuperclass(), "java.lang.Object")) {
+            return null;
+        }
+        List<? extends Element> members = isRecord
+                ? schemaType.getRecordComponents()
+                : ElementFilter.fieldsIn(schemaType.getEnclosedElements());
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (Element member : members) {
+            Set<Modifier> modifiers = member.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+                    || annotation(member, JSON_IGNORE) != null
+                    || !isRecord && !isVisibleProperty(schemaType, member)) {
+                continue;
+            }
+            String jsonType = BEAN_TYPES.get(qualifiedName(member.asType()));
+            if (jsonType == null || !isRecord && hasBooleanPrefix(member)) {
+                return null;
+            }
+            properties.put(propertyName(member), Map.of(TYPE_KEY, jsonType));
+        }
+        if (properties.isEmpty() || hasUnmatchedGetters(schemaType, properties)) {
+            return null;
+        }
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put(TYPE_KEY, OBJECT);
+        schema.put(ID_KEY, URN_PREFIX + binaryName(schemaType).replace('.', ':').replace('$', ':'));
+        schema.put(PROPERTIES_KEY, properties);
+        return McpJson.write(schema);
+    }
+
+    /**
+     * @param type a type
+     * @return the name of the type as returned by {@link Class#getTypeName()} for its erasure
+     */
+    String binaryTypeName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case ARRAY -> binaryTypeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED -> binaryName((TypeElement) ((DeclaredType) type).asElement());
+            case TYPEVAR, INTERSECTION -> binaryTypeName(types.erasure(type));
+            default -> type.getKind().isPrimitive() ? type.getKind().name().toLowerCase() : type.toString();
+        };
+    }
+
+    /**
+     * @param type a type
+     * @return the name of the erasure of the type as written in a source file
+     */
+    String qualifiedName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case ARRAY -> qualifiedName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED -> ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+            case TYPEVAR, INTERSECTION -> qualifiedName(types.erasure(type));
+            default -> type.getKind().isPrimitive() ? type.getKind().name().toLowerCase() : type.toString();
+        };
+    }
+
+    String binaryName(TypeElement type) {
+        return elements.getBinaryName(type).toString();
+    }
+
+    /**
+     * @param element        the annotated element
+     * @param annotationName the qualified name of the annotation
+     * @return the annotation of the element, {@code null} if it is not present
+     */
+    static AnnotationMirror annotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param annotation the annotation
+     * @param name       the name of the annotation element
+     * @return the value of the element including the defaults, {@code null} if the element doesn't exist
+     */
+    Object value(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                elements.getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private Map<String, Object> parameterSchema(VariableElement parameter) {
+        TypeMirror type = parameter.asType();
+        Map<String, Object> schema = new LinkedHashMap<>();
+        String jsonType = METHOD_TYPES.get(qualifiedName(type));
+        if (jsonType != null) {
+            schema.put(TYPE_KEY, jsonType);
+        } else if (types.isAssignable(types.erasure(type), collectionType)) {
+            schema.put(TYPE_KEY, "array");
+            schema.put("items", Map.of(TYPE_KEY, OBJECT));
+        } else if (types.isAssignable(types.erasure(type), mapType)) {
+            schema.put(TYPE_KEY, OBJECT);
+        } else {
+            return null;
+        }
+        return addValidationConstraints(schema, parameter) ? schema : null;
+    }
+
+    /**
+     * Mirrors the constraints added by {@code McpMethodSchemaGenerator}. Only annotations retained at runtime are
+     * considered, since the runtime generator can't see the others.
+     *
+     * @return {@code false} if a constraint can't be reproduced at build time
+     */
+    private boolean addValidationConstraints(Map<String, Object> schema, VariableElement parameter) {
+        for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            Retention retention = annotationType.getAnnotation(Retention.class);
+            if (retention == null || retention.value() != RetentionPolicy.RUNTIME) {
+                continue;
+            }
+            boolean supported = switch (annotationType.getSimpleName().toString()) {
+                case "Min" -> put(schema, "minimum", value(annotation, "value"), Long.class);
+                case "Max" -> put(schema, "maximum", value(annotation, "value"), Long.class);
+                case "Size" -> put(schema, "minLength", value(annotation, "min"), Integer.class)
+                        && put(schema, "maxLength", value(annotation, "max"), Integer.class);
+                case "Pattern" -> put(schema, "pattern", value(annotation, "regexp"), String.class);
+                case "Default" -> putDefault(schema, value(annotation, "value"));
+                case "Schema" -> put(schema, "description", value(annotation, "description"), String.class);
+                default -> true;
+            };
+            if (!supported) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean put(Map<String, Object> schema, String key, Object value, Class<?> type) {
+        if (value != null && !type.isInstance(value)) {
+            return false;
+        }
+        schema.put(key, value);
+        return true;
+    }
+
+    private static boolean putDefault(Map<String, Object> schema, Object value) {
+        if (value instanceof VariableElement constant && constant.getKind() == ElementKind.ENUM_CONSTANT) {
+            schema.put("default", constant.getSimpleName().toString());
+        } else if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+                || value instanceof Character) {
+            schema.put("default", String.valueOf(value));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isVisibleProperty(TypeElement type, Element field) {
+        if (field.getModifiers().contains(Modifier.PUBLIC) || annotation(field, JSON_PROPERTY) != null
+                || LOMBOK_GETTERS.stream().anyMatch(name -> annotation(type, name) != null
+                || annotation(field, name) != null)) {
+            return true;
+        }
+        return ElementFilter.methodsIn(type.getEnclosedElements())
+                .stream()
+                .anyMatch(method -> isGetter(method)
+                        && propertyOfGetter(method).equals(field.getSimpleName().toString()));
+    }
+
+    /**
+     * Jackson also exposes getters without a backing field, such types are left to the runtime generator.
+     */
+    private boolean hasUnmatchedGetters(TypeElement type, Map<String, Object> properties) {
+        return ElementFilter.methodsIn(type.getEnclosedElements())
+                .stream()
+                .filter(McpToolSchemas::isGetter)
+                .filter(method -> annotation(method, JSON_IGNORE) == null)
+                .anyMatch(method -> !properties.containsKey(propertyOfGetter(method)));
+    }
+
+    /**
+     * Lombok generates {@code isActive()} for a {@code boolean isActive} field, which Jackson exposes as
+     * {@code active}.
+     */
+    private static boolean hasBooleanPrefix(Element field) {
+        String name = field.getSimpleName().toString();
+        return field.asType().getKind() == TypeKind.BOOLEAN && name.length() > 2 && name.startsWith("is")
+                && Character.isUpperCase(name.charAt(2));
+    }
+
+    private String propertyName(Element member) {
+        AnnotationMirror property = annotation(member, JSON_PROPERTY);
+        Object name = property != null ? value(property, "value") : null;
+        return name instanceof String value && !value.isEmpty() ? value : member.getSimpleName().toString();
+    }
+
+    private static boolean isGetter(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        return method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC)
+                && method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID
+                && (name.length() > 3 && name.startsWith("get") || name.length() > 2 && name.startsWith("is"));
+    }
+
+    private static String propertyOfGetter(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        String property = name.substring(name.startsWith("get") ? 3 : 2);
+        return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+    }
+
+    private static boolean isType(TypeMirror type, String qualifiedName) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(qualifiedName);
+    }
+}
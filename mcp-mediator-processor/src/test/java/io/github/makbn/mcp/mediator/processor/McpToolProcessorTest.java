@@ -0,0 +1,283 @@
+package io.github.makbn.mcp.mediator.processor;
+
+import io.github.makbn.mcp.mediator.api.McpToolInvoker;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles fixture services with the processor and checks the generated descriptors and invokers.
+ */
+class McpToolProcessorTest {
+    private static final Pattern TOOL = Pattern.compile("\"index\":(-?\\d+),\"method\":\"(\\w+)\"");
+
+    private static final String CALCULATOR = """
+            package fixture;
+
+            import io.github.makbn.mcp.mediator.api.McpService;
+            import io.github.makbn.mcp.mediator.api.McpTool;
+
+            import java.util.List;
+
+            @McpService(name = "calculator")
+            public class Calculator {
+                private int count;
+
+                @McpTool(description = "Adds two numbers")
+                public int add(int a, int b) {
+                    count++;
+                    return a + b;
+                }
+
+                public static long square(long value) {
+                    return value * value;
+                }
+
+                public boolean negate(boolean value) {
+                    return !value;
+                }
+
+                public int sum(int[] values) {
+                    int sum = 0;
+                    for (int value : values) {
+                        sum += value;
+                    }
+                    return sum;
+                }
+
+                public String join(List<String> values, String separator) {
+                    return String.join(separator, values);
+                }
+
+                public <T extends Comparable<T>> T max(T first, T second) {
+                    return first.compareTo(second) >= 0 ? first : second;
+                }
+
+                public void reset() {
+                    count = 0;
+                }
+
+                public int count() {
+                    return count;
+                }
+
+                private String secret() {
+                    return "secret";
+                }
+
+                @McpService
+                public static class Echo {
+                    public String echo(String value) {
+                        return value;
+                    }
+                }
+
+                @McpService
+                private static class Hidden {
+                    public String hello() {
+                        return "hello";
+                    }
+                }
+            }
+            """;
+
+    private static final String GREETING = """
+            package fixture;
+
+            import io.github.makbn.mcp.mediator.api.McpTool;
+
+            @McpTool(name = "greet", description = "Greets someone", schema = Greeting.class)
+            public record Greeting(String name, int times) {
+            }
+            """;
+
+    @TempDir
+    static Path output;
+    private static ClassLoader classLoader;
+
+    @BeforeAll
+    static void compile() throws IOException, URISyntaxException {
+        Path sources = Files.createDirectories(output.resolve("src/fixture"));
+        Files.writeString(sources.resolve("Calculator.java"), CALCULATOR);
+        Files.writeString(sources.resolve("Greeting.java"), GREETING);
+        Path classes = Files.createDirectories(output.resolve("classes"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            String classpath = Path.of(McpToolInvoker.class.getProtectionDomain().getCodeSource().getLocation()
+                    .toURI()).toString();
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-classpath", classpath, "-d", classes.toString()),
+                    null, fileManager.getJavaFileObjects(sources.resolve("Calculator.java").toFile(),
+                            sources.resolve("Greeting.java").toFile()));
+            task.setProcessors(List.of(new McpToolProcessor()));
+            boolean compiled = task.call();
+            assertTrue(compiled, () -> diagnostics.getDiagnostics().toString());
+            assertFalse(diagnostics.getDiagnostics().stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.ERROR));
+        }
+        classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()},
+                McpToolProcessorTest.class.getClassLoader());
+    }
+
+    @Test
+    void invokesInstanceStaticAndPrimitiveMethods() throws Exception {
+        Object calculator = newInstance("fixture.Calculator");
+        Map<String, Integer> tools = toolIndexes("fixture.Calculator");
+        McpToolInvoker invoker = invoker("fixture.Calculator_McpToolInvoker");
+
+        assertEquals(5, invoker.invoke(calculator, tools.get("add"), new Object[]{2, 3}));
+        assertEquals(16L, invoker.invoke(null, tools.get("square"), new Object[]{4L}));
+        assertEquals(false, invoker.invoke(calculator, tools.get("negate"), new Object[]{true}));
+        assertEquals(6, invoker.invoke(calculator, tools.get("sum"), new Object[]{new int[]{1, 2, 3}}));
+    }
+
+    @Test
+    void invokesGenericMethodsThroughTheirErasure() throws Exception {
+        Object calculator = newInstance("fixture.Calculator");
+        Map<String, Integer> tools = toolIndexes("fixture.Calculator");
+        McpToolInvoker invoker = invoker("fixture.Calculator_McpToolInvoker");
+
+        assertEquals("a-b", invoker.invoke(calculator, tools.get("join"), new Object[]{List.of("a", "b"), "-"}));
+        assertEquals("b", invoker.invoke(calculator, tools.get("max"), new Object[]{"a", "b"}));
+        assertEquals(7, invoker.invoke(calculator, tools.get("max"), new Object[]{7, 3}));
+    }
+
+    @Test
+    void returnsNullForVoidMethods() throws Exception {
+        Object calculator = newInstance("fixture.Calculator");
+        Map<String, Integer> tools = toolIndexes("fixture.Calculator");
+        McpToolInvoker invoker = invoker("fixture.Calculator_McpToolInvoker");
+
+        invoker.invoke(calculator, tools.get("add"), new Object[]{1, 1});
+        assertNull(invoker.invoke(calculator, tools.get("reset"), new Object[0]));
+        assertEquals(0, invoker.invoke(calculator, tools.get("count"), new Object[0]));
+    }
+
+    @Test
+    void rejectsUnknownToolIndexes() throws Exception {
+        McpToolInvoker invoker = invoker("fixture.Calculator_McpToolInvoker");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> invoker.invoke(newInstance("fixture.Calculator"), 100, new Object[0]));
+    }
+
+    @Test
+    void leavesPrivateMethodsToTheRuntime() throws IOException {
+        Map<String, Integer> tools = toolIndexes("fixture.Calculator");
+
+        assertEquals(-1, tools.get("secret"));
+        assertTrue(tools.entrySet().stream()
+                .filter(tool -> !tool.getKey().equals("secret"))
+                .allMatch(tool -> tool.getValue() >= 0));
+    }
+
+    @Test
+    void describesAnnotatedAndGeneratedSchemas() throws IOException {
+        String descriptor = descriptor("fixture.Calculator");
+
+        assertTrue(descriptor.startsWith("{\"type\":\"fixture.Calculator\","
+                + "\"invoker\":\"fixture.Calculator_McpToolInvoker\","), descriptor);
+        assertTrue(descriptor.contains("\"method\":\"add\",\"parameters\":[\"int\",\"int\"],"
+                + "\"description\":\"Adds two numbers\",\"schema\":\"{\\\"type\\\":\\\"object\\\","
+                + "\\\"id\\\":\\\"urn:jsonschema:fixture:calculator:add\\\","
+                + "\\\"properties\\\":{\\\"a\\\":{\\\"type\\\":\\\"integer\\\"},"
+                + "\\\"b\\\":{\\\"type\\\":\\\"integer\\\"}}}\""), descriptor);
+        assertTrue(descriptor.contains("\"method\":\"join\",\"parameters\":[\"java.util.List\",\"java.lang.String\"],"
+                + "\"description\":null"), descriptor);
+        assertTrue(descriptor.contains("\"method\":\"max\",\"parameters\":[\"java.lang.Comparable\","
+                + "\"java.lang.Comparable\"]"), descriptor);
+        assertTrue(descriptor.contains("\"method\":\"sum\",\"parameters\":[\"int[]\"],\"description\":null,"
+                + "\"schema\":null"), descriptor);
+    }
+
+    @Test
+    void generatesInvokersOfNestedServices() throws Exception {
+        String descriptor = descriptor("fixture.Calculator$Echo");
+        McpToolInvoker invoker = invoker("fixture.Calculator_Echo_McpToolInvoker");
+
+        assertTrue(descriptor.contains("\"invoker\":\"fixture.Calculator_Echo_McpToolInvoker\""), descriptor);
+        assertEquals("hi", invoker.invoke(newInstance("fixture.Calculator$Echo"),
+                toolIndexes("fixture.Calculator$Echo").get("echo"), new Object[]{"hi"}));
+    }
+
+    @Test
+    void describesPrivateNestedServicesWithoutInvoker() throws IOException {
+        String descriptor = descriptor("fixture.Calculator$Hidden");
+
+        assertTrue(descriptor.contains("\"invoker\":null"), descriptor);
+        assertEquals(Map.of("hello", -1), toolIndexes("fixture.Calculator$Hidden"));
+        assertThrows(ClassNotFoundException.class,
+                () -> classLoader.loadClass("fixture.Calculator_Hidden_McpToolInvoker"));
+    }
+
+    @Test
+    void describesRequestRecords() throws IOException {
+        assertEquals("{\"type\":\"fixture.Greeting\",\"name\":\"greet\",\"description\":\"Greets someone\","
+                        + "\"schema\":\"{\\\"type\\\":\\\"object\\\","
+                        + "\\\"id\\\":\\\"urn:jsonschema:fixture:Greeting\\\","
+                        + "\\\"properties\\\":{\\\"name\\\":{\\\"type\\\":\\\"string\\\"},"
+                        + "\\\"times\\\":{\\\"type\\\":\\\"integer\\\"}}}\"}",
+                descriptor("fixture.Greeting"));
+    }
+
+    @Test
+    void indexesAllTheServices() throws IOException {
+        List<String> services = Files.readAllLines(output.resolve("classes")
+                .resolve(McpToolInvoker.SERVICE_INDEX_LOCATION));
+
+        assertEquals(List.of("fixture.Calculator", "fixture.Calculator$Echo", "fixture.Calculator$Hidden"),
+                services);
+    }
+
+    private static String descriptor(String type) throws IOException {
+        return Files.readString(output.resolve("classes")
+                .resolve(McpToolInvoker.DESCRIPTOR_LOCATION.replace('/', File.separatorChar) + type + ".json"));
+    }
+
+    private static Map<String, Integer> toolIndexes(String type) throws IOException {
+        Map<String, Integer> tools = new HashMap<>();
+        Matcher matcher = TOOL.matcher(descriptor(type));
+        while (matcher.find()) {
+            tools.put(matcher.group(2), Integer.parseInt(matcher.group(1)));
+        }
+        return tools;
+    }
+
+    private static McpToolInvoker invoker(String name) throws ReflectiveOperationException {
+        return (McpToolInvoker) newInstance(name);
+    }
+
+    private static Object newInstance(String name) throws ReflectiveOperationException {
+        var constructor = classLoader.loadClass(name).getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+    }
+}